@@ -0,0 +1,156 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.bukkit.block.Biome;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.logging.Logger;
+
+// Synthetic farm for the benchmarks: crops on a 3-block grid on farmland, in a mix
+// loosely weighted like a survival server, planted at random over the 36 hours before START
+// and all due on the first pass, as after a restart. Rules default to the biomes.yml shipped
+// in the plugin jar. Passes run through the plugin's own growth pipeline and worker pool, with
+// this thread standing in for the main thread and priority tiers off.
+final class BenchFarm {
+
+    static final int GROUND_Y = 64;
+    static final long START = 1_700_000_000_000L;
+    // A whole tick per slice; the pass still spreads over as many slices as the workers need
+    private static final long SLICE_BUDGET_MILLIS = 50L;
+    private static final int TREES_PER_SLICE = 2;
+
+    private static final String[] BIOMES = {
+            "PLAINS", "JUNGLE", "DESERT", "TAIGA", "FROZEN_PEAKS", "RIVER", "terralith:yellowstone"
+    };
+
+    final MemoryWorld world;
+    final ManualClock clock = new ManualClock(START);
+    final GrowthShard shard = new GrowthShard(null, 0, 0, SLICE_BUDGET_MILLIS, new GrowthMetrics());
+    final WorldCrops crops = shard.cropsIn("world");
+    final GrowthEngine engine;
+    final long[] positions;
+    private final GrowthWorkers workers;
+    private final GrowthPipeline pipeline;
+
+    BenchFarm(int count, long seed) {
+        this(count, seed, loadRules(), 60_000L);
+    }
+
+    BenchFarm(int count, long seed, GrowthRules rules, long retryDelayMillis) {
+        BenchServer.install();
+
+        world = new MemoryWorld(biomes(), GROUND_Y);
+        engine = new GrowthEngine(rules);
+        workers = new GrowthWorkers(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), Logger.getLogger("BiomeMetric-bench"));
+        pipeline = new GrowthPipeline(new GrowthPipeline.Host() {
+            @Override
+            public WorldAccess world(GrowthShard shard, String worldName) {
+                return world;
+            }
+
+            @Override
+            public void markDirty(WorldCrops crops, int slot) {
+                // Nothing is saved
+            }
+
+            @Override
+            public void markRemoved(WorldCrops crops, long pos) {
+                // Nothing is saved
+            }
+
+            @Override
+            public long intervalMillis() {
+                return retryDelayMillis;
+            }
+
+            @Override
+            public ProximityTiers tiers() {
+                return null;
+            }
+
+            @Override
+            public int treesPerTick() {
+                return TREES_PER_SLICE;
+            }
+        }, workers, () -> engine, clock);
+        positions = new long[count];
+
+        Random random = new Random(seed);
+        int side = (int) Math.ceil(Math.sqrt(count));
+        for (int i = 0; i < count; i++) {
+            int x = (i % side) * 3;
+            int z = (i / side) * 3;
+            Material type = pick(random);
+            world.setBlockData(x, GROUND_Y, z, BenchServer.blockData(type));
+
+            long planted = START - (long) (random.nextDouble() * 36 * 3600_000L);
+            positions[i] = plant(x, GROUND_Y, z, type, planted);
+        }
+    }
+
+    // Tracks a crop due right away, as after a restart; the next pass works out when it is next due
+    private long plant(int x, int y, int z, Material type, long planted) {
+        long pos = BlockKey.pack(x, y, z);
+        int slot = crops.put(pos, type, planted, 1, 0L, true);
+        crops.setNextDue(slot, clock.millis());
+        shard.dueQueue.push(clock.millis(), crops, pos);
+        return pos;
+    }
+
+    // Runs a pass over every crop due by now, slice after slice, waiting on the workers in
+    // between as the main thread would; returns how many crops it applied
+    int runPass() {
+        shard.pass.begin(clock.millis());
+        shard.metrics.beginPass();
+        while (shard.pass.running()) {
+            while (shard.inFlight > 0 && shard.finished.isEmpty()) {
+                Thread.onSpinWait();
+            }
+            pipeline.slice(shard, shard.pass.startSlice());
+            pipeline.growTrees(shard, clock.millis());
+        }
+        return shard.pass.lastProcessed();
+    }
+
+    void close() {
+        workers.close();
+    }
+
+    static Biome[] biomes() {
+        Biome[] biomes = new Biome[BIOMES.length];
+        for (int i = 0; i < BIOMES.length; i++) {
+            biomes[i] = BenchServer.biome(BIOMES[i], i);
+        }
+        return biomes;
+    }
+
+    static GrowthRules loadRules() {
+        BenchServer.install();
+        try (Reader reader = new InputStreamReader(BenchFarm.class.getResourceAsStream("/biomes.yml"), StandardCharsets.UTF_8)) {
+            return GrowthRules.compile(YamlConfiguration.loadConfiguration(reader));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Material pick(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 35) return Material.WHEAT;
+        if (roll < 55) return Material.CARROTS;
+        if (roll < 70) return Material.POTATOES;
+        if (roll < 75) return Material.BEETROOTS;
+        if (roll < 83) return Material.SUGAR_CANE;
+        if (roll < 87) return Material.CACTUS;
+        if (roll < 90) return Material.BAMBOO;
+        if (roll < 93) return Material.PUMPKIN_STEM;
+        if (roll < 96) return Material.MELON_STEM;
+        if (roll < 98) return Material.SWEET_BERRY_BUSH;
+        return Material.OAK_SAPLING;
+    }
+}
@@ -0,0 +1,131 @@
+package com.Bit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Server;
+import org.bukkit.block.Biome;
+import org.bukkit.block.data.Ageable;
+import org.bukkit.block.data.BlockData;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+// Offline stand-ins for the few server pieces the growth code reaches: Bukkit's Server
+// (for Material.createBlockData), block data with an age, and biomes. All of them are
+// java.lang.reflect.Proxy instances, so the benchmarks run without a server jar.
+final class BenchServer {
+
+    private static boolean installed;
+
+    private BenchServer() {}
+
+    static synchronized void install() {
+        if (installed) return;
+        installed = true;
+
+        Logger logger = Logger.getLogger("BiomeMetric-bench");
+        Server server = (Server) Proxy.newProxyInstance(BenchServer.class.getClassLoader(), new Class<?>[]{Server.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "createBlockData" -> args.length == 1 && args[0] instanceof Material material
+                            ? blockData(material)
+                            : unsupported(method);
+                    case "getLogger" -> logger;
+                    case "getName", "getVersion", "getBukkitVersion" -> "bench";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "BenchServer";
+                    default -> defaultValue(method.getReturnType());
+                });
+        Bukkit.setServer(server);
+    }
+
+    static BlockData blockData(Material material) {
+        return blockData(material, maxAge(material), 0);
+    }
+
+    static Biome biome(String name, int ordinal) {
+        NamespacedKey key = name.indexOf(':') < 0
+                ? NamespacedKey.minecraft(name.toLowerCase(Locale.ROOT))
+                : NamespacedKey.fromString(name.toLowerCase(Locale.ROOT));
+        return (Biome) Proxy.newProxyInstance(BenchServer.class.getClassLoader(), new Class<?>[]{Biome.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "name", "toString" -> name;
+                    case "ordinal", "hashCode" -> ordinal;
+                    case "getKey", "getKeyOrThrow" -> key;
+                    case "compareTo" -> Integer.compare(ordinal, ((Biome) args[0]).ordinal());
+                    case "equals" -> proxy == args[0];
+                    default -> unsupported(method);
+                });
+    }
+
+    private static BlockData blockData(Material material, int maxAge, int age) {
+        Class<?>[] interfaces = maxAge >= 0 ? new Class<?>[]{Ageable.class} : new Class<?>[]{BlockData.class};
+        return (BlockData) Proxy.newProxyInstance(BenchServer.class.getClassLoader(), interfaces,
+                new AgeableData(material, maxAge, age));
+    }
+
+    // Vanilla maximum ages of the tracked crops, -1 for blocks without an age
+    private static int maxAge(Material material) {
+        return switch (material) {
+            case WHEAT, CARROTS, POTATOES, MELON_STEM, PUMPKIN_STEM -> 7;
+            case BEETROOTS, SWEET_BERRY_BUSH -> 3;
+            case COCOA -> 2;
+            case CACTUS, SUGAR_CANE -> 15;
+            case BAMBOO -> 1;
+            case KELP -> 25;
+            default -> -1;
+        };
+    }
+
+    private static final class AgeableData implements InvocationHandler {
+        private final Material material;
+        private final int maxAge;
+        private int age;
+
+        AgeableData(Material material, int maxAge, int age) {
+            this.material = material;
+            this.maxAge = maxAge;
+            this.age = age;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            return switch (method.getName()) {
+                case "getMaterial" -> material;
+                case "getAge" -> age;
+                case "setAge" -> {
+                    age = (Integer) args[0];
+                    yield null;
+                }
+                case "getMaximumAge" -> maxAge;
+                case "clone" -> blockData(material, maxAge, age);
+                case "matches", "equals" -> args[0] instanceof BlockData other && Proxy.isProxyClass(other.getClass())
+                        && Proxy.getInvocationHandler(other) instanceof AgeableData data
+                        && data.material == material && data.age == age;
+                case "hashCode" -> material.hashCode() * 31 + age;
+                case "getAsString", "toString" -> material.getKey() + (maxAge >= 0 ? "[age=" + age + "]" : "");
+                default -> unsupported(method);
+            };
+        }
+    }
+
+    private static Object unsupported(Method method) {
+        throw new UnsupportedOperationException("Not available in the benchmark stand-in: " + method);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        return 0;
+    }
+}
@@ -0,0 +1,68 @@
+package com.Bit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// The growth pass over 10k, 100k and 1M crops: every crop evaluated (what a pass cost
+// before the due queue) against one update-interval's worth of due crops.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GrowthPassBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int crops;
+
+    private BenchFarm farm;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        farm = new BenchFarm(crops, 42L);
+        // Settle every crop on its real next-due time
+        farm.runPass();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        farm.close();
+    }
+
+    @Benchmark
+    public void fullScan(Blackhole blackhole) {
+        long now = farm.clock.millis();
+        WorldCrops tracked = farm.crops;
+        GrowthEngine engine = farm.engine;
+        for (long pos : farm.positions) {
+            int slot = tracked.slotOf(pos);
+            if (slot < 0) continue;
+            CropUpdate update = new CropUpdate(tracked, slot);
+            engine.simulate(farm.world, update, now);
+            blackhole.consume(update.nextDue);
+        }
+    }
+
+    // Each call moves the clock on one default update-interval and runs the plugin's pipeline,
+    // snapshots and workers included
+    @Benchmark
+    public int duePass() {
+        farm.clock.advance(60_000L);
+        return farm.runPass();
+    }
+}
@@ -0,0 +1,92 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Position keys: packed longs and the crop index built on them, next to the
+// "world:x:y:z" string keys crops.yml used, and the binary record codec
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class KeyBenchmark {
+
+    private static final int ENTRIES = 100_000;
+
+    private final int[][] coords = new int[1024][];
+    private final WorldCrops index = new WorldCrops("world");
+    private final long[] keys = new long[ENTRIES];
+    private byte[] record;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchServer.install();
+        Random random = new Random(7L);
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] = new int[]{random.nextInt(60_000) - 30_000, random.nextInt(384) - 64, random.nextInt(60_000) - 30_000};
+        }
+
+        CropRecord crop = new CropRecord(Material.WHEAT, BenchFarm.START, 1, 0L);
+        for (int i = 0; i < ENTRIES; i++) {
+            keys[i] = BlockKey.pack(random.nextInt(20_000), 64, random.nextInt(20_000));
+            index.put(keys[i], crop, true);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CropRecordCodec.write(new DataOutputStream(bytes), keys[0], crop);
+        record = bytes.toByteArray();
+    }
+
+    @Benchmark
+    public int packUnpack() {
+        int[] c = coords[next++ & 1023];
+        long key = BlockKey.pack(c[0], c[1], c[2]);
+        return BlockKey.x(key) + BlockKey.y(key) + BlockKey.z(key);
+    }
+
+    @Benchmark
+    public int stringKey() {
+        int[] c = coords[next++ & 1023];
+        String key = "world" + ":" + c[0] + ":" + c[1] + ":" + c[2];
+        String[] parts = key.split(":");
+        return Integer.parseInt(parts[1]) + Integer.parseInt(parts[2]) + Integer.parseInt(parts[3]);
+    }
+
+    @Benchmark
+    public long chunkKey() {
+        return WorldCrops.chunkKeyOf(keys[next++ % ENTRIES]);
+    }
+
+    @Benchmark
+    public long indexLookup() {
+        int slot = index.slotOf(keys[next++ % ENTRIES]);
+        return index.planted(slot);
+    }
+
+    @Benchmark
+    public CropRecord[] recordRoundTrip() throws IOException {
+        CropRecord[] out = new CropRecord[1];
+        CropRecordCodec.read(new DataInputStream(new ByteArrayInputStream(record)), (pos, read) -> out[0] = read);
+        return out;
+    }
+}
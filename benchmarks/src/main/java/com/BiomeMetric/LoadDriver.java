@@ -0,0 +1,151 @@
+package com.Bit;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Headless load run: plants a synthetic farm in an in-memory world and fast-forwards
+// simulated days with a manual clock, one growth pass per update-interval, then prints
+// per-pass latency percentiles and the allocation rate. Passes go through the plugin's growth
+// pipeline and worker pool, so the numbers cover snapshots and hand-offs as well. Meant for
+// trying a biomes.yml or a crop count before it reaches a live server.
+public final class LoadDriver {
+
+    private LoadDriver() {}
+
+    public static void main(String[] args) {
+        int crops = 100_000;
+        double days = 3;
+        long seed = 42L;
+        long intervalSeconds = -1;
+        File rulesFile = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--help") || arg.equals("-h")) {
+                usage();
+                return;
+            }
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + arg);
+                usage();
+                System.exit(2);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--crops" -> crops = Integer.parseInt(value);
+                case "--days" -> days = Double.parseDouble(value);
+                case "--interval" -> intervalSeconds = Long.parseLong(value);
+                case "--rules" -> rulesFile = new File(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                default -> {
+                    System.err.println("Unknown option " + arg);
+                    usage();
+                    System.exit(2);
+                }
+            }
+        }
+
+        BenchServer.install();
+        GrowthRules rules;
+        if (rulesFile != null) {
+            if (!rulesFile.isFile()) {
+                System.err.println("No such rules file: " + rulesFile);
+                System.exit(2);
+            }
+            YamlConfiguration config = YamlConfiguration.loadConfiguration(rulesFile);
+            rules = GrowthRules.compile(config);
+            if (intervalSeconds < 0) intervalSeconds = config.getLong("update-interval", 60);
+        } else {
+            rules = BenchFarm.loadRules();
+        }
+        if (intervalSeconds <= 0) intervalSeconds = 60;
+        long interval = intervalSeconds * 1000L;
+
+        long setupStart = System.nanoTime();
+        BenchFarm farm = new BenchFarm(crops, seed, rules, interval);
+        System.out.printf(Locale.ROOT, "Planted %,d crops in %.0f ms (crop store %d bytes per crop); simulating %.1f days at one pass every %d s%n",
+                crops, (System.nanoTime() - setupStart) / 1e6, farm.crops.memoryBytes() / Math.max(1, crops),
+                days, intervalSeconds);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int passes = (int) Math.max(1, Math.round(days * 86_400_000L / interval));
+        int passesPerDay = (int) Math.max(1, 86_400_000L / interval);
+        long[] latency = new long[passes];
+        long[] mainThread = new long[passes];
+        long evaluated = 0;
+        long allocated = 0;
+        long busyNanos = 0;
+
+        // The first pass evaluates the whole farm, as after a restart; it is reported on its own
+        long allocBefore = allocatedBytes(threads);
+        long start = System.nanoTime();
+        int first = farm.runPass();
+        long firstNanos = System.nanoTime() - start;
+        long firstAllocated = allocatedBytes(threads) - allocBefore;
+        long firstMainThread = farm.shard.metrics.lastMainThreadNanos();
+
+        int dayEvaluated = 0;
+        for (int pass = 0; pass < passes; pass++) {
+            farm.clock.advance(interval);
+
+            allocBefore = allocatedBytes(threads);
+            start = System.nanoTime();
+            int count = farm.runPass();
+            long nanos = System.nanoTime() - start;
+            allocated += allocatedBytes(threads) - allocBefore;
+
+            latency[pass] = nanos;
+            mainThread[pass] = farm.shard.metrics.lastMainThreadNanos();
+            busyNanos += nanos;
+            evaluated += count;
+            dayEvaluated += count;
+            if ((pass + 1) % passesPerDay == 0 || pass + 1 == passes) {
+                System.out.printf(Locale.ROOT, "  day %5.1f: %,d evaluated, %,d queued, %,d trees grown%n",
+                        (pass + 1) / (double) passesPerDay, dayEvaluated, farm.shard.dueQueue.size(), farm.world.trees());
+                dayEvaluated = 0;
+            }
+        }
+
+        farm.close();
+
+        Arrays.sort(latency);
+        Arrays.sort(mainThread);
+        System.out.printf(Locale.ROOT, "First pass: %,d crops in %.2f ms (%.2f ms on the main thread), %.1f MB allocated%n",
+                first, firstNanos / 1e6, firstMainThread / 1e6, firstAllocated / 1048576.0);
+        System.out.printf(Locale.ROOT, "Passes: %,d, %,.1f crops per pass on average%n",
+                passes, evaluated / (double) passes);
+        System.out.printf(Locale.ROOT, "Pass latency ms: p50 %.3f  p90 %.3f  p99 %.3f  p99.9 %.3f  max %.3f%n",
+                percentile(latency, 0.50), percentile(latency, 0.90), percentile(latency, 0.99),
+                percentile(latency, 0.999), latency[passes - 1] / 1e6);
+        System.out.printf(Locale.ROOT, "Main thread ms per pass: p50 %.3f  p90 %.3f  p99 %.3f  p99.9 %.3f  max %.3f%n",
+                percentile(mainThread, 0.50), percentile(mainThread, 0.90), percentile(mainThread, 0.99),
+                percentile(mainThread, 0.999), mainThread[passes - 1] / 1e6);
+        System.out.printf(Locale.ROOT, "Allocation: %.1f MB total, %.1f MB/s while passing, %.0f bytes per evaluated crop%n",
+                allocated / 1048576.0,
+                busyNanos == 0 ? 0 : allocated / 1048576.0 / (busyNanos / 1e9),
+                evaluated == 0 ? 0 : allocated / (double) evaluated);
+    }
+
+    // Summed over every live thread, so the workers' share is counted too
+    private static long allocatedBytes(com.sun.management.ThreadMXBean threads) {
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) total += allocated;
+        }
+        return total;
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    private static void usage() {
+        System.err.println("Usage: java -cp benchmarks.jar com.Bit.LoadDriver [--crops N] [--days D] "
+                + "[--interval SECONDS] [--rules biomes.yml] [--seed S]");
+    }
+}
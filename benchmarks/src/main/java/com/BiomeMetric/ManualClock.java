@@ -0,0 +1,20 @@
+package com.Bit;
+
+// Clock that only moves when told to, so simulated days pass as fast as the growth code runs
+final class ManualClock implements Clock {
+
+    private long now;
+
+    ManualClock(long start) {
+        this.now = start;
+    }
+
+    void advance(long millis) {
+        now += millis;
+    }
+
+    @Override
+    public long millis() {
+        return now;
+    }
+}
@@ -0,0 +1,148 @@
+package com.Bit;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.block.Biome;
+import org.bukkit.block.data.BlockData;
+
+import java.lang.reflect.Proxy;
+
+// Sparse in-memory world for the benchmarks and the load driver. Everything below groundY
+// is farmland, everything else is air unless set, every chunk is loaded, and biomes vary per chunk.
+// Only the thread running the pipeline touches it; workers read snapshot copies.
+final class MemoryWorld implements WorldAccess {
+
+    static final int MIN_HEIGHT = -64;
+    static final int MAX_HEIGHT = 320;
+
+    // Blocks set per chunk, so a snapshot copies one chunk's worth
+    private final LongHashMap<LongHashMap<BlockData>> chunks = new LongHashMap<>();
+    private final Biome[] biomes;
+    private final int groundY;
+    private final BlockData air = BenchServer.blockData(Material.AIR);
+    private final BlockData ground = BenchServer.blockData(Material.FARMLAND);
+    private final BlockData log = BenchServer.blockData(Material.OAK_LOG);
+
+    // Writes land straight away; this only counts them for applyWrites
+    private int writes;
+    private int trees;
+
+    MemoryWorld(Biome[] biomes, int groundY) {
+        this.biomes = biomes;
+        this.groundY = groundY;
+    }
+
+    int trees() {
+        return trees;
+    }
+
+    @Override
+    public int minHeight() {
+        return MIN_HEIGHT;
+    }
+
+    @Override
+    public int maxHeight() {
+        return MAX_HEIGHT;
+    }
+
+    @Override
+    public void setBlockData(int x, int y, int z, BlockData data) {
+        long chunkKey = WorldCrops.chunkKey(x >> 4, z >> 4);
+        LongHashMap<BlockData> blocks = chunks.get(chunkKey);
+        if (data.getMaterial() == Material.AIR) {
+            if (blocks != null) blocks.remove(BlockKey.pack(x, y, z));
+        } else {
+            if (blocks == null) {
+                blocks = new LongHashMap<>();
+                chunks.put(chunkKey, blocks);
+            }
+            blocks.put(BlockKey.pack(x, y, z), data);
+        }
+        writes++;
+    }
+
+    @Override
+    public int applyWrites() {
+        int count = writes;
+        writes = 0;
+        return count;
+    }
+
+    @Override
+    public Material getType(int x, int y, int z) {
+        return lookup(chunks.get(WorldCrops.chunkKey(x >> 4, z >> 4)), x, y, z).getMaterial();
+    }
+
+    @Override
+    public BlockData getBlockData(int x, int y, int z) {
+        // Callers may change what they get, as they may with a snapshot's copy
+        return lookup(chunks.get(WorldCrops.chunkKey(x >> 4, z >> 4)), x, y, z).clone();
+    }
+
+    @Override
+    public Biome getBiome(int x, int y, int z) {
+        return biomeOf(x >> 4, z >> 4);
+    }
+
+    @Override
+    public boolean isLoaded(int chunkX, int chunkZ) {
+        return true;
+    }
+
+    // A copy of the chunk's blocks behind a ChunkSnapshot proxy; block data is cloned on every read
+    @Override
+    public ChunkSnapshot snapshot(int chunkX, int chunkZ, boolean withBiomes) {
+        LongHashMap<BlockData> copy = new LongHashMap<>();
+        LongHashMap<BlockData> blocks = chunks.get(WorldCrops.chunkKey(chunkX, chunkZ));
+        if (blocks != null) {
+            for (int slot = 0; slot < blocks.capacity(); slot++) {
+                BlockData data = blocks.valueAt(slot);
+                if (data != null) copy.put(blocks.keyAt(slot), data.clone());
+            }
+        }
+
+        int baseX = chunkX << 4;
+        int baseZ = chunkZ << 4;
+        Biome biome = biomeOf(chunkX, chunkZ);
+        return (ChunkSnapshot) Proxy.newProxyInstance(MemoryWorld.class.getClassLoader(), new Class<?>[]{ChunkSnapshot.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getX" -> chunkX;
+                    case "getZ" -> chunkZ;
+                    case "getBlockType" -> lookup(copy, baseX + (Integer) args[0], (Integer) args[1], baseZ + (Integer) args[2]).getMaterial();
+                    case "getBlockData" -> lookup(copy, baseX + (Integer) args[0], (Integer) args[1], baseZ + (Integer) args[2]).clone();
+                    case "getBiome" -> {
+                        if (!withBiomes) throw new IllegalStateException("Snapshot taken without biomes");
+                        yield biome;
+                    }
+                    case "isSectionEmpty" -> false;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "MemoryWorld chunk " + chunkX + ", " + chunkZ;
+                    default -> throw new UnsupportedOperationException("Not available in the benchmark stand-in: " + method);
+                });
+    }
+
+    // A plain log column where the tree fits, so the load driver pays for the writes a tree costs
+    @Override
+    public TreeResult growTree(int x, int y, int z, Material saplingType) {
+        if (getType(x, y, z) != saplingType) return TreeResult.NOT_TRIED;
+        if (!SaplingGrowth.hasRoom(this, x, y, z, saplingType)) return TreeResult.FAILED;
+
+        for (int dy = 0; dy < 5; dy++) {
+            setBlockData(x, y + dy, z, log);
+        }
+        trees++;
+        return TreeResult.GROWN;
+    }
+
+    private Biome biomeOf(int chunkX, int chunkZ) {
+        return biomes[Math.floorMod(chunkX * 31 + chunkZ, biomes.length)];
+    }
+
+    private BlockData lookup(LongHashMap<BlockData> blocks, int x, int y, int z) {
+        BlockData data = blocks == null ? null : blocks.get(BlockKey.pack(x, y, z));
+        if (data != null) return data;
+        return y < groundY ? ground : air;
+    }
+}
@@ -0,0 +1,125 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+// Crop persistence at realistic sizes: loading and rewriting the binary region store,
+// a typical write-behind flush of 1% of the crops, and the legacy crops.yml load and
+// save the plugin used to do on every change
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PersistenceBenchmark {
+
+    @Param({"10000", "100000"})
+    public int crops;
+
+    private Path dir;
+    private long[] positions;
+    private CropRecord[] records;
+    private RegionCropStore regions;
+    private File yamlFile;
+    private YamlCropStore yaml;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchServer.install();
+        dir = Files.createTempDirectory("biomemetric-bench");
+
+        Random random = new Random(11L);
+        Material[] types = {Material.WHEAT, Material.CARROTS, Material.SUGAR_CANE, Material.PUMPKIN_STEM};
+        positions = new long[crops];
+        records = new CropRecord[crops];
+        for (int i = 0; i < crops; i++) {
+            positions[i] = BlockKey.pack(random.nextInt(8_000) - 4_000, 64, random.nextInt(8_000) - 4_000);
+            records[i] = new CropRecord(types[i & 3], BenchFarm.START - random.nextInt(86_400_000), 1 + (i & 1), 0L);
+        }
+
+        regions = new RegionCropStore(dir.resolve("crops"), Logger.getLogger("BiomeMetric-bench"));
+        writeAll(regions);
+        regions.commit();
+
+        yamlFile = dir.resolve("crops.yml").toFile();
+        yaml = new YamlCropStore(yamlFile);
+        writeAll(yaml);
+        yaml.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int regionLoad() throws IOException {
+        int[] count = {0};
+        regions.load((world, pos, record) -> count[0]++);
+        return count[0];
+    }
+
+    @Benchmark
+    public void regionRewriteAll() throws IOException {
+        writeAll(regions);
+        regions.commit();
+    }
+
+    // What one write-behind flush typically carries
+    @Benchmark
+    public void regionFlushOnePercent() throws IOException {
+        int start = (round++ * 97) % crops;
+        for (int i = 0; i < crops / 100; i++) {
+            int index = (start + i * 101) % crops;
+            regions.write("world", positions[index], records[index]);
+        }
+        regions.commit();
+    }
+
+    @Benchmark
+    public int yamlLoad() {
+        int[] count = {0};
+        new YamlCropStore(yamlFile).load((world, pos, record) -> count[0]++);
+        return count[0];
+    }
+
+    // The old saveFile: rewrite all of crops.yml after a single change
+    @Benchmark
+    public void yamlSave() throws IOException {
+        int index = round++ % crops;
+        yaml.write("world", positions[index], records[index]);
+        yaml.commit();
+    }
+
+    private void writeAll(CropStore store) {
+        for (int i = 0; i < crops; i++) {
+            store.write("world", positions[i], records[i]);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.bukkit.block.Biome;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Growth rule resolution: the compiled per-ordinal table the simulators use, the
+// name-based path behind it, and compiling biomes.yml as a reload does
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RuleLookupBenchmark {
+
+    private static final Material[] TYPES = {
+            Material.WHEAT, Material.CARROTS, Material.SUGAR_CANE, Material.PUMPKIN_STEM
+    };
+
+    private GrowthRules rules;
+    private Biome[] biomes;
+    private YamlConfiguration config;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        rules = BenchFarm.loadRules();
+        biomes = BenchFarm.biomes();
+        config = YamlConfiguration.loadConfiguration(
+                new InputStreamReader(RuleLookupBenchmark.class.getResourceAsStream("/biomes.yml"), StandardCharsets.UTF_8));
+        for (Biome biome : biomes) {
+            rules.forBiome(biome);
+        }
+    }
+
+    @Benchmark
+    public long forBiome() {
+        int i = next++;
+        return rules.forBiome(biomes[i % biomes.length]).growTime(TYPES[i & 3]);
+    }
+
+    @Benchmark
+    public long forName() {
+        int i = next++;
+        return rules.forName(biomes[i % biomes.length].name()).growTime(TYPES[i & 3]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public GrowthRules compile() {
+        return GrowthRules.compile(config);
+    }
+}
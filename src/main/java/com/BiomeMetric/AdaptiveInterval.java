@@ -0,0 +1,113 @@
+package com.Bit;
+
+import org.bukkit.Server;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.lang.reflect.Method;
+
+// Adaptive growth cadence: widens the update interval and shrinks the tick budget while the
+// server is slow, and walks them back once it has headroom again. Growth is worked out from
+// elapsed time, so this only changes how often crops visibly step, never where they end up.
+final class AdaptiveInterval {
+
+    private static final double TICK_MILLIS = 50.0;
+
+    private final long minTicks;
+    private final long maxTicks;
+    private final long minBudget;
+    private final long maxBudget;
+    private final double targetMspt;
+    // Paper's Server.getAverageTickTime(), or null on servers without it
+    private final Server server;
+    private final Method averageTickTime;
+
+    private long intervalTicks;
+    private long budgetMillis;
+    // Smoothed time between our ticks; without Paper it is the only load signal, and it only moves once ticks overrun 50 ms
+    private double tickMillis = TICK_MILLIS;
+    private long lastTickNanos;
+
+    private AdaptiveInterval(ConfigurationSection section, Server server, long intervalTicks, long budgetMillis) {
+        this.minTicks = Math.max(20L, section.getLong("min-interval", 15) * 20L);
+        this.maxTicks = Math.max(minTicks, section.getLong("max-interval", 600) * 20L);
+        this.minBudget = Math.max(1L, section.getLong("min-tick-budget", 1));
+        this.maxBudget = Math.max(minBudget, section.getLong("max-tick-budget", 10));
+        this.targetMspt = section.getDouble("target-mspt", 40);
+        this.intervalTicks = clamp(intervalTicks, minTicks, maxTicks);
+        this.budgetMillis = clamp(budgetMillis, minBudget, maxBudget);
+
+        Method method = null;
+        try {
+            method = server.getClass().getMethod("getAverageTickTime");
+        } catch (NoSuchMethodException ignored) {}
+        this.server = server;
+        this.averageTickTime = method;
+    }
+
+    // Null unless adaptive-interval.enabled is set
+    static AdaptiveInterval fromConfig(ConfigurationSection section, Server server, long intervalTicks, long budgetMillis) {
+        if (section == null || !section.getBoolean("enabled", false)) return null;
+        return new AdaptiveInterval(section, server, intervalTicks, budgetMillis);
+    }
+
+    long intervalTicks() {
+        return intervalTicks;
+    }
+
+    long budgetMillis() {
+        return budgetMillis;
+    }
+
+    boolean reportsMspt() {
+        return averageTickTime != null;
+    }
+
+    void tick(long nanoTime) {
+        if (lastTickNanos != 0) {
+            tickMillis += ((nanoTime - lastTickNanos) / 1e6 - tickMillis) * 0.05;
+        }
+        lastTickNanos = nanoTime;
+    }
+
+    // Recent tick time in ms, from the server if it reports it
+    double mspt() {
+        if (averageTickTime != null) {
+            try {
+                return ((Number) averageTickTime.invoke(server)).doubleValue();
+            } catch (ReflectiveOperationException | RuntimeException ignored) {}
+        }
+        return tickMillis;
+    }
+
+    // Called as each pass starts, with what the previous one cost; returns true if anything changed
+    boolean adjust(boolean previousStillRunning, long lastPassMainThreadNanos, int lastPassTicks) {
+        long oldInterval = intervalTicks;
+        long oldBudget = budgetMillis;
+
+        double mspt = mspt();
+        boolean overloaded = averageTickTime != null ? mspt > targetMspt : tickMillis > TICK_MILLIS * 1.05;
+        boolean spare = averageTickTime != null ? mspt < targetMspt * 0.8 : tickMillis < TICK_MILLIS * 1.02;
+        // Without a real MSPT figure the spare time per tick is unknown, so only the budget's own ceiling applies
+        double headroom = averageTickTime != null ? targetMspt - mspt : maxBudget;
+        double perTickCost = lastPassTicks > 0 ? lastPassMainThreadNanos / 1e6 / lastPassTicks : 0;
+
+        if (overloaded || previousStillRunning) {
+            intervalTicks = clamp(intervalTicks + Math.max(20L, intervalTicks / 2), minTicks, maxTicks);
+            budgetMillis = clamp(overloaded ? budgetMillis / 2 : budgetMillis + 1, minBudget, maxBudget);
+        } else if (perTickCost > headroom) {
+            budgetMillis = clamp(budgetMillis - 1, minBudget, maxBudget);
+        } else if (spare) {
+            intervalTicks = clamp(intervalTicks - Math.max(20L, intervalTicks / 5), minTicks, maxTicks);
+            // Passes that spilled over several ticks get more room per tick while it is there
+            if (lastPassTicks > 1 && budgetMillis + 1 <= headroom) {
+                budgetMillis = clamp(budgetMillis + 1, minBudget, maxBudget);
+            }
+        }
+
+        return intervalTicks != oldInterval || budgetMillis != oldBudget;
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
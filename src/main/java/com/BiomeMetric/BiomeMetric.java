@@ -3,43 +3,108 @@ package com.Bit;
 import org.bukkit.*;
 import org.bukkit.block.Biome;
 import org.bukkit.block.Block;
-import org.bukkit.block.data.Ageable;
+import org.bukkit.block.data.type.Dispenser;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockDispenseEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPhysicsEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.block.BlockGrowEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.PlayerHarvestBlockEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.world.StructureGrowEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldSaveEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.block.data.BlockData;
-import org.bukkit.block.data.type.Sapling;
 
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class BiomeMetric extends JavaPlugin implements Listener {
 
-    private File cropsFile;
-    private FileConfiguration cropsConfig;
+    private RegionCropStore cropStore;
+    // Non-null while the startup load is still merging regions
+    private CropLoader loader;
+    private WriteBehindQueue writeBehind;
+    // Set when persistence.mode is "chunk": crops live in each chunk's PersistentDataContainer
+    private ChunkCropStore chunkStore;
     private File biomesFile;
     private FileConfiguration biomesConfig;
 
-    private final Map<String, CropData> cropCache = new HashMap<>();
-    private final Map<String, Set<String>> biomeGroups = new HashMap<>();
-
-    private long updateIntervalTicks = 20L * 60;
+    private Scheduling scheduling;
+    // Tracked crops, bucketed by chunk and keyed by BlockKey-packed position, with their due queue
+    // and pass. The classic scheduler keeps them all in one shard; the region scheduler leaves that
+    // null and splits each world into a shard per cell, ticked by the region owning the cell.
+    private GrowthShard classic;
+    private final Map<GrowthShard.Key, GrowthShard> shards = new ConcurrentHashMap<>();
+    // Swapped whole by /biomemetric reload; jobs already with the workers keep the engine they were given
+    private volatile GrowthEngine engine;
+    // Commands run on whichever region thread the sender is on, so a second reload is refused atomically
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    private final Clock clock = Clock.SYSTEM;
+    // Save figures; with the classic scheduler also the classic shard's growth figures
+    private final GrowthMetrics metrics = new GrowthMetrics();
+
+    // Null unless adaptive-interval is enabled; then it owns updateIntervalTicks and the tick budget
+    private AdaptiveInterval adaptive;
+    // Null when priority tiers are off; otherwise crops away from players run on the far cadence
+    private ProximityTiers tiers;
+    private GrowthWorkers workers;
+    // Dispatch, evaluation and apply for every shard; reaches the server through PluginHost
+    private GrowthPipeline pipeline;
+    // Null when reconcile is off; each shard walks its chunks with its own copy
+    private volatile CropReconciler reconciler;
+    // Null when discovery is off, and on region-threaded servers
+    private CropDiscovery discovery;
+    // Bone meal being used on this thread's current interaction, so the growth it causes is let through
+    private final ThreadLocal<Fertilizing> fertilizing = new ThreadLocal<>();
+
+    private record Fertilizing(Block block, long fullTime) {}
+
+    // Written by reload and adaptive mode, read by every shard on its next tick
+    private volatile long updateIntervalTicks = 20L * 60;
+    private volatile long tickBudgetMillis = 5;
+    private volatile int treesPerTick = 2;
+    // Region scheduler: [start, deadline] of the calling region thread's slice window, deadline 0 before the first
+    private final ThreadLocal<long[]> sliceWindow = ThreadLocal.withInitial(() -> new long[2]);
 
     @Override
     public void onEnable() {
         getServer().getPluginManager().registerEvents(this, this);
         createFiles();
+        startScheduling();
         loadCrops();
-        loadBiomeConfig();
-        setupBiomeGroups();
+        startWriteBehind();
+        activateLoadedChunks();
+        compileRules();
 
         startGrowthTask();
 
@@ -48,45 +113,262 @@ public class BiomeMetric extends JavaPlugin implements Listener {
 
     @Override
     public void onDisable() {
-        saveCrops();
+        if (loader != null) {
+            loader.close();
+        }
+
+        // Plugins are disabled before worlds save on shutdown, so this still reaches the chunk files
+        if (chunkStore != null) {
+            for (GrowthShard shard : allShards()) {
+                for (World world : getServer().getWorlds()) {
+                    saveDirtyChunks(shard, world);
+                }
+            }
+        }
+
+        if (workers != null) {
+            workers.close();
+        }
+
+        // Final synchronous flush of everything still queued
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
         getLogger().info("BiomeMetric disabled.");
     }
 
-    // File setup
-    private void createFiles() {
-        getDataFolder().mkdirs();
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 1 && args[0].equalsIgnoreCase("stats")) {
+            sendStats(sender);
+            return true;
+        }
+        if (args.length == 1 && args[0].equalsIgnoreCase("reload")) {
+            reloadRules(sender);
+            return true;
+        }
+        // Shows the usage from plugin.yml
+        return false;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (args.length != 1) return List.of();
 
-        cropsFile = new File(getDataFolder(), "crops.yml");
-        if (!cropsFile.exists()) {
+        String prefix = args[0].toLowerCase(Locale.ROOT);
+        return Stream.of("stats", "reload").filter(option -> option.startsWith(prefix)).toList();
+    }
+
+    // Reads and compiles biomes.yml off the main thread, then swaps the result in on the next tick
+    private void reloadRules(CommandSender sender) {
+        if (!reloading.compareAndSet(false, true)) {
+            sender.sendMessage(ChatColor.RED + "A reload is already running.");
+            return;
+        }
+
+        GrowthRules current = engine.rules();
+        scheduling.runAsync(() -> {
             try {
-                cropsFile.createNewFile();
-            } catch (IOException e) {
-                e.printStackTrace();
+                ConfigReload reload = ConfigReload.parse(biomesFile, current);
+                scheduling.runGlobal(() -> applyReload(sender, reload));
+            } catch (IOException | InvalidConfigurationException | RuntimeException e) {
+                getLogger().log(Level.WARNING, "Could not reload biomes.yml", e);
+                scheduling.runGlobal(() -> {
+                    reloading.set(false);
+                    sender.sendMessage(ChatColor.RED + "Could not read biomes.yml: " + e.getMessage());
+                });
+            }
+        });
+    }
+
+    private void applyReload(CommandSender sender, ConfigReload reload) {
+        reloading.set(false);
+        for (String warning : reload.warnings) {
+            sender.sendMessage(ChatColor.YELLOW + warning);
+        }
+        if (!reload.errors.isEmpty()) {
+            for (String error : reload.errors) {
+                sender.sendMessage(ChatColor.RED + error);
             }
+            sender.sendMessage(ChatColor.RED + "biomes.yml was not reloaded; the current rules stay in place.");
+            return;
+        }
+
+        biomesConfig = reload.config;
+        engine = new GrowthEngine(reload.rules);
+        // Shards pick the new cadence up on their next tick
+        configureCadence();
+
+        String rescheduled;
+        if (reload.changes.pairs() == 0) {
+            rescheduled = "no growth times changed";
+        } else if (classic != null) {
+            rescheduled = rescheduleChanged(classic, reload.changes) + " crops rescheduled for "
+                    + reload.changes.pairs() + " changed biome and crop pairs";
+        } else {
+            for (GrowthShard shard : shards.values()) {
+                shard.post(() -> rescheduleChanged(shard, reload.changes));
+            }
+            rescheduled = "crops of " + reload.changes.pairs() + " changed biome and crop pairs rescheduled in "
+                    + shards.size() + " cells";
+        }
+
+        String summary = "Reloaded biomes.yml: " + reload.rules.groupCount() + " biome groups, " + rescheduled
+                + ", one pass every " + updateIntervalTicks / 20 + " s.";
+        getLogger().info(summary);
+        sender.sendMessage(ChatColor.GREEN + summary);
+        sender.sendMessage("Changes to persistence and async-workers take effect after a restart.");
+    }
+
+    private void sendStats(CommandSender sender) {
+        List<String> lines = new ArrayList<>();
+        lines.add(ChatColor.GOLD + "BiomeMetric stats");
+        if (loader != null) {
+            lines.add(String.format(Locale.ROOT, "Still loading: %,d of %,d regions merged", loader.merged(), loader.total()));
+        }
+
+        if (classic != null) {
+            describeShard(classic, lines);
+        } else {
+            describeRegions(sender, lines);
         }
-        cropsConfig = YamlConfiguration.loadConfiguration(cropsFile);
+        metrics.describeSaves(lines);
+
+        for (String line : lines) {
+            sender.sendMessage(line);
+        }
+    }
+
+    // Other shards belong to other threads, so only the figures they publish each tick are read. A
+    // player's command runs on the region they stand in, which owns their cell, so that one is shown in full.
+    private void describeRegions(CommandSender sender, List<String> lines) {
+        int tracked = 0;
+        int queued = 0;
+        int inFlight = 0;
+        for (GrowthShard shard : shards.values()) {
+            tracked += shard.trackedCount;
+            queued += shard.queuedCount;
+            inFlight += shard.inFlightCount;
+        }
+        lines.add(String.format(Locale.ROOT, "Region scheduler: %,d cells of %d chunks square, %,d crops tracked, %,d queue entries, %d chunk jobs in flight",
+                shards.size(), 1 << scheduling.cellShift(), tracked, queued, inFlight));
+
+        if (!(sender instanceof Player player)) return;
+        Location location = player.getLocation();
+        int chunkX = location.getBlockX() >> 4;
+        int chunkZ = location.getBlockZ() >> 4;
+        GrowthShard shard = shardAt(location.getWorld().getName(), chunkX, chunkZ, false);
+        if (shard == null || !scheduling.owns(location.getWorld(), chunkX, chunkZ)) {
+            lines.add("No crops are tracked in the cell you are in.");
+            return;
+        }
+        lines.add(ChatColor.GOLD + "This cell (" + shard.cellX + ", " + shard.cellZ + ")");
+        describeShard(shard, lines);
+    }
+
+    // Walks every crop of the shard for the per-type and per-group counts, so it is meant for occasional use
+    private void describeShard(GrowthShard shard, List<String> lines) {
+        int tracked = 0;
+        int loaded = 0;
+        long storeBytes = 0;
+        Map<Material, Integer> byType = new EnumMap<>(Material.class);
+        Map<String, Integer> byGroup = new HashMap<>();
+        GrowthRules rules = engine.rules();
+
+        for (WorldCrops crops : shard.worlds()) {
+            tracked += crops.size();
+            storeBytes += crops.memoryBytes();
+            World world = Bukkit.getWorld(crops.worldName());
+            LongHashMap<WorldCrops.ChunkBucket> buckets = crops.allBuckets();
+            for (int slot = 0; slot < buckets.capacity(); slot++) {
+                WorldCrops.ChunkBucket bucket = buckets.valueAt(slot);
+                if (bucket == null) continue;
+
+                // Biomes of unloaded chunks would have to be loaded to read, so groups cover loaded chunks only
+                boolean inLoadedChunk = world != null && bucket.isActive();
+                for (int i = 0; i < bucket.size(); i++) {
+                    int cropSlot = bucket.slotAt(i);
+                    byType.merge(crops.type(cropSlot), 1, Integer::sum);
+                    if (inLoadedChunk) {
+                        loaded++;
+                        long pos = crops.pos(cropSlot);
+                        String group = rules.forBiome(world.getBiome(BlockKey.x(pos), BlockKey.y(pos), BlockKey.z(pos))).group;
+                        byGroup.merge(group == null ? "(unlisted)" : group, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+
+        lines.add(String.format(Locale.ROOT, "Crops: %,d tracked, %,d in loaded chunks, %,d queue entries, %d chunk jobs in flight",
+                tracked, loaded, shard.dueQueue.size(), shard.inFlight));
+        lines.add(String.format(Locale.ROOT, "Crop store: %.1f MB, %d bytes per crop",
+                storeBytes / 1048576.0, tracked == 0 ? 0 : storeBytes / tracked));
+        GrowthPass pass = shard.pass;
+        lines.add(String.format(Locale.ROOT, "Growth pass: %s, %,d overruns, %,d changes waiting to be saved",
+                pass.running()
+                        ? String.format(Locale.ROOT, "running for %d ticks, %,d crops done, %,d ms behind",
+                                pass.ticks(), pass.processed(), pass.behindMillis(shard.dueQueue, clock.millis()))
+                        : String.format(Locale.ROOT, "idle, last one %,d crops in %d ticks (%,d ms)",
+                                pass.lastProcessed(), pass.lastTicks(), pass.lastDurationMillis()),
+                pass.overruns(), writeBehind.pendingCount()));
+        lines.add(String.format(Locale.ROOT, "Cadence: every %d s, %d ms tick budget%s",
+                updateIntervalTicks / 20, pass.budgetMillis(),
+                adaptive == null ? "" : String.format(Locale.ROOT, " (adaptive, %.1f ms per tick)", adaptive.mspt())));
+        shard.metrics.describeGrowth(lines);
+        lines.add("By type: " + formatCounts(byType));
+        lines.add("By biome group (loaded chunks): " + formatCounts(byGroup));
+    }
+
+    private static <K> String formatCounts(Map<K, Integer> counts) {
+        if (counts.isEmpty()) return "none";
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<K, Integer>comparingByValue().reversed())
+                .map(entry -> entry.getKey() + " " + entry.getValue())
+                .collect(Collectors.joining(", "));
+    }
+
+    // File setup
+    private void createFiles() {
+        getDataFolder().mkdirs();
+
+        cropStore = new RegionCropStore(new File(getDataFolder(), "crops").toPath(), getLogger());
+        cropStore.onDamaged(this::restageRegion);
+        migrateYamlCrops();
 
         biomesFile = new File(getDataFolder(), "biomes.yml");
         if (!biomesFile.exists()) {
             saveResource("biomes.yml", false);
         }
         biomesConfig = YamlConfiguration.loadConfiguration(biomesFile);
+
+        if ("chunk".equalsIgnoreCase(biomesConfig.getString("persistence.mode", "region"))) {
+            chunkStore = new ChunkCropStore(this);
+        }
     }
 
-    // Biome grouping
-    private void setupBiomeGroups() {
-        biomeGroups.clear();
-        
-        if (biomesConfig.contains("biome-groups")) {
-            for (String groupName : biomesConfig.getConfigurationSection("biome-groups").getKeys(false)) {
-                List<String> biomes = biomesConfig.getStringList("biome-groups." + groupName);
-                biomeGroups.put(groupName, new HashSet<>(biomes));
-            }
+    private void startScheduling() {
+        scheduling = Scheduling.create(this, biomesConfig.getString("scheduler", "auto"), getLogger());
+        if (scheduling.regionThreaded()) {
+            getLogger().info("Region-threaded server: crops are grown per region, in cells of "
+                    + (1 << scheduling.cellShift()) + " chunks square.");
         } else {
+            classic = new GrowthShard(null, 0, 0, tickBudgetMillis, metrics);
+        }
+    }
+
+    // Biome grouping, compiled into a lookup table once per load
+    private void compileRules() {
+        if (!biomesConfig.contains("biome-groups")) {
             getLogger().warning("No 'biome-groups' section found in biomes.yml! Biome growth will not work properly.");
         }
-        
-        getLogger().info("Loaded " + biomeGroups.size() + " biome groups from configuration.");
+
+        GrowthRules rules = GrowthRules.compile(biomesConfig);
+        for (Biome biome : Registry.BIOME) {
+            rules.forBiome(biome);
+        }
+
+        engine = new GrowthEngine(rules);
+        getLogger().info("Loaded " + rules.groupCount() + " biome groups from configuration.");
     }
 
     // Modify onPlant method to handle new plant types
@@ -95,6 +377,9 @@ public class BiomeMetric extends JavaPlugin implements Listener {
         Block block = event.getBlockPlaced();
         Material type = block.getType();
 
+        // New ground next to a stem can make room for fruit
+        rearmAround(block);
+
         if (!isCrop(type)) return;
 
         // Handle stacking plants
@@ -112,22 +397,21 @@ public class BiomeMetric extends JavaPlugin implements Listener {
             return;
         }
 
-        String key = key(block);
-        cropCache.put(key, new CropData(type, System.currentTimeMillis(), 1));
-        cropsConfig.set("crops." + key + ".type", type.name());
-        cropsConfig.set("crops." + key + ".planted", System.currentTimeMillis());
-
-        if (isStackingCrop(type)) {
-            cropsConfig.set("crops." + key + ".height", 1);
-        }
-
-        saveFile();
+        long now = clock.millis();
+        WorldCrops crops = cropsIn(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+        long pos = BlockKey.pack(block);
+        int slot = crops.put(pos, type, now, 1, 0L, true);
+        schedule(crops, pos, slot, now);
+        markDirty(crops, slot);
     }
 
     @EventHandler
     public void onBreak(BlockBreakEvent event) {
         Block block = event.getBlock();
         Material type = block.getType();
+
+        // Picking fruit or clearing the space above a stack can wake dormant crops around it
+        rearmAround(block);
         
         // Don't track fruits, logs, or leaves
         if (type == Material.PUMPKIN || type == Material.MELON ||
@@ -138,517 +422,1020 @@ public class BiomeMetric extends JavaPlugin implements Listener {
         
         if (!isCrop(type)) return;
     
+        WorldCrops crops = trackedAt(block);
+        if (crops == null) return;
+
         if (isStackingCrop(type)) {
-            Block base = findBaseBlock(block);
-            String key = key(base);
-            cropCache.remove(key);
-            cropsConfig.set("crops." + key, null);
-            saveFile();
-        } else {
-            String key = key(block);
-            cropCache.remove(key);
-            cropsConfig.set("crops." + key, null);
-            saveFile();
+            int slot = crops.stackAt(block.getX(), block.getY(), block.getZ());
+            if (slot < 0) return;
+
+            long basePos = crops.pos(slot);
+            int baseY = BlockKey.y(basePos);
+            if (baseY < block.getY()) {
+                // Breaking a segment above the base keeps the stack tracked; it regrows from what is left
+                crops.setHeight(slot, block.getY() - baseY);
+                markDirty(crops, slot);
+                schedule(crops, basePos, slot, clock.millis());
+                return;
+            }
         }
+
+        if (!crops.remove(BlockKey.pack(block))) return;
+
+        markRemoved(block);
     }
 
-    // Growth simulation
-    private void startGrowthTask() {
-        long seconds = biomesConfig.getLong("update-interval", 60);
-        updateIntervalTicks = seconds * 20L;
+    // A segment that loses its support drops without a break event, and the segments above
+    // it follow one tick apart; the stack is looked at again once that has played out
+    @EventHandler(ignoreCancelled = true)
+    public void onPhysics(BlockPhysicsEvent event) {
+        Block block = event.getBlock();
+        Material type = block.getType();
+        // Growth, ours or vanilla's, only adds segments
+        if (!isStackingCrop(type) || CropTypes.sameStack(type, event.getChangedType())) return;
 
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                simulateGrowth();
-            }
-        }.runTaskTimer(this, updateIntervalTicks, updateIntervalTicks);
+        WorldCrops crops = trackedAt(block);
+        if (crops != null) {
+            queueCheck(block.getWorld(), crops, block.getX(), block.getY(), block.getZ());
+        }
+    }
+
+    // Pistons destroy stack segments in their way, and can clear the space a stack or stem needs
+    @EventHandler(ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        pistonMoved(event.getBlocks());
     }
 
-    private void simulateGrowth() {
-        for (Map.Entry<String, CropData> entry : cropCache.entrySet()) {
-            String key = entry.getKey();
-            CropData data = entry.getValue();
-            String[] parts = key.split(":");
-            if (parts.length < 4) continue;
+    @EventHandler(ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        pistonMoved(event.getBlocks());
+    }
 
-            World world = Bukkit.getWorld(parts[0]);
-            if (world == null) continue;
+    private void pistonMoved(List<Block> blocks) {
+        if (blocks.isEmpty()) return;
+        blocksDestroyed(blocks);
 
-            int x = Integer.parseInt(parts[1]);
-            int y = Integer.parseInt(parts[2]);
-            int z = Integer.parseInt(parts[3]);
-            Block block = world.getBlockAt(x, y, z);
-
-            if (isStackingCrop(data.type)) {
-                if (isBamboo(data.type)) {
-                    simulateBambooGrowth(block, data, key);
-                } else if (isKelp(data.type)) {
-                    simulateKelpGrowth(block, data, key);
-                } else {
-                    simulateStackingGrowth(block, data, key);
-                }
-            } 
-            else if (isSapling(data.type)) {
-                simulateSaplingGrowth(block, data);
-            }
-            else if (data.type == Material.COCOA && block.getBlockData() instanceof org.bukkit.block.data.type.Cocoa cocoa) {
-                simulateCocoaGrowth(block, cocoa, data);
-            }
-            else if ((data.type == Material.MELON_STEM || data.type == Material.PUMPKIN_STEM) && 
-                     block.getBlockData() instanceof Ageable ageable) {
-                simulateStemGrowth(block, ageable, data);
-            }
-            else if (block.getBlockData() instanceof Ageable ageable) {
-                simulateAgeableGrowth(block, ageable, data);
-            }
+        // Once the blocks have landed; a crop looked at mid-move sees the moving piston and goes dormant again
+        List<Block> moved = new ArrayList<>(blocks);
+        Block first = moved.get(0);
+        scheduling.runLaterAt(first.getWorld(), first.getX() >> 4, first.getZ() >> 4, 3L, () -> moved.forEach(this::rearmAround));
+    }
+
+    // Blocks destroyed without a break event take their crop with them, and crops standing on
+    // them drop a tick later; either way the position is checked once things settle
+    @EventHandler(ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        blocksDestroyed(event.blockList());
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        blocksDestroyed(event.blockList());
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onBurn(BlockBurnEvent event) {
+        blockDestroyed(event.getBlock());
+    }
+
+    // Endermen, ravagers, trampled farmland, falling blocks
+    @EventHandler(ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        blockDestroyed(event.getBlock());
+    }
+
+    // Farmland drying back to dirt
+    @EventHandler(ignoreCancelled = true)
+    public void onFade(BlockFadeEvent event) {
+        blockDestroyed(event.getBlock());
+    }
+
+    // Water and lava wash crops away
+    @EventHandler(ignoreCancelled = true)
+    public void onFlow(BlockFromToEvent event) {
+        Block to = event.getToBlock();
+        if (isCrop(to.getType())) {
+            blockDestroyed(to);
         }
     }
 
-    private void simulateSaplingGrowth(Block saplingBlock, CropData data) {
-        if (saplingBlock.getType() != data.type) return;
-        
-        Biome biome = saplingBlock.getBiome();
-        long growTime = getGrowTimeSeconds(biome, data.type) * 1000L;
-        
-        if (growTime <= 0) return;
-        
-        long elapsed = System.currentTimeMillis() - data.planted;
-        
-        if (elapsed >= growTime) {
-            if (saplingBlock.getBlockData() instanceof Sapling sapling) {
-                // Generate tree based on sapling type
-                TreeType treeType = getTreeType(data.type);
-                if (treeType != null) {
-                    // Remove the sapling first to prevent conflicts
-                    saplingBlock.setType(Material.AIR);
-
-                    // Generate the tree
-                    if (saplingBlock.getWorld().generateTree(saplingBlock.getLocation(), treeType)) {
-                        // Successfully grew - remove from tracking
-                        cropCache.remove(key(saplingBlock));
-                        cropsConfig.set("crops." + key(saplingBlock), null);
-                        saveFile();
-                    } else {
-                        // Failed to grow - put sapling back
-                        saplingBlock.setType(data.type);
-                        saplingBlock.setBlockData(sapling);
-                    }
-                }
+    // Saplings grown by vanilla or bone meal. Vanilla does not grow tracked saplings; bone meal still does.
+    @EventHandler(ignoreCancelled = true)
+    public void onStructureGrow(StructureGrowEvent event) {
+        Block block = event.getLocation().getBlock();
+        WorldCrops crops = trackedAt(block);
+        int slot = crops == null ? -1 : crops.slotOf(BlockKey.pack(block));
+        // Our own trees replace the sapling with air first
+        if (!event.isFromBonemeal() && slot >= 0 && crops.type(slot) == block.getType()) {
+            event.setCancelled(true);
+            return;
+        }
+        blockDestroyed(block);
+    }
+
+    // Random ticks would grow tracked crops alongside the simulation, at vanilla rates. Bone meal
+    // grows them while the player's click or the dispenser is being handled, and is let through.
+    @EventHandler(ignoreCancelled = true)
+    public void onGrow(BlockGrowEvent event) {
+        Block block = event.getBlock();
+        if (!isFertilizing(block) && growsTracked(block, event.getNewState().getType())) {
+            event.setCancelled(true);
+        }
+    }
+
+    // The block growing is the crop itself, the segment above a stack, or the fruit beside a stem
+    private boolean growsTracked(Block block, Material grown) {
+        World world = block.getWorld();
+        int x = block.getX();
+        int y = block.getY();
+        int z = block.getZ();
+
+        if (grown == Material.PUMPKIN || grown == Material.MELON) {
+            Material stem = grown == Material.PUMPKIN ? Material.PUMPKIN_STEM : Material.MELON_STEM;
+            for (int side = 0; side < 4; side++) {
+                int stemX = x - FruitSpots.dx(side);
+                int stemZ = z - FruitSpots.dz(side);
+                WorldCrops crops = localCrops(world, stemX, stemZ);
+                int slot = crops == null ? -1 : crops.slotOf(BlockKey.pack(stemX, y, stemZ));
+                if (slot >= 0 && crops.type(slot) == stem) return true;
             }
+            return false;
         }
+
+        WorldCrops crops = trackedAt(block);
+        if (crops == null) return false;
+        if (CropTypes.isStacking(grown)) return crops.stackAt(x, y - 1, z) >= 0;
+        return crops.slotOf(BlockKey.pack(x, y, z)) >= 0;
     }
 
-    private void simulateBambooGrowth(Block baseBlock, CropData data, String key) {
-        if (baseBlock.getType() != Material.BAMBOO) return;
+    // Kelp and bamboo grow their next segment through a spread event, which has its own handler list
+    @EventHandler(ignoreCancelled = true)
+    public void onSpread(BlockSpreadEvent event) {
+        Material grown = event.getNewState().getType();
+        if (!CropTypes.isStacking(grown)) return;
 
-        Biome biome = baseBlock.getBiome();
-        long growInterval = getGrowIntervalSeconds(biome, Material.BAMBOO) * 1000L;
-        int maxHeight = getMaxHeight(biome, Material.BAMBOO);
+        Block block = event.getBlock();
+        if (!isFertilizing(block) && growsTracked(block, grown)) {
+            event.setCancelled(true);
+        }
+    }
 
-        if (growInterval <= 0) return;
+    @EventHandler(ignoreCancelled = true)
+    public void onInteract(PlayerInteractEvent event) {
+        if (event.getAction() == Action.RIGHT_CLICK_BLOCK && isBoneMeal(event.getItem())) {
+            fertilize(event.getClickedBlock());
+        }
+    }
 
-        long elapsed = System.currentTimeMillis() - data.planted;
-        int targetHeight = Math.min((int) (elapsed / growInterval) + 1, maxHeight);
+    @EventHandler(ignoreCancelled = true)
+    public void onDispense(BlockDispenseEvent event) {
+        if (isBoneMeal(event.getItem()) && event.getBlock().getBlockData() instanceof Dispenser dispenser) {
+            fertilize(event.getBlock().getRelative(dispenser.getFacing()));
+        }
+    }
 
-        if (targetHeight > data.currentHeight) {
-            Block topBlock = baseBlock;
-            int currentHeight = 1;
+    private static boolean isBoneMeal(ItemStack item) {
+        return item != null && item.getType() == Material.BONE_MEAL;
+    }
 
-            while (currentHeight < data.currentHeight) {
-                Block above = topBlock.getRelative(0, 1, 0);
-                if (above.getType() == Material.BAMBOO) {
-                    topBlock = above;
-                    currentHeight++;
-                } else {
-                    break;
-                }
-            }
+    private void fertilize(Block block) {
+        fertilizing.set(new Fertilizing(block, block.getWorld().getFullTime()));
+    }
 
-            while (currentHeight < targetHeight) {
-                Block above = topBlock.getRelative(0, 1, 0);
-                if (above.getType() == Material.AIR) {
-                    above.setType(Material.BAMBOO);
-                    topBlock = above;
-                    currentHeight++;
-                    data.currentHeight = currentHeight;
-                } else {
-                    break;
-                }
-            }
+    // Growth from the bone meal just used: same game tick, and the block or one above it (bamboo grows segments)
+    private boolean isFertilizing(Block block) {
+        Fertilizing last = fertilizing.get();
+        if (last == null) return false;
 
-            if (data.currentHeight != cropsConfig.getInt("crops." + key + ".height")) {
-                cropsConfig.set("crops." + key + ".height", data.currentHeight);
-                saveFile();
-            }
+        Block target = last.block();
+        return target.getWorld() == block.getWorld() && last.fullTime() == block.getWorld().getFullTime()
+                && target.getX() == block.getX() && target.getZ() == block.getZ() && block.getY() >= target.getY();
+    }
+
+    private void blocksDestroyed(List<Block> blocks) {
+        for (Block block : blocks) {
+            blockDestroyed(block);
         }
     }
 
-    private void simulateKelpGrowth(Block baseBlock, CropData data, String key) {
-        // Find the base kelp block
-        Block baseKelp = findBaseBlock(baseBlock);
-        if (baseKelp.getType() != Material.KELP) return;
+    private void blockDestroyed(Block block) {
+        WorldCrops crops = trackedAt(block);
+        if (crops == null) return;
 
-        Biome biome = baseKelp.getBiome();
-        long growInterval = getGrowIntervalSeconds(biome, Material.KELP) * 1000L;
-        int maxHeight = getMaxHeight(biome, Material.KELP);
+        queueCheck(block.getWorld(), crops, block.getX(), block.getY(), block.getZ());
+        queueCheck(block.getWorld(), crops, block.getX(), block.getY() + 1, block.getZ());
+        forgetFruitSpotsAround(block);
+    }
 
-        if (growInterval <= 0) return;
+    // Right-click harvests (sweet berries) knock the crop back without breaking it, so it starts over
+    @EventHandler
+    public void onHarvest(PlayerHarvestBlockEvent event) {
+        Block block = event.getHarvestedBlock();
+        WorldCrops crops = trackedAt(block);
+        if (crops == null) return;
+
+        long pos = BlockKey.pack(block);
+        int previous = crops.slotOf(pos);
+        if (previous < 0) return;
+
+        long now = clock.millis();
+        int slot = crops.put(pos, crops.type(previous), now, 1, 0L, true);
+        schedule(crops, pos, slot, now);
+        markDirty(crops, slot);
+    }
 
-        long elapsed = System.currentTimeMillis() - data.planted;
-        int targetHeight = Math.min((int) (elapsed / growInterval) + 1, maxHeight);
+    // Chunk tracking - only crops in loaded chunks are simulated
+    @EventHandler
+    public void onChunkLoad(ChunkLoadEvent event) {
+        Chunk chunk = event.getChunk();
+        if (chunkStore != null) {
+            hydrateChunk(chunk);
+        }
 
-        if (targetHeight > data.currentHeight) {
-            Block topBlock = baseKelp;
-            int currentHeight = 1;
+        World world = event.getWorld();
+        if (discovery != null) {
+            discovery.chunkLoaded(world.getName(), chunk.getX(), chunk.getZ());
+        }
 
-            while (currentHeight < data.currentHeight) {
-                Block above = topBlock.getRelative(0, 1, 0);
-                if (above.getType() == Material.KELP || above.getType() == Material.KELP_PLANT) {
-                    topBlock = above;
-                    currentHeight++;
-                } else {
-                    break;
-                }
-            }
+        GrowthShard shard = shardAt(world.getName(), chunk.getX(), chunk.getZ(), false);
+        if (shard == null) return;
+        // Also drains whatever was posted to the shard while none of its chunks were loaded
+        ensureTicking(shard, world, chunk.getX(), chunk.getZ());
 
-            while (currentHeight < targetHeight && currentHeight < 26) { // Kelp has max natural height of 26
-                Block above = topBlock.getRelative(0, 1, 0);
-                if (above.getType() == Material.WATER) {
-                    above.setType(currentHeight == 1 ? Material.KELP : Material.KELP_PLANT);
-                    topBlock = above;
-                    currentHeight++;
-                    data.currentHeight = currentHeight;
-                } else {
-                    break;
-                }
-            }
+        WorldCrops crops = shard.get(world.getName());
+        WorldCrops.ChunkBucket bucket = crops == null ? null : crops.activate(chunk.getX(), chunk.getZ());
+        if (bucket != null) {
+            // Catch up on the next tick rather than changing blocks inside the load event
+            scheduling.runAt(world, chunk.getX(), chunk.getZ(), () -> pipeline.catchUp(shard, crops, bucket));
+        }
+    }
 
-            if (data.currentHeight != cropsConfig.getInt("crops." + key + ".height")) {
-                cropsConfig.set("crops." + key + ".height", data.currentHeight);
-                saveFile();
+    @EventHandler
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        World world = event.getWorld();
+        Chunk chunk = event.getChunk();
+        GrowthShard shard = shardAt(world.getName(), chunk.getX(), chunk.getZ(), false);
+        if (shard == null) return;
+
+        // A shard with nothing tracked yet may still be ticking for work posted to it
+        WorldCrops crops = shard.get(world.getName());
+        if (crops != null && chunkStore == null) {
+            crops.park(chunk.getX(), chunk.getZ());
+        } else if (crops != null) {
+            // Chunk storage keeps nothing in memory for unloaded chunks
+            WorldCrops.ChunkBucket bucket = crops.bucket(chunk.getX(), chunk.getZ());
+            if (bucket != null && bucket.dirty) {
+                writeChunk(chunk, crops, bucket);
             }
+            crops.drop(chunk.getX(), chunk.getZ());
+        }
+
+        if (shard != classic && shard.ticker != null && shard.tickerChunkX == chunk.getX() && shard.tickerChunkZ == chunk.getZ()) {
+            repinTicker(shard, world, crops);
+        }
+    }
+
+    @EventHandler
+    public void onWorldSave(WorldSaveEvent event) {
+        if (chunkStore == null) return;
+
+        World world = event.getWorld();
+        for (GrowthShard shard : shardsOf(world.getName())) {
+            onShard(shard, () -> saveDirtyChunks(shard, world));
         }
     }
 
-    private void simulateStackingGrowth(Block baseBlock, CropData data, String key) {
-        if (baseBlock.getType() != data.type) return;
+    @EventHandler
+    public void onWorldUnload(WorldUnloadEvent event) {
+        World world = event.getWorld();
+        if (classic == null) {
+            // Folia does not unload worlds; should one go anyway, its cells go with it
+            for (GrowthShard shard : shardsOf(world.getName())) {
+                if (shard.ticker != null) shard.ticker.cancel();
+                shards.remove(new GrowthShard.Key(shard.worldName, shard.cellX, shard.cellZ));
+            }
+            return;
+        }
 
-        Biome biome = baseBlock.getBiome();
-        long growInterval = getGrowIntervalSeconds(biome, data.type) * 1000L;
-        int maxHeight = getMaxHeight(biome, data.type);
+        if (chunkStore != null) {
+            saveDirtyChunks(classic, world);
+            WorldCrops crops = classic.remove(world.getName());
+            // Leaves any queued entries stale, so they are dropped when they come up
+            if (crops != null) {
+                crops.parkAll();
+                classic.saplings.forget(crops);
+            }
+            return;
+        }
 
-        if (growInterval <= 0) return;
+        WorldCrops crops = classic.get(world.getName());
+        if (crops != null) {
+            crops.parkAll();
+        }
+    }
 
-        long elapsed = System.currentTimeMillis() - data.planted;
-        int targetHeight = Math.min((int) (elapsed / growInterval) + 1, maxHeight);
+    // Chunks loaded before the plugin enabled (spawn chunks, /reload) never fire ChunkLoadEvent for us.
+    // Region-threaded servers load plugins before any world and support neither, and their chunks may not be read from here.
+    private void activateLoadedChunks() {
+        if (classic == null) return;
 
-        if (targetHeight > data.currentHeight) {
-            Block topBlock = baseBlock;
-            int currentHeight = 1;
-            
-            while (currentHeight < data.currentHeight) {
-                Block above = topBlock.getRelative(0, 1, 0);
-                if (above.getType() == data.type) {
-                    topBlock = above;
-                    currentHeight++;
-                } else {
-                    break;
+        long now = clock.millis();
+        for (World world : getServer().getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                if (chunkStore != null) {
+                    hydrateChunk(chunk);
                 }
-            }
 
-            while (currentHeight < targetHeight) {
-                Block above = topBlock.getRelative(0, 1, 0);
-                if (above.getType() == Material.AIR) {
-                    above.setType(data.type);
-                    topBlock = above;
-                    currentHeight++;
-                    data.currentHeight = currentHeight;
-                } else {
-                    break;
+                WorldCrops crops = classic.get(world.getName());
+                if (crops == null) continue;
+
+                WorldCrops.ChunkBucket bucket = crops.activate(chunk.getX(), chunk.getZ());
+                if (bucket != null) {
+                    scheduleBucket(crops, bucket, now);
                 }
             }
+        }
+    }
 
-            if (data.currentHeight != cropsConfig.getInt("crops." + key + ".height")) {
-                cropsConfig.set("crops." + key + ".height", data.currentHeight);
-                saveFile();
+    // Chunk storage mode: read the chunk's own records into memory. Entries still sitting in
+    // the region store for this chunk (from before the switch) move into the chunk with it.
+    private void hydrateChunk(Chunk chunk) {
+        World world = chunk.getWorld();
+        GrowthShard shard = shardAt(world.getName(), chunk.getX(), chunk.getZ(), false);
+        WorldCrops tracked = shard == null ? null : shard.get(world.getName());
+
+        WorldCrops.ChunkBucket legacy = tracked == null ? null : tracked.bucket(chunk.getX(), chunk.getZ());
+        if (legacy != null) {
+            for (int i = 0; i < legacy.size(); i++) {
+                queueWrite(tracked, tracked.pos(legacy.slotAt(i)), CropRecord.REMOVED);
             }
+            legacy.dirty = true;
+        }
+
+        // Looked up per record so a region-threaded server only makes a shard for cells that hold crops
+        chunkStore.read(chunk, (pos, record) -> cropsIn(world, chunk.getX(), chunk.getZ()).put(pos, record, true));
+    }
+
+    private void saveDirtyChunks(GrowthShard shard, World world) {
+        WorldCrops crops = shard.get(world.getName());
+        if (crops == null) return;
+
+        for (WorldCrops.ChunkBucket bucket : crops.activeBuckets()) {
+            if (!bucket.dirty) continue;
+
+            // Active buckets are in loaded chunks, so this never loads one
+            writeChunk(world.getChunkAt(bucket.chunkX, bucket.chunkZ), crops, bucket);
+            bucket.dirty = false;
+        }
+    }
+
+    private void writeChunk(Chunk chunk, WorldCrops crops, WorldCrops.ChunkBucket bucket) {
+        CropSaveEvent event = new CropSaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int bytes = chunkStore.write(chunk, crops, bucket);
+        metrics.recordSave(bucket.size(), bytes, System.nanoTime() - start);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.records = bucket.size();
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    // Growth simulation
+    private void startGrowthTask() {
+        configureCadence();
+
+        workers = new GrowthWorkers(workerThreads(), getLogger());
+        pipeline = new GrowthPipeline(new PluginHost(), workers, () -> engine, clock);
+
+        // Classic: one timer drives both the pass cadence and the slices, so adaptive mode can move
+        // the cadence. Region: it only merges the startup load; each cell ticks on its own region.
+        Scheduling.Task timer = scheduling.runGlobalTimer(1L, this::growthTick);
+        if (classic != null) {
+            classic.ticker = timer;
         }
     }
 
-    private void simulateAgeableGrowth(Block block, Ageable ageable, CropData data) {
-        Biome biome = block.getBiome();
-        long elapsed = System.currentTimeMillis() - data.planted;
-        long growTime = getGrowTimeSeconds(biome, data.type) * 1000L;
+    // The live server as the growth pipeline sees it
+    private final class PluginHost implements GrowthPipeline.Host {
 
-        if (growTime <= 0) return;
+        @Override
+        public WorldAccess world(GrowthShard shard, String worldName) {
+            World world = getServer().getWorld(worldName);
+            return world == null ? null : new LiveWorld(world, shard.pendingWrites, scheduling);
+        }
 
-        int maxAge = ageable.getMaximumAge();
-        double progress = Math.min(1.0, (double) elapsed / growTime);
-        int newAge = (int) Math.floor(progress * (maxAge + 1));
+        @Override
+        public void markDirty(WorldCrops crops, int slot) {
+            BiomeMetric.this.markDirty(crops, slot);
+        }
 
-        if (newAge > ageable.getAge()) {
-            ageable.setAge(Math.min(newAge, maxAge));
-            block.setBlockData(ageable);
+        @Override
+        public void markRemoved(WorldCrops crops, long pos) {
+            World world = getServer().getWorld(crops.worldName());
+            if (world != null) {
+                BiomeMetric.this.markRemoved(world.getBlockAt(BlockKey.x(pos), BlockKey.y(pos), BlockKey.z(pos)));
+            }
+        }
+
+        @Override
+        public long intervalMillis() {
+            return updateIntervalTicks * 50L;
+        }
+
+        @Override
+        public ProximityTiers tiers() {
+            return tiers;
+        }
+
+        @Override
+        public int treesPerTick() {
+            return treesPerTick;
         }
     }
 
-    private void simulateCocoaGrowth(Block block, org.bukkit.block.data.type.Cocoa cocoa, CropData data) {
-        Biome biome = block.getBiome();
-        long elapsed = System.currentTimeMillis() - data.planted;
-        long growTime = getGrowTimeSeconds(biome, data.type) * 1000L;
+    private int workerThreads() {
+        int threads = biomesConfig.getInt("async-workers", 0);
+        return threads > 0 ? threads : Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    }
 
-        if (growTime <= 0) return;
+    // The settings /biomemetric reload applies to a running server
+    private void configureCadence() {
+        long seconds = biomesConfig.getLong("update-interval", 60);
+        updateIntervalTicks = seconds * 20L;
+        long budget = biomesConfig.getLong("tick-budget", 5);
+        tickBudgetMillis = budget;
+        treesPerTick = Math.max(1, biomesConfig.getInt("trees-per-tick", 2));
+
+        adaptive = AdaptiveInterval.fromConfig(biomesConfig.getConfigurationSection("adaptive-interval"),
+                getServer(), updateIntervalTicks, budget);
+        tiers = ProximityTiers.fromConfig(biomesConfig.getConfigurationSection("priority"));
+        if (classic == null && (adaptive != null || tiers != null)) {
+            // Both follow the whole server (one tick time, every player), which no region thread may read
+            getLogger().info("adaptive-interval and priority are not used on region-threaded servers.");
+            adaptive = null;
+            tiers = null;
+        }
+
+        if (adaptive != null) {
+            updateIntervalTicks = adaptive.intervalTicks();
+            tickBudgetMillis = adaptive.budgetMillis();
+            getLogger().info("Adaptive update interval enabled, following "
+                    + (adaptive.reportsMspt() ? "the server's MSPT." : "the time between ticks."));
+        }
+        if (tiers != null) {
+            // Until the next pass rebuilds it, an empty near set would push every crop to the far cadence
+            tiers.rebuild(getServer().getOnlinePlayers());
+        }
+        reconciler = CropReconciler.fromConfig(biomesConfig.getConfigurationSection("reconcile"));
+
+        // Scans already out finish against the instance they came from
+        discovery = CropDiscovery.fromConfig(biomesConfig.getConfigurationSection("discovery"));
+        if (classic == null && discovery != null) {
+            // It walks every loaded chunk of the server, which no region thread may do
+            getLogger().info("discovery is not used on region-threaded servers.");
+            discovery = null;
+        }
+    }
+
+    private void growthTick() {
+        if (adaptive != null) {
+            adaptive.tick(System.nanoTime());
+        }
 
-        int maxAge = 2;
-        double progress = Math.min(1.0, (double) elapsed / growTime);
-        int newAge = (int) Math.floor(progress * (maxAge + 1));
+        if (loader != null) {
+            mergeLoadedCrops();
+        }
 
-        if (newAge > cocoa.getAge()) {
-            cocoa.setAge(Math.min(newAge, maxAge));
-            block.setBlockData(cocoa);
+        if (classic != null) {
+            tickShard(classic);
+        }
+
+        // Only once the store has merged, so nothing still loading is taken for untracked
+        if (discovery != null && loader == null && discovery.scanning < 2) {
+            discovery.tick(this::loadedChunks, this::discover);
         }
     }
 
-    private void simulateStemGrowth(Block stemBlock, Ageable ageable, CropData data) {
-        Biome biome = stemBlock.getBiome();
-        long elapsed = System.currentTimeMillis() - data.planted;
-        long growTime = getGrowTimeSeconds(biome, data.type) * 1000L;
+    // One tick of a shard, on the thread that owns it
+    private void tickShard(GrowthShard shard) {
+        syncSettings(shard);
+        shard.runInbox();
 
-        if (growTime <= 0) return;
+        if (--shard.ticksUntilPass <= 0) {
+            beginPass(shard, clock.millis());
+            shard.ticksUntilPass = updateIntervalTicks;
+        }
 
-        int maxAge = ageable.getMaximumAge();
-        double progress = Math.min(1.0, (double) elapsed / growTime);
-        int newAge = (int) Math.floor(progress * (maxAge + 1));
+        // A few reconcile jobs at most, so they never crowd out growth on the workers
+        if (shard.reconciler != null && shard.reconciling < 2) {
+            shard.reconciler.tick(shard.worlds(), (crops, bucket) -> pipeline.reconcile(shard, crops, bucket));
+        }
 
-        if (newAge > ageable.getAge()) {
-            ageable.setAge(Math.min(newAge, maxAge));
-            stemBlock.setBlockData(ageable);
+        // Works off the running pass one budgeted slice per tick
+        if (shard.pass.running() || shard.inFlight > 0 || shard.reconciling > 0) {
+            pipeline.slice(shard, sliceDeadline(shard.pass.startSlice()));
         }
 
-        if (ageable.getAge() >= maxAge) {
-            long fruitInterval = getFruitIntervalSeconds(biome, data.type) * 1000L;
-            if (fruitInterval <= 0) fruitInterval = 1000L;
+        if (shard.saplings.queued() > 0) {
+            pipeline.growTrees(shard, clock.millis());
+        }
 
-            int existingFruits = countAdjacentFruits(stemBlock, data.type);
+        if (shard.hasUnsaved) {
+            writeBehind.putAll(shard.unsaved);
+            for (LongHashMap<CropRecord> changes : shard.unsaved.values()) {
+                changes.clear();
+            }
+            shard.hasUnsaved = false;
+        }
+        shard.publish();
+    }
 
-            String key = key(stemBlock);
-            long lastFruitGrowth = cropsConfig.getLong("crops." + key + ".lastFruitGrowth", data.planted + growTime);
+    // Brings the shard in line with a reload or an adaptive change; nothing else reaches into it
+    private void syncSettings(GrowthShard shard) {
+        long interval = updateIntervalTicks;
+        if (shard.intervalTicks != interval) {
+            shard.intervalTicks = interval;
+            shard.ticksUntilPass = Math.min(shard.ticksUntilPass, interval);
+        }
 
-            long timeSinceLastFruit = System.currentTimeMillis() - lastFruitGrowth;
-            boolean shouldGrowFruit = timeSinceLastFruit >= fruitInterval && existingFruits < 4;
+        long budget = tickBudgetMillis;
+        if (shard.pass.budgetMillis() != budget) {
+            shard.pass.budget(budget);
+        }
 
-            if (shouldGrowFruit) {
-                if (growFruit(stemBlock, data.type)) {
-                    cropsConfig.set("crops." + key + ".lastFruitGrowth", System.currentTimeMillis());
-                    saveFile();
-                }
+        CropReconciler source = reconciler;
+        if (shard.reconcilerSource != source) {
+            shard.reconcilerSource = source;
+            shard.reconciler = source == null ? null : source.copy();
+        }
+    }
+
+    // Region backend: a shard ticks while any of its chunks is loaded, pinned to one of them.
+    // The classic shard runs off the global timer.
+    private void ensureTicking(GrowthShard shard, World world, int chunkX, int chunkZ) {
+        if (shard == classic || shard.ticker != null) return;
+
+        shard.tickerChunkX = chunkX;
+        shard.tickerChunkZ = chunkZ;
+        shard.ticker = scheduling.runTimerAt(world, chunkX, chunkZ, 1L, () -> tickShard(shard));
+    }
+
+    // The chunk the ticker was pinned to is unloading; move it to another loaded chunk with crops,
+    // or stop until one loads. Jobs still with the workers wait in the shard's queue until then.
+    private void repinTicker(GrowthShard shard, World world, WorldCrops crops) {
+        shard.ticker.cancel();
+        shard.ticker = null;
+        List<WorldCrops.ChunkBucket> active = crops == null ? List.of() : crops.activeBuckets();
+        if (!active.isEmpty()) {
+            ensureTicking(shard, world, active.get(0).chunkX, active.get(0).chunkZ);
+        }
+    }
+
+    private void beginPass(GrowthShard shard, long now) {
+        GrowthPass pass = shard.pass;
+        boolean stillRunning = pass.running();
+        if (adaptive != null) {
+            if (adaptive.adjust(stillRunning, shard.metrics.lastMainThreadNanos(), pass.lastTicks())) {
+                updateIntervalTicks = adaptive.intervalTicks();
+                tickBudgetMillis = adaptive.budgetMillis();
+                pass.budget(tickBudgetMillis);
+                getLogger().fine("Growth interval now " + updateIntervalTicks / 20 + " s with a " + adaptive.budgetMillis()
+                        + " ms tick budget (" + String.format(Locale.ROOT, "%.1f", adaptive.mspt()) + " ms per tick).");
             }
+        } else if (stillRunning) {
+            getLogger().warning("Growth pass" + shard.describe() + " is " + pass.behindMillis(shard.dueQueue, now) + " ms behind after "
+                    + pass.ticks() + " ticks; consider raising tick-budget or update-interval.");
+        }
+
+        if (tiers != null) {
+            rearmEntered(shard, tiers.rebuild(getServer().getOnlinePlayers()), now);
         }
+
+        pass.begin(now);
+        shard.metrics.beginPass();
     }
 
-    private int countAdjacentFruits(Block stem, Material stemType) {
-        Material fruitType = (stemType == Material.PUMPKIN_STEM) ? Material.PUMPKIN : Material.MELON;
-        int count = 0;
-        
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dz = -1; dz <= 1; dz++) {
-                if (dx == 0 && dz == 0) continue;
-                if (Math.abs(dx) + Math.abs(dz) != 1) continue; 
-                
-                Block adjacent = stem.getRelative(dx, 0, dz);
-                if (adjacent.getType() == fruitType) {
-                    count++;
+    // Crops held back on the far cadence come due now that a player is close enough to watch them
+    private void rearmEntered(GrowthShard shard, Map<String, LongHashMap<Boolean>> entered, long now) {
+        for (Map.Entry<String, LongHashMap<Boolean>> entry : entered.entrySet()) {
+            WorldCrops crops = shard.get(entry.getKey());
+            if (crops == null) continue;
+
+            LongHashMap<Boolean> chunks = entry.getValue();
+            for (int slot = 0; slot < chunks.capacity(); slot++) {
+                if (chunks.valueAt(slot) == null) continue;
+
+                long chunkKey = chunks.keyAt(slot);
+                WorldCrops.ChunkBucket bucket = crops.bucket((int) chunkKey, (int) (chunkKey >> 32));
+                if (bucket == null || !bucket.isActive()) continue;
+
+                for (int i = 0; i < bucket.size(); i++) {
+                    int cropSlot = bucket.slotAt(i);
+                    if (crops.deferred(cropSlot)) {
+                        crops.setDeferred(cropSlot, false);
+                        schedule(crops, crops.pos(cropSlot), cropSlot, now);
+                    }
                 }
             }
         }
-        
-        return count;
     }
 
-    private boolean growFruit(Block stem, Material stemType) {
-        Material fruitType = (stemType == Material.PUMPKIN_STEM) ? Material.PUMPKIN : Material.MELON;
-        List<Block> validSpots = new ArrayList<>();
-        
+    // Region backend: the cells a region thread ticks one after another in the same tick share one
+    // tick budget, so a region owning many cells is held to the same budget as the main thread
+    private long sliceDeadline(long deadline) {
+        if (classic != null) return deadline;
+
+        long[] window = sliceWindow.get();
+        long start = System.nanoTime();
+        // Well inside one 50 ms tick, so the next tick always opens a new window
+        if (window[1] != 0 && start - window[0] < 25_000_000L) {
+            return Math.min(deadline, window[1]);
+        }
+        window[0] = start;
+        window[1] = deadline;
+        return deadline;
+    }
+
+    private void schedule(WorldCrops worldCrops, long pos, int slot, long due) {
+        worldCrops.setNextDue(slot, due);
+        if (due == GrowthMath.NEVER) return;
+
+        int chunkX = BlockKey.x(pos) >> 4;
+        int chunkZ = BlockKey.z(pos) >> 4;
+        GrowthShard shard = shardAt(worldCrops.worldName(), chunkX, chunkZ, true);
+        shard.dueQueue.push(due, worldCrops, pos);
+        if (shard.ticker == null) {
+            World world = Bukkit.getWorld(worldCrops.worldName());
+            if (world != null) ensureTicking(shard, world, chunkX, chunkZ);
+        }
+    }
+
+    // Crops picked up without knowing their state are simulated on the next pass, which works out their real due time
+    private void scheduleBucket(WorldCrops worldCrops, WorldCrops.ChunkBucket bucket, long due) {
+        for (int i = 0; i < bucket.size(); i++) {
+            int slot = bucket.slotAt(i);
+            schedule(worldCrops, worldCrops.pos(slot), slot, due);
+        }
+    }
+
+    // Dormant crops (fully grown or stuck) are out of the due queue until something around them changes
+    private void rearmAround(Block block) {
+        World world = block.getWorld();
+        long now = clock.millis();
         for (int dx = -1; dx <= 1; dx++) {
             for (int dz = -1; dz <= 1; dz++) {
-                if (dx == 0 && dz == 0) continue;
-                if (Math.abs(dx) + Math.abs(dz) != 1) continue;
-                
-                Block adjacent = stem.getRelative(dx, 0, dz);
-                Block below = adjacent.getRelative(0, -1, 0);
-                
-                if (adjacent.getType() == Material.AIR && isSuitableGround(below.getType())) {
-                    validSpots.add(adjacent);
+                int x = block.getX() + dx;
+                int z = block.getZ() + dz;
+                WorldCrops crops = localCrops(world, x, z);
+                if (crops == null) continue;
+
+                for (int dy = -1; dy <= 1; dy++) {
+                    rearm(crops, BlockKey.pack(x, block.getY() + dy, z), now);
                 }
+                retryBlockedBelow(world, crops, x, block.getY(), z, now);
             }
         }
-        
-        if (!validSpots.isEmpty()) {
-            Block target = validSpots.get(new Random().nextInt(validSpots.size()));
-            target.setType(fruitType);
-            return true;
+
+        forgetFruitSpotsAround(block);
+
+        // A stack blocked by this block is tracked at its base
+        WorldCrops crops = localCrops(world, block.getX(), block.getZ());
+        int stack = crops == null ? -1 : crops.stackAt(block.getX(), block.getY() - 1, block.getZ());
+        if (stack >= 0) {
+            rearm(crops, crops.pos(stack), now);
         }
-        
-        return false;
     }
 
-    private boolean isSuitableGround(Material material) {
-        return switch (material) {
-            case DIRT, GRASS_BLOCK, FARMLAND, PODZOL, COARSE_DIRT, 
-                 ROOTED_DIRT, MYCELIUM, MOSS_BLOCK -> true;
-            default -> false;
-        };
+    // The block is beside a stem, or the ground under one of its sides, so the stem's fruit spots may have changed
+    private void forgetFruitSpotsAround(Block block) {
+        World world = block.getWorld();
+        for (int side = 0; side < 4; side++) {
+            int x = block.getX() - FruitSpots.dx(side);
+            int z = block.getZ() - FruitSpots.dz(side);
+            WorldCrops crops = localCrops(world, x, z);
+            if (crops == null) continue;
+
+            forgetFruitSpots(crops, BlockKey.pack(x, block.getY(), z));
+            forgetFruitSpots(crops, BlockKey.pack(x, block.getY() + 1, z));
+        }
     }
 
-    private long getFruitIntervalSeconds(Biome biome, Material stemType) {
-        String biomeName = biome.name();
-        String configKey = stemType.name() + "-fruit-interval";
-        
-        if (biomesConfig.contains("biomes." + biomeName)) {
-            String path = "biomes." + biomeName + "." + configKey;
-            if (biomesConfig.contains(path)) {
-                return biomesConfig.getLong(path);
-            }
+    private void forgetFruitSpots(WorldCrops crops, long pos) {
+        int slot = crops.activeSlotOf(pos);
+        if (slot < 0) return;
+
+        Material type = crops.type(slot);
+        if (type == Material.MELON_STEM || type == Material.PUMPKIN_STEM) {
+            // A stem out with a worker is marked so the worker's view of its sides is not kept
+            crops.setFruitSpots(slot, crops.nextDue(slot) == GrowthPipeline.IN_FLIGHT ? FruitSpots.STALE : FruitSpots.UNKNOWN);
         }
-        
-        String group = getBiomeGroup(biomeName);
-        if (group != null && biomesConfig.contains("groups." + group)) {
-            String path = "groups." + group + "." + configKey;
-            if (biomesConfig.contains(path)) {
-                return biomesConfig.getLong(path);
+    }
+
+    // A sapling backing off needs room well above itself, so a change anywhere over it may free it.
+    // It is looked at again now, starting its backoff over.
+    private void retryBlockedBelow(World world, WorldCrops crops, int x, int y, int z, long now) {
+        LongIntMap blocked = shardAt(world.getName(), x >> 4, z >> 4, false).saplings.blockedIn(crops);
+        if (blocked == null) return;
+
+        for (int dy = 0; dy <= SaplingGrowth.MAX_CLEARANCE; dy++) {
+            long pos = BlockKey.pack(x, y - dy, z);
+            if (blocked.get(pos) < 0) continue;
+
+            blocked.remove(pos);
+            int slot = crops.activeSlotOf(pos);
+            if (slot >= 0 && crops.nextDue(slot) != GrowthPipeline.IN_FLIGHT) {
+                schedule(crops, pos, slot, now);
             }
         }
-        
-        return -1;
     }
 
-    private long getGrowTimeSeconds(Biome biome, Material type) {
-        String biomeName = biome.name();
-        
-        if (biomesConfig.contains("biomes." + biomeName)) {
-            String path = "biomes." + biomeName + "." + type.name();
-            if (biomesConfig.contains(path)) {
-                return biomesConfig.getLong(path);
-            }
+    // Re-reads the crop at (x, y, z), or the stack that block belongs to, a couple of ticks from now
+    private void queueCheck(World world, WorldCrops crops, int x, int y, int z) {
+        int slot = crops.slotOf(BlockKey.pack(x, y, z));
+        if (slot < 0) slot = crops.stackAt(x, y, z);
+        if (slot < 0) return;
+
+        GrowthShard shard = shardAt(world.getName(), x >> 4, z >> 4, true);
+        if (shard.pendingChecks.isEmpty()) {
+            scheduling.runLaterAt(world, x >> 4, z >> 4, 2L, () -> runChecks(shard));
         }
-        
-        String group = getBiomeGroup(biomeName);
-        if (group != null && biomesConfig.contains("groups." + group)) {
-            String path = "groups." + group + "." + type.name();
-            if (biomesConfig.contains(path)) {
-                return biomesConfig.getLong(path);
+        shard.pendingChecks.computeIfAbsent(crops, key -> new LongHashMap<>()).put(crops.pos(slot), Boolean.TRUE);
+    }
+
+    private void runChecks(GrowthShard shard) {
+        long now = clock.millis();
+        for (Map.Entry<WorldCrops, LongHashMap<Boolean>> entry : shard.pendingChecks.entrySet()) {
+            WorldCrops crops = entry.getKey();
+            World world = getServer().getWorld(crops.worldName());
+            if (world == null) continue;
+
+            LongHashMap<Boolean> positions = entry.getValue();
+            for (int i = 0; i < positions.capacity(); i++) {
+                if (positions.valueAt(i) != null) {
+                    verifyCrop(shard, world, crops, positions.keyAt(i), now);
+                }
             }
         }
-        
-        return -1;
+        shard.pendingChecks.clear();
     }
 
-    private long getGrowIntervalSeconds(Biome biome, Material type) {
-        String biomeName = biome.name();
-        
-        if (biomesConfig.contains("biomes." + biomeName)) {
-            String path = "biomes." + biomeName + "." + type.name() + "-interval";
-            if (biomesConfig.contains(path)) {
-                return biomesConfig.getLong(path);
-            }
+    // Evicts the crop if its block is gone, and brings a stack's recorded height back in line
+    // with the world. A cut always ends with the old top segment gone, so a stack whose top is
+    // still there needs no further reads.
+    private void verifyCrop(GrowthShard shard, World world, WorldCrops crops, long pos, long now) {
+        int slot = crops.activeSlotOf(pos);
+        if (slot < 0) return;
+
+        Material type = crops.type(slot);
+        int x = BlockKey.x(pos);
+        int y = BlockKey.y(pos);
+        int z = BlockKey.z(pos);
+        int height = crops.height(slot);
+        if (CropTypes.isStacking(type) && height > 1
+                && CropTypes.sameStack(type, world.getBlockAt(x, y + height - 1, z).getType())) return;
+
+        if (pipeline.evictIfGone(shard, new LiveWorld(world, shard.pendingWrites, scheduling), crops, pos, false)
+                || !CropTypes.isStacking(type)) return;
+
+        int standing = 1;
+        while (standing < height && CropTypes.sameStack(type, world.getBlockAt(x, y + standing, z).getType())) {
+            standing++;
         }
-        
-        String group = getBiomeGroup(biomeName);
-        if (group != null && biomesConfig.contains("groups." + group)) {
-            String path = "groups." + group + "." + type.name() + "-interval";
-            if (biomesConfig.contains(path)) {
-                return biomesConfig.getLong(path);
-            }
+        if (standing != height) {
+            crops.setHeight(slot, standing);
+            markDirty(crops, slot);
+            schedule(crops, pos, slot, now);
         }
-        
-        return -1;
     }
 
-    private int getMaxHeight(Biome biome, Material type) {
-        String biomeName = biome.name();
-        
-        if (biomesConfig.contains("biomes." + biomeName)) {
-            String path = "biomes." + biomeName + "." + type.name() + "-max-height";
-            if (biomesConfig.contains(path)) {
-                return biomesConfig.getInt(path);
-            }
+    private void rearm(WorldCrops crops, long pos, long now) {
+        int slot = crops.activeSlotOf(pos);
+        if (slot >= 0 && crops.nextDue(slot) == GrowthMath.NEVER) {
+            schedule(crops, pos, slot, now);
         }
-        
-        String group = getBiomeGroup(biomeName);
-        if (group != null && biomesConfig.contains("groups." + group)) {
-            String path = "groups." + group + "." + type.name() + "-max-height";
-            if (biomesConfig.contains(path)) {
-                return biomesConfig.getInt(path);
+    }
+
+    // Crops whose rules changed in their biome come due now; the pass works out their due times under
+    // the new rules. Parked crops need nothing, catch-up on chunk load already uses whatever rules are current.
+    private int rescheduleChanged(GrowthShard shard, GrowthRules.Changes changes) {
+        long now = clock.millis();
+        int rescheduled = 0;
+        for (WorldCrops crops : shard.worlds()) {
+            World world = Bukkit.getWorld(crops.worldName());
+            if (world == null) continue;
+
+            for (WorldCrops.ChunkBucket bucket : crops.activeBuckets()) {
+                for (int i = 0; i < bucket.size(); i++) {
+                    int slot = bucket.slotAt(i);
+                    int id = CropTypes.id(crops.type(slot));
+                    // Only crops of a type that changed somewhere pay for the biome lookup
+                    if (!changes.anyBiome(id)) continue;
+
+                    long pos = crops.pos(slot);
+                    if (changes.in(world.getBiome(BlockKey.x(pos), BlockKey.y(pos), BlockKey.z(pos)), id)) {
+                        crops.setDeferred(slot, false);
+                        schedule(crops, pos, slot, now);
+                        rescheduled++;
+                    }
+                }
             }
         }
-        
-        return biomesConfig.getInt("default-max-height", 3);
+        return rescheduled;
     }
 
-    private String getBiomeGroup(String biomeName) {
-        for (Map.Entry<String, Set<String>> entry : biomeGroups.entrySet()) {
-            if (entry.getValue().contains(biomeName)) {
-                return entry.getKey();
-            }
+    // File persistence. Regions load in the background and merge over the first ticks; growth
+    // runs from the start over whatever has merged, so chunks still waiting are simply not looked at yet.
+    private void loadCrops() {
+        List<RegionCropStore.Region> regions;
+        try {
+            regions = cropStore.regions();
+        } catch (IOException e) {
+            getLogger().log(Level.SEVERE, "Could not list the crop store; no crops were loaded", e);
+            return;
         }
-        return null;
+        if (regions.isEmpty()) return;
+
+        int threads = workerThreads();
+        loader = new CropLoader(cropStore, regions, threads, getLogger());
+        getLogger().info("Loading crops from " + regions.size() + " region files on " + threads + " threads.");
     }
 
-    private Block findBaseBlock(Block block) {
-        Material type = block.getType();
-        Block current = block;
-        
-        while (current.getRelative(0, -1, 0).getType() == type) {
-            current = current.getRelative(0, -1, 0);
+    // Takes decoded regions until the tick budget is used, always at least one
+    private void mergeLoadedCrops() {
+        long deadline = System.nanoTime() + tickBudgetMillis * 1_000_000L;
+        long now = clock.millis();
+        CropLoader.Partition partition;
+        while ((partition = loader.poll()) != null) {
+            mergePartition(partition, now);
+            if (System.nanoTime() >= deadline) break;
+        }
+
+        if (loader.finished()) {
+            long millis = Math.max(1, loader.elapsedMillis());
+            getLogger().info(String.format(Locale.ROOT, "Loaded %,d crops from %,d regions in %,d ms (%,d crops/s).",
+                    loader.crops(), loader.total(), millis, loader.crops() * 1000L / millis));
+            loader = null;
         }
-        
-        return current;
     }
 
-    // File persistence
-    private void loadCrops() {
-        if (cropsConfig.getConfigurationSection("crops") == null) return;
+    // A crop already tracked was planted or changed since startup, so it is newer than the file.
+    // One broken before its region merged comes back here and is evicted when the pass finds it gone.
+    private void mergePartition(CropLoader.Partition partition, long now) {
+        if (classic != null) {
+            mergeInto(classic, partition, now);
+            return;
+        }
 
-        for (String key : cropsConfig.getConfigurationSection("crops").getKeys(false)) {
-            String path = "crops." + key;
-            String typeName = cropsConfig.getString(path + ".type");
-            long planted = cropsConfig.getLong(path + ".planted");
-            int height = cropsConfig.getInt(path + ".height", 1);
-            try {
-                Material type = Material.valueOf(typeName);
-                cropCache.put(key, new CropData(type, planted, height));
-            } catch (IllegalArgumentException ignored) {}
+        // Region backend: split by cell and let each shard merge its part on its own thread
+        LongHashMap<CropLoader.Partition> parts = partition.byCell(scheduling.cellShift() + 4);
+        World world = getServer().getWorld(partition.worldName);
+        for (int slot = 0; slot < parts.capacity(); slot++) {
+            CropLoader.Partition part = parts.valueAt(slot);
+            if (part == null) continue;
+
+            long first = part.positions[0];
+            GrowthShard shard = shardAt(part.worldName, BlockKey.x(first) >> 4, BlockKey.z(first) >> 4, true);
+            shard.post(() -> mergeInto(shard, part, clock.millis()));
+            if (world == null) continue;
+
+            // A chunk that loaded before its shard existed never started it ticking, and nothing
+            // drains the inbox until something does; one not loaded yet starts it when it loads
+            int loaded = part.firstLoaded(chunkKey -> world.isChunkLoaded((int) chunkKey, (int) (chunkKey >> 32)));
+            if (loaded >= 0) {
+                long pos = part.positions[loaded];
+                ensureTicking(shard, world, BlockKey.x(pos) >> 4, BlockKey.z(pos) >> 4);
+            }
         }
     }
 
-    private void saveCrops() {
-        cropsConfig.set("crops", null);
-        for (Map.Entry<String, CropData> entry : cropCache.entrySet()) {
-            String path = "crops." + entry.getKey();
-            CropData data = entry.getValue();
-            cropsConfig.set(path + ".type", data.type.name());
-            cropsConfig.set(path + ".planted", data.planted);
-            if (isStackingCrop(data.type)) {
-                cropsConfig.set(path + ".height", data.currentHeight);
+    private void mergeInto(GrowthShard shard, CropLoader.Partition partition, long now) {
+        WorldCrops crops = shard.cropsIn(partition.worldName);
+        World world = getServer().getWorld(partition.worldName);
+        LongHashMap<Boolean> chunkLoaded = new LongHashMap<>();
+
+        for (int i = 0; i < partition.size; i++) {
+            long pos = partition.positions[i];
+            if (crops.slotOf(pos) >= 0) continue;
+
+            long chunkKey = WorldCrops.chunkKeyOf(pos);
+            Boolean loaded = chunkLoaded.get(chunkKey);
+            if (loaded == null) {
+                loaded = world != null && world.isChunkLoaded(BlockKey.x(pos) >> 4, BlockKey.z(pos) >> 4);
+                chunkLoaded.put(chunkKey, loaded);
             }
+
+            int slot = crops.put(pos, partition.records[i], loaded);
+            if (!loaded) continue;
+
+            // The chunk is already in play, so it gets what a chunk load would have given it
+            if (chunkStore != null) {
+                queueWrite(crops, pos, CropRecord.REMOVED);
+                crops.bucket(BlockKey.x(pos) >> 4, BlockKey.z(pos) >> 4).dirty = true;
+            }
+            schedule(crops, pos, slot, now);
         }
-        saveFile();
     }
 
-    private void saveFile() {
+    // One-time import of a crops.yml written by older versions into the binary store
+    private void migrateYamlCrops() {
+        File legacyFile = new File(getDataFolder(), "crops.yml");
+        if (!legacyFile.exists()) return;
+
+        int[] migrated = {0};
+        new YamlCropStore(legacyFile).load((worldName, pos, record) -> {
+            cropStore.write(worldName, pos, record);
+            migrated[0]++;
+        });
+
         try {
-            cropsConfig.save(cropsFile);
+            cropStore.commit();
         } catch (IOException e) {
-            e.printStackTrace();
+            getLogger().log(Level.SEVERE, "Could not migrate crops.yml, it will be retried on the next start", e);
+            return;
         }
+
+        if (!legacyFile.renameTo(new File(getDataFolder(), "crops.yml.migrated"))) {
+            getLogger().warning("Could not rename crops.yml after migrating it; it will be imported again on the next start.");
+        }
+        getLogger().info("Migrated " + migrated[0] + " crops from crops.yml to the binary crop store.");
     }
 
-    // Helpers
-    private void loadBiomeConfig() {
-        biomesConfig = YamlConfiguration.loadConfiguration(biomesFile);
+    private void startWriteBehind() {
+        long flushInterval = biomesConfig.getLong("persistence.flush-interval", 30);
+        int flushThreshold = biomesConfig.getInt("persistence.flush-threshold", 500);
+
+        writeBehind = new WriteBehindQueue(cropStore, getLogger(), metrics, flushInterval * 1000L, flushThreshold);
+        writeBehind.start();
+    }
+
+    // Queues the crop's current state for the background writer; no I/O happens here
+    private void markDirty(WorldCrops crops, int slot) {
+        long pos = crops.pos(slot);
+        if (chunkStore != null) {
+            WorldCrops.ChunkBucket bucket = crops.bucket(BlockKey.x(pos) >> 4, BlockKey.z(pos) >> 4);
+            if (bucket != null) bucket.dirty = true;
+            return;
+        }
+        queueWrite(crops, pos, crops.record(slot));
     }
 
+    // Call after the crop is gone from its shard
+    private void markRemoved(Block block) {
+        WorldCrops crops = cropsIn(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+        if (chunkStore != null) {
+            WorldCrops.ChunkBucket bucket = crops.bucket(block.getX() >> 4, block.getZ() >> 4);
+            if (bucket != null) {
+                bucket.dirty = true;
+            } else {
+                // That was the chunk's last crop, so its bucket is gone too
+                chunkStore.clear(block.getChunk());
+            }
+            return;
+        }
+        queueWrite(crops, BlockKey.pack(block), CropRecord.REMOVED);
+    }
+
+    // From the writer, when a region file was unreadable: every crop still tracked there is queued
+    // again by the shard owning it, so the next flush writes the whole region back
+    private void restageRegion(String worldName, int regionX, int regionZ) {
+        if (chunkStore != null) return;
+
+        for (GrowthShard shard : shardsOf(worldName)) {
+            shard.post(() -> {
+                WorldCrops crops = shard.get(worldName);
+                if (crops == null) return;
+
+                LongHashMap<WorldCrops.ChunkBucket> buckets = crops.allBuckets();
+                for (int slot = 0; slot < buckets.capacity(); slot++) {
+                    WorldCrops.ChunkBucket bucket = buckets.valueAt(slot);
+                    if (bucket == null || bucket.chunkX >> 5 != regionX || bucket.chunkZ >> 5 != regionZ) continue;
+
+                    for (int i = 0; i < bucket.size(); i++) {
+                        int cropSlot = bucket.slotAt(i);
+                        queueWrite(crops, crops.pos(cropSlot), crops.record(cropSlot));
+                    }
+                }
+            });
+        }
+    }
+
+    // Classic: straight to the writer. Region: collected in the shard and handed over at the end of
+    // its tick, so region threads do not take turns on the writer's lock for every crop.
+    private void queueWrite(WorldCrops crops, long pos, CropRecord record) {
+        if (classic != null) {
+            writeBehind.put(crops.worldName(), pos, record);
+            return;
+        }
+        GrowthShard shard = shardAt(crops.worldName(), BlockKey.x(pos) >> 4, BlockKey.z(pos) >> 4, true);
+        shard.unsaved.computeIfAbsent(crops.worldName(), name -> new LongHashMap<>()).put(pos, record);
+        shard.hasUnsaved = true;
+    }
+
+    // Helpers
     private boolean isCrop(Material mat) {
         return switch (mat) {
             case WHEAT, CARROTS, POTATOES, BEETROOTS, CACTUS, SUGAR_CANE, 
@@ -666,54 +1453,138 @@ public class BiomeMetric extends JavaPlugin implements Listener {
                mat == Material.BAMBOO || mat == Material.KELP || mat == Material.KELP_PLANT;
     }
 
-    // Add new method to check if material is a sapling
-    private boolean isSapling(Material mat) {
-        return switch (mat) {
-            case OAK_SAPLING, SPRUCE_SAPLING, BIRCH_SAPLING, JUNGLE_SAPLING,
-                 ACACIA_SAPLING, DARK_OAK_SAPLING, MANGROVE_PROPAGULE,
-                 CHERRY_SAPLING -> true;
-            default -> false;
-        };
-    }
-
     // Add new method to check if material is kelp
     private boolean isKelp(Material mat) {
         return mat == Material.KELP || mat == Material.KELP_PLANT;
     }
 
-    // Add new method to check if material is bamboo
-    private boolean isBamboo(Material mat) {
-        return mat == Material.BAMBOO;
+    // Every loaded chunk, for the next discovery round
+    private List<CropDiscovery.Target> loadedChunks() {
+        List<CropDiscovery.Target> targets = new ArrayList<>();
+        for (World world : getServer().getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                targets.add(new CropDiscovery.Target(world.getName(), chunk.getX(), chunk.getZ()));
+            }
+        }
+        return targets;
     }
 
-    // Helper method to get TreeType from sapling Material
-    private TreeType getTreeType(Material saplingType) {
-        return switch (saplingType) {
-            case OAK_SAPLING -> TreeType.TREE;
-            case SPRUCE_SAPLING -> TreeType.REDWOOD;
-            case BIRCH_SAPLING -> TreeType.BIRCH;
-            case JUNGLE_SAPLING -> TreeType.JUNGLE;
-            case ACACIA_SAPLING -> TreeType.ACACIA;
-            case DARK_OAK_SAPLING -> TreeType.DARK_OAK;
-            case MANGROVE_PROPAGULE -> TreeType.MANGROVE;
-            case CHERRY_SAPLING -> TreeType.CHERRY;
-            default -> null;
-        };
+    // Snapshots the chunk for a discovery scan on the workers; false if it is no longer loaded or
+    // players have not spent long enough near it
+    private boolean discover(CropDiscovery.Target target) {
+        World world = getServer().getWorld(target.worldName());
+        if (world == null || !world.isChunkLoaded(target.chunkX(), target.chunkZ())) return false;
+
+        CropDiscovery owner = discovery;
+        Chunk chunk = world.getChunkAt(target.chunkX(), target.chunkZ());
+        if (!owner.worthScanning(chunk)) return false;
+
+        ChunkSnapshot snapshot = chunk.getChunkSnapshot(false, true, false);
+        GrowthRules rules = engine.rules();
+        int minY = world.getMinHeight();
+        int maxY = world.getMaxHeight();
+        long now = clock.millis();
+
+        owner.scanning++;
+        workers.execute(() -> {
+            LongHashMap<CropRecord> found = null;
+            try {
+                found = CropDiscovery.scan(snapshot, minY, maxY, rules, now);
+            } catch (RuntimeException e) {
+                getLogger().log(Level.WARNING, "Crop discovery failed for chunk " + target.chunkX() + ", " + target.chunkZ(), e);
+            }
+            LongHashMap<CropRecord> result = found;
+            classic.post(() -> {
+                owner.scanning--;
+                if (result != null) registerDiscovered(owner, target, result);
+            });
+        });
+        return true;
+    }
+
+    // Registers what a scan found that is still untracked, until the chunk holds the per-chunk cap. The
+    // world may have moved on since the snapshot; a crop that has gone since is evicted when the pass
+    // first looks at it.
+    private void registerDiscovered(CropDiscovery owner, CropDiscovery.Target target, LongHashMap<CropRecord> found) {
+        World world = getServer().getWorld(target.worldName());
+        if (found.isEmpty() || world == null || !world.isChunkLoaded(target.chunkX(), target.chunkZ())) {
+            metrics.discovered(0);
+            return;
+        }
+
+        long now = clock.millis();
+        WorldCrops crops = cropsIn(world, target.chunkX(), target.chunkZ());
+        WorldCrops.ChunkBucket bucket = crops.bucket(target.chunkX(), target.chunkZ());
+        int room = owner.maxPerChunk - (bucket == null ? 0 : bucket.size());
+        int registered = 0;
+        for (int i = 0; i < found.capacity() && registered < room; i++) {
+            CropRecord record = found.valueAt(i);
+            if (record == null) continue;
+
+            long pos = found.keyAt(i);
+            // Tracked already, or part of a tracked stack
+            if (crops.slotOf(pos) >= 0 || crops.stackAt(BlockKey.x(pos), BlockKey.y(pos), BlockKey.z(pos)) >= 0) continue;
+
+            int slot = crops.put(pos, record, true);
+            schedule(crops, pos, slot, now);
+            markDirty(crops, slot);
+            registered++;
+        }
+        metrics.discovered(registered);
+    }
+
+    // The shard owning chunk (chunkX, chunkZ); null if create is off and nothing was ever tracked in its cell
+    private GrowthShard shardAt(String worldName, int chunkX, int chunkZ, boolean create) {
+        if (classic != null) return classic;
+
+        int shift = scheduling.cellShift();
+        GrowthShard.Key key = new GrowthShard.Key(worldName, chunkX >> shift, chunkZ >> shift);
+        return create ? shards.computeIfAbsent(key, this::newShard) : shards.get(key);
+    }
+
+    private GrowthShard newShard(GrowthShard.Key key) {
+        return new GrowthShard(key.worldName(), key.cellX(), key.cellZ(), tickBudgetMillis, new GrowthMetrics());
     }
 
-    private String key(Block block) {
-        return block.getWorld().getName() + ":" + block.getX() + ":" + block.getY() + ":" + block.getZ();
+    private Collection<GrowthShard> allShards() {
+        return classic != null ? List.of(classic) : shards.values();
     }
 
-    private static class CropData {
-        public final Material type;
-        public final long planted;
-        public int currentHeight;
+    private List<GrowthShard> shardsOf(String worldName) {
+        if (classic != null) return List.of(classic);
+
+        List<GrowthShard> found = new ArrayList<>();
+        for (GrowthShard shard : shards.values()) {
+            if (shard.worldName.equals(worldName)) found.add(shard);
+        }
+        return found;
+    }
 
-        public CropData(Material type, long planted, int currentHeight) {
-            this.type = type;
-            this.planted = planted;
-            this.currentHeight = currentHeight;
+    // Classic runs it now; a region shard on its next tick, on its own thread
+    private void onShard(GrowthShard shard, Runnable task) {
+        if (shard == classic) {
+            task.run();
+        } else {
+            shard.post(task);
         }
     }
-}
\ No newline at end of file
+
+    private WorldCrops cropsIn(World world, int chunkX, int chunkZ) {
+        return shardAt(world.getName(), chunkX, chunkZ, true).cropsIn(world.getName());
+    }
+
+    // Tracked crops of the block's cell, or null
+    private WorldCrops trackedAt(Block block) {
+        GrowthShard shard = shardAt(block.getWorld().getName(), block.getX() >> 4, block.getZ() >> 4, false);
+        return shard == null ? null : shard.get(block.getWorld().getName());
+    }
+
+    // Like trackedAt for block column (x, z), seen from a neighbouring block: on a region-threaded
+    // server the column may lie in a cell another region is ticking, which this thread must leave alone
+    private WorldCrops localCrops(World world, int x, int z) {
+        if (classic == null && !scheduling.owns(world, x >> 4, z >> 4)) return null;
+
+        GrowthShard shard = shardAt(world.getName(), x >> 4, z >> 4, false);
+        return shard == null ? null : shard.get(world.getName());
+    }
+}
@@ -0,0 +1,30 @@
+package com.Bit;
+
+import org.bukkit.block.Block;
+
+// Packs block coordinates into a single long (26 bits x, 26 bits z, 12 bits y),
+// the same layout vanilla uses for BlockPos.asLong()
+final class BlockKey {
+
+    private BlockKey() {}
+
+    static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    static long pack(Block block) {
+        return pack(block.getX(), block.getY(), block.getZ());
+    }
+
+    static int x(long key) {
+        return (int) (key >> 38);
+    }
+
+    static int y(long key) {
+        return (int) (key << 52 >> 52);
+    }
+
+    static int z(long key) {
+        return (int) (key << 26 >> 38);
+    }
+}
@@ -0,0 +1,18 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.bukkit.block.Biome;
+import org.bukkit.block.data.BlockData;
+
+// Read-only block access for the growth simulators, in world coordinates
+interface BlockView {
+
+    Material getType(int x, int y, int z);
+
+    BlockData getBlockData(int x, int y, int z);
+
+    Biome getBiome(int x, int y, int z);
+
+    // Blocks in chunks that are not loaded must not be read
+    boolean isLoaded(int chunkX, int chunkZ);
+}
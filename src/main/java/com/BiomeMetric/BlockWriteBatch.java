@@ -0,0 +1,29 @@
+package com.Bit;
+
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Block changes collected while a chunk is simulated and applied together afterwards
+final class BlockWriteBatch {
+
+    private final List<Block> blocks = new ArrayList<>();
+    private final List<BlockData> data = new ArrayList<>();
+
+    void set(Block block, BlockData blockData) {
+        blocks.add(block);
+        data.add(blockData);
+    }
+
+    int apply() {
+        int count = blocks.size();
+        for (int i = 0; i < count; i++) {
+            blocks.get(i).setBlockData(data.get(i));
+        }
+        blocks.clear();
+        data.clear();
+        return count;
+    }
+}
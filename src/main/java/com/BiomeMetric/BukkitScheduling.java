@@ -0,0 +1,63 @@
+package com.Bit;
+
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+
+// Classic backend: one main thread owns every world, so chunk-bound tasks are plain sync tasks
+final class BukkitScheduling implements Scheduling {
+
+    private final Plugin plugin;
+    private final BukkitScheduler scheduler;
+
+    BukkitScheduling(Plugin plugin) {
+        this.plugin = plugin;
+        this.scheduler = plugin.getServer().getScheduler();
+    }
+
+    @Override
+    public boolean regionThreaded() {
+        return false;
+    }
+
+    @Override
+    public int cellShift() {
+        // Everything is one cell; nothing reads this on the classic backend
+        return 31;
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        scheduler.runTask(plugin, task);
+    }
+
+    @Override
+    public Task runGlobalTimer(long periodTicks, Runnable task) {
+        return scheduler.runTaskTimer(plugin, task, 1L, periodTicks)::cancel;
+    }
+
+    @Override
+    public void runAt(World world, int chunkX, int chunkZ, Runnable task) {
+        scheduler.runTask(plugin, task);
+    }
+
+    @Override
+    public void runLaterAt(World world, int chunkX, int chunkZ, long delayTicks, Runnable task) {
+        scheduler.runTaskLater(plugin, task, delayTicks);
+    }
+
+    @Override
+    public Task runTimerAt(World world, int chunkX, int chunkZ, long periodTicks, Runnable task) {
+        return runGlobalTimer(periodTicks, task);
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        scheduler.runTaskAsynchronously(plugin, task);
+    }
+
+    @Override
+    public boolean owns(World world, int chunkX, int chunkZ) {
+        return true;
+    }
+}
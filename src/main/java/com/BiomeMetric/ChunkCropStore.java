@@ -0,0 +1,86 @@
+package com.Bit;
+
+import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.logging.Logger;
+
+// Keeps a chunk's crop records in the chunk's own PersistentDataContainer, so they are
+// saved, loaded and backed up together with the world. Layout: version byte, record count,
+// then fixed-width CropRecordCodec records. Must only be used on the main thread.
+final class ChunkCropStore {
+
+    private static final byte VERSION = 1;
+
+    private final NamespacedKey key;
+    private final Logger logger;
+
+    ChunkCropStore(Plugin plugin) {
+        this.key = new NamespacedKey(plugin, "crops");
+        this.logger = plugin.getLogger();
+    }
+
+    void read(Chunk chunk, CropRecordCodec.RecordSink sink) {
+        byte[] bytes = chunk.getPersistentDataContainer().get(key, PersistentDataType.BYTE_ARRAY);
+        if (bytes == null || bytes.length == 0) return;
+
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            byte version = in.readByte();
+            if (version > VERSION) {
+                logger.warning("Chunk " + describe(chunk) + " has crop data version " + version + ", skipping it.");
+                return;
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                CropRecordCodec.read(in, sink);
+            }
+        } catch (IOException e) {
+            logger.warning("Crop data in chunk " + describe(chunk) + " is truncated: " + e.getMessage());
+        }
+    }
+
+    // Writes the bucket's crops into the chunk; returns the bytes stored
+    int write(Chunk chunk, WorldCrops crops, WorldCrops.ChunkBucket bucket) {
+        if (bucket.isEmpty()) {
+            clear(chunk);
+            return 0;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(5 + bucket.size() * CropRecordCodec.RECORD_BYTES);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeInt(bucket.size());
+            for (int i = 0; i < bucket.size(); i++) {
+                int slot = bucket.slotAt(i);
+                CropRecordCodec.write(out, crops.pos(slot), crops.record(slot));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory stream, never happens
+        }
+
+        chunk.getPersistentDataContainer().set(key, PersistentDataType.BYTE_ARRAY, bytes.toByteArray());
+        return bytes.size();
+    }
+
+    void clear(Chunk chunk) {
+        PersistentDataContainer container = chunk.getPersistentDataContainer();
+        if (container.has(key, PersistentDataType.BYTE_ARRAY)) {
+            container.remove(key);
+        }
+    }
+
+    private static String describe(Chunk chunk) {
+        return chunk.getWorld().getName() + " " + chunk.getX() + "," + chunk.getZ();
+    }
+}
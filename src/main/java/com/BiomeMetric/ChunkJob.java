@@ -0,0 +1,29 @@
+package com.Bit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The due crops of one chunk, sent to a worker together with the snapshots they read.
+// A reconcile job carries every crop of the chunk and only checks they are still there.
+final class ChunkJob {
+
+    // Finished jobs go back to the shard that sent them
+    final GrowthShard shard;
+    final WorldCrops world;
+    final int chunkX;
+    final int chunkZ;
+    final SnapshotView view;
+    final boolean reconcile;
+    final List<CropUpdate> crops = new ArrayList<>();
+    // Set by the worker if evaluation threw; the crops are retried later
+    volatile boolean failed;
+
+    ChunkJob(GrowthShard shard, WorldCrops world, int chunkX, int chunkZ, SnapshotView view, boolean reconcile) {
+        this.shard = shard;
+        this.world = world;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.view = view;
+        this.reconcile = reconcile;
+    }
+}
@@ -0,0 +1,10 @@
+package com.Bit;
+
+// Wall-clock source for growth timing, so a harness can run simulated days in seconds
+@FunctionalInterface
+interface Clock {
+
+    Clock SYSTEM = System::currentTimeMillis;
+
+    long millis();
+}
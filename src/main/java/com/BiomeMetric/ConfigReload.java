@@ -0,0 +1,95 @@
+package com.Bit;
+
+import org.bukkit.Registry;
+import org.bukkit.block.Biome;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// biomes.yml read, checked and compiled for /biomemetric reload. Everything here runs off the
+// main thread; the main thread only swaps the finished rules in. Errors keep the reload from
+// being applied, warnings are reported alongside it.
+final class ConfigReload {
+
+    private static final String[] KEY_SUFFIXES = {"", "-interval", "-fruit-interval", "-max-height"};
+
+    final YamlConfiguration config;
+    final GrowthRules rules;
+    // Against the rules in use when the reload started
+    final GrowthRules.Changes changes;
+    final List<String> errors = new ArrayList<>();
+    final List<String> warnings = new ArrayList<>();
+
+    private ConfigReload(YamlConfiguration config, GrowthRules rules, GrowthRules.Changes changes) {
+        this.config = config;
+        this.rules = rules;
+        this.changes = changes;
+    }
+
+    static ConfigReload parse(File file, GrowthRules current) throws IOException, InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.load(file);
+
+        GrowthRules rules = GrowthRules.compile(config);
+        // Resolve every biome now, so the hot path never has to
+        for (Biome biome : Registry.BIOME) {
+            rules.forBiome(biome);
+        }
+
+        ConfigReload reload = new ConfigReload(config, rules, current.changes(rules, Registry.BIOME));
+        reload.validate();
+        return reload;
+    }
+
+    private void validate() {
+        if (config.getLong("update-interval", 60) <= 0) errors.add("update-interval must be at least 1 second");
+        if (config.getLong("tick-budget", 5) <= 0) errors.add("tick-budget must be at least 1 millisecond");
+        if (config.getInt("trees-per-tick", 2) <= 0) errors.add("trees-per-tick must be at least 1");
+
+        ConfigurationSection groups = config.getConfigurationSection("biome-groups");
+        if (groups == null) {
+            warnings.add("No 'biome-groups' section; every biome uses the defaults");
+        } else {
+            for (String group : groups.getKeys(false)) {
+                if (!config.isConfigurationSection("groups." + group)) {
+                    warnings.add("Biome group " + group + " has no 'groups." + group + "' section");
+                }
+            }
+        }
+
+        checkCropKeys("groups");
+        checkCropKeys("biomes");
+    }
+
+    // Keys that name no crop are silently ignored by the compiler, which hides typos
+    private void checkCropKeys(String path) {
+        ConfigurationSection parent = config.getConfigurationSection(path);
+        if (parent == null) return;
+
+        for (String name : parent.getKeys(false)) {
+            ConfigurationSection section = parent.getConfigurationSection(name);
+            if (section == null) continue;
+
+            for (String key : section.getKeys(false)) {
+                if (!isCropKey(key)) {
+                    warnings.add("Unknown key '" + key + "' in " + path + "." + name);
+                }
+            }
+        }
+    }
+
+    private static boolean isCropKey(String key) {
+        for (int id = 0; id < CropTypes.count(); id++) {
+            String type = CropTypes.byId(id).name();
+            for (String suffix : KEY_SUFFIXES) {
+                if (key.equals(type + suffix)) return true;
+            }
+        }
+        return false;
+    }
+}
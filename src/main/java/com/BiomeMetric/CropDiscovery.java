@@ -0,0 +1,174 @@
+package com.Bit;
+
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.block.data.Ageable;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Background search for crops nobody told us about: planted before the plugin was installed,
+// by villagers, or by other plugins. Each chunk is scanned once when it loads, and the loaded
+// chunks are walked in turn a few per second after that. The scan reads a snapshot on a worker;
+// the main thread then registers whatever is not tracked yet, one chunk's finds at a time.
+// Wild vegetation is left to vanilla: only chunks players have spent time near are scanned, only
+// crops a player could have planted are taken, and each chunk holds at most a capped number.
+final class CropDiscovery {
+
+    record Target(String worldName, int chunkX, int chunkZ) {}
+
+    private final double chunksPerTick;
+    private final long minInhabitedTicks;
+    // Tracked crops a chunk may hold before discovery stops adding to it
+    final int maxPerChunk;
+    private double credit;
+
+    // Chunks that just loaded go first
+    private final ArrayDeque<Target> loaded = new ArrayDeque<>();
+    // The current round over every loaded chunk, refilled when it runs out
+    private final ArrayDeque<Target> round = new ArrayDeque<>();
+    // Scans out with the workers
+    int scanning;
+
+    // Blocks world generation does not put next to wild cactus, cane, bamboo, kelp, berries or cocoa
+    private static final boolean[] BUILT = new boolean[Material.values().length];
+
+    static {
+        for (Material material : Material.values()) {
+            String name = material.name();
+            BUILT[material.ordinal()] = name.endsWith("_PLANKS") || name.endsWith("_SLAB") || name.endsWith("_STAIRS")
+                    || name.endsWith("_FENCE") || name.endsWith("_TRAPDOOR") || name.contains("GLASS")
+                    || switch (material) {
+                        case PISTON, STICKY_PISTON, OBSERVER, HOPPER, CHEST, TORCH, WALL_TORCH, REDSTONE_WIRE,
+                             REDSTONE_LAMP, COBBLESTONE, STONE_BRICKS, BRICKS -> true;
+                        default -> false;
+                    };
+        }
+    }
+
+    private CropDiscovery(double chunksPerSecond, long minInhabitedTicks, int maxPerChunk) {
+        this.chunksPerTick = chunksPerSecond / 20.0;
+        this.minInhabitedTicks = minInhabitedTicks;
+        this.maxPerChunk = maxPerChunk;
+    }
+
+    // Null unless discovery.enabled is on
+    static CropDiscovery fromConfig(ConfigurationSection section) {
+        if (section == null || !section.getBoolean("enabled", false)) return null;
+        double chunksPerSecond = section.getDouble("chunks-per-second", 4);
+        long minInhabitedTicks = Math.max(0L, section.getLong("min-inhabited-minutes", 30)) * 60 * 20;
+        int maxPerChunk = section.getInt("max-per-chunk", 256);
+        return chunksPerSecond > 0 && maxPerChunk > 0 ? new CropDiscovery(chunksPerSecond, minInhabitedTicks, maxPerChunk) : null;
+    }
+
+    // Chunks players have only passed through are still as they were generated
+    boolean worthScanning(Chunk chunk) {
+        return chunk.getInhabitedTime() >= minInhabitedTicks;
+    }
+
+    void chunkLoaded(String worldName, int chunkX, int chunkZ) {
+        loaded.add(new Target(worldName, chunkX, chunkZ));
+    }
+
+    // Hands this tick's share of chunks to 'scan', which returns false for a chunk that is gone
+    // by now or not worth scanning; those cost nothing. 'refill' lists the loaded chunks for the next round.
+    void tick(Supplier<Collection<Target>> refill, Predicate<Target> scan) {
+        credit = Math.min(credit + chunksPerTick, chunksPerTick + 1.0);
+        boolean refilled = false;
+
+        while (credit >= 1.0) {
+            Target target = loaded.poll();
+            if (target == null) {
+                if (round.isEmpty()) {
+                    // At most once a tick, so a server with nothing loaded does not spin
+                    if (refilled) return;
+                    round.addAll(refill.get());
+                    refilled = true;
+                    if (round.isEmpty()) return;
+                }
+                target = round.poll();
+            }
+            if (scan.test(target)) credit -= 1.0;
+        }
+    }
+
+    // Worker side: every crop in the snapshot a player could have planted, stacks at their base.
+    // Planting times are worked out backwards from how far each crop has grown, so it carries on
+    // from where it stands.
+    static LongHashMap<CropRecord> scan(ChunkSnapshot snapshot, int minY, int maxY, GrowthRules rules, long now) {
+        LongHashMap<CropRecord> found = new LongHashMap<>();
+        int baseX = snapshot.getX() << 4;
+        int baseZ = snapshot.getZ() << 4;
+
+        for (int sectionY = minY; sectionY < maxY; sectionY += 16) {
+            if (snapshot.isSectionEmpty((sectionY - minY) >> 4)) continue;
+
+            for (int y = sectionY; y < sectionY + 16; y++) {
+                for (int x = 0; x < 16; x++) {
+                    for (int z = 0; z < 16; z++) {
+                        Material type = snapshot.getBlockType(x, y, z);
+                        // Attached stems are left alone, as they are when placed
+                        if (CropTypes.id(type) < 0 || type == Material.ATTACHED_PUMPKIN_STEM
+                                || type == Material.ATTACHED_MELON_STEM) continue;
+
+                        CropRecord record = CropTypes.isStacking(type)
+                                ? stackAt(snapshot, x, y, z, minY, maxY, type, rules, now)
+                                : cropAt(snapshot, x, y, z, type, rules, now);
+                        if (record != null && planted(snapshot, x, y, z, minY, type)) {
+                            found.put(BlockKey.pack(baseX + x, y, baseZ + z), record);
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    // Saplings never generate and farmland crops need tilled ground. Everything else also grows
+    // wild, so it is only taken with a built block beside or under it; neighbours in other chunks
+    // are not in the snapshot and count as unbuilt. A stack qualifies by its base.
+    private static boolean planted(ChunkSnapshot snapshot, int x, int y, int z, int minY, Material type) {
+        if (SaplingGrowth.treeType(type) != null) return true;
+        if (y == minY) return false;
+
+        Material below = snapshot.getBlockType(x, y - 1, z);
+        return switch (type) {
+            case WHEAT, CARROTS, POTATOES, BEETROOTS, PUMPKIN_STEM, MELON_STEM -> below == Material.FARMLAND;
+            default -> BUILT[below.ordinal()]
+                    || x > 0 && BUILT[snapshot.getBlockType(x - 1, y, z).ordinal()]
+                    || x < 15 && BUILT[snapshot.getBlockType(x + 1, y, z).ordinal()]
+                    || z > 0 && BUILT[snapshot.getBlockType(x, y, z - 1).ordinal()]
+                    || z < 15 && BUILT[snapshot.getBlockType(x, y, z + 1).ordinal()];
+        };
+    }
+
+    private static CropRecord cropAt(ChunkSnapshot snapshot, int x, int y, int z, Material type, GrowthRules rules, long now) {
+        BlockData blockData = snapshot.getBlockData(x, y, z);
+        if (!(blockData instanceof Ageable ageable)) return new CropRecord(type, now, 1, 0L);
+
+        long growTime = rules.forBiome(snapshot.getBiome(x, y, z)).growTime(type);
+        return new CropRecord(type, GrowthMath.plantedAt(now, growTime, ageable.getAge(), ageable.getMaximumAge()), 1, 0L);
+    }
+
+    // Null unless (x, y, z) is the base of its stack
+    private static CropRecord stackAt(ChunkSnapshot snapshot, int x, int y, int z, int minY, int maxY,
+                                      Material type, GrowthRules rules, long now) {
+        if (y > minY && CropTypes.sameStack(type, snapshot.getBlockType(x, y - 1, z))) return null;
+
+        int height = 1;
+        while (y + height < maxY && height < 255 && CropTypes.sameStack(type, snapshot.getBlockType(x, y + height, z))) {
+            height++;
+        }
+
+        // Kelp is tracked as KELP whatever its base has turned into, as it is when placed
+        Material tracked = type == Material.KELP_PLANT ? Material.KELP : type;
+        long growInterval = rules.forBiome(snapshot.getBiome(x, y, z)).growInterval(tracked);
+        long planted = growInterval > 0 ? now - (height - 1) * growInterval : now;
+        return new CropRecord(tracked, planted, height, 0L);
+    }
+}
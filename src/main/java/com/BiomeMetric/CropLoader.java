@@ -0,0 +1,134 @@
+package com.Bit;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Startup load of the region store. Region files are read and decoded in parallel on a
+// short-lived pool; the main thread takes finished regions off the queue and merges them
+// into the index a few per tick, so the server does not wait for crops to start.
+final class CropLoader {
+
+    // One region's crops, decoded and waiting to be merged
+    static final class Partition {
+        final String worldName;
+        long[] positions = new long[256];
+        CropRecord[] records = new CropRecord[256];
+        int size;
+
+        Partition(String worldName) {
+            this.worldName = worldName;
+        }
+
+        void add(long pos, CropRecord record) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                records = Arrays.copyOf(records, size * 2);
+            }
+            positions[size] = pos;
+            records[size] = record;
+            size++;
+        }
+
+        // The crops split by cell, shift being the cell size in blocks as a power of two
+        LongHashMap<Partition> byCell(int shift) {
+            LongHashMap<Partition> parts = new LongHashMap<>();
+            for (int i = 0; i < size; i++) {
+                long pos = positions[i];
+                long cellKey = WorldCrops.chunkKey(BlockKey.x(pos) >> shift, BlockKey.z(pos) >> shift);
+                Partition part = parts.get(cellKey);
+                if (part == null) {
+                    part = new Partition(worldName);
+                    parts.put(cellKey, part);
+                }
+                part.add(pos, records[i]);
+            }
+            return parts;
+        }
+
+        // Index of the first crop whose chunk is loaded, or -1 if none is
+        int firstLoaded(LongPredicate chunkLoaded) {
+            for (int i = 0; i < size; i++) {
+                if (chunkLoaded.test(WorldCrops.chunkKeyOf(positions[i]))) return i;
+            }
+            return -1;
+        }
+    }
+
+    private final ExecutorService pool;
+    private final Queue<Partition> ready = new ConcurrentLinkedQueue<>();
+    private final int total;
+    private final long startNanos = System.nanoTime();
+
+    // Main thread only
+    private int merged;
+    private long crops;
+
+    CropLoader(RegionCropStore store, List<RegionCropStore.Region> regions, int threads, Logger logger) {
+        this.total = regions.size();
+        AtomicInteger counter = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "BiomeMetric-load-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (RegionCropStore.Region region : regions) {
+            pool.execute(() -> {
+                Partition partition = new Partition(region.worldName());
+                try {
+                    store.load(region, (worldName, pos, record) -> partition.add(pos, record));
+                    ready.add(partition);
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Could not load crop region " + region.file() + "; its crops stay on disk", e);
+                    // Nothing of a region read halfway is merged; an empty one still counts it as done
+                    ready.add(new Partition(region.worldName()));
+                }
+            });
+        }
+        // Lets the queued regions finish, then the threads go away
+        pool.shutdown();
+    }
+
+    // Next decoded region, or null if none is ready yet
+    Partition poll() {
+        Partition partition = ready.poll();
+        if (partition != null) {
+            merged++;
+            crops += partition.size;
+        }
+        return partition;
+    }
+
+    boolean finished() {
+        return merged == total;
+    }
+
+    int merged() {
+        return merged;
+    }
+
+    int total() {
+        return total;
+    }
+
+    long crops() {
+        return crops;
+    }
+
+    long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    // Shutting down mid-load; whatever has not merged is still on disk
+    void close() {
+        pool.shutdownNow();
+    }
+}
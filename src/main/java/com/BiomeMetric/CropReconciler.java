@@ -0,0 +1,70 @@
+package com.Bit;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+// Background sweep for crops whose block went away without an event we saw (other plugins,
+// world editors, anything that sets blocks directly). It walks the loaded chunks with crops
+// a few per second, round-robin across worlds; each one is compared against a snapshot on a
+// worker, and only the mismatches are re-read live before they are evicted.
+final class CropReconciler {
+
+    private final double chunksPerTick;
+    private double credit;
+
+    // Worlds of the current round, refreshed each time the cursor wraps
+    private final List<WorldCrops> worlds = new ArrayList<>();
+    private int worldIndex;
+    // Buckets are swap-removed as chunks unload, so a round may skip or repeat one; the next round makes up for it
+    private int bucketIndex;
+
+    private CropReconciler(double chunksPerSecond) {
+        this.chunksPerTick = chunksPerSecond / 20.0;
+    }
+
+    // Null when reconcile.enabled is off
+    static CropReconciler fromConfig(ConfigurationSection section) {
+        if (section != null && !section.getBoolean("enabled", true)) return null;
+        double chunksPerSecond = section == null ? 4 : section.getDouble("chunks-per-second", 4);
+        return chunksPerSecond > 0 ? new CropReconciler(chunksPerSecond) : null;
+    }
+
+    // Same rate, fresh cursor; each shard walks its own chunks
+    CropReconciler copy() {
+        return new CropReconciler(chunksPerTick * 20.0);
+    }
+
+    // Hands this tick's share of chunks to 'check'
+    void tick(Collection<WorldCrops> all, BiConsumer<WorldCrops, WorldCrops.ChunkBucket> check) {
+        credit = Math.min(credit + chunksPerTick, chunksPerTick + 1.0);
+        int emptyWorlds = 0;
+
+        while (credit >= 1.0) {
+            if (worldIndex >= worlds.size()) {
+                worlds.clear();
+                worlds.addAll(all);
+                worldIndex = 0;
+                bucketIndex = 0;
+                if (worlds.isEmpty()) return;
+            }
+
+            WorldCrops crops = worlds.get(worldIndex);
+            List<WorldCrops.ChunkBucket> buckets = crops.activeBuckets();
+            if (bucketIndex >= buckets.size()) {
+                worldIndex++;
+                bucketIndex = 0;
+                // Every world came up empty; nothing is loaded
+                if (++emptyWorlds > worlds.size()) return;
+                continue;
+            }
+
+            emptyWorlds = 0;
+            check.accept(crops, buckets.get(bucketIndex++));
+            credit -= 1.0;
+        }
+    }
+}
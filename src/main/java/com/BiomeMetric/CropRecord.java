@@ -0,0 +1,10 @@
+package com.Bit;
+
+import org.bukkit.Material;
+
+// Immutable copy of a crop's persistent state, handed from the main thread to the writer
+record CropRecord(Material type, long planted, int height, long lastFruitGrowth) {
+
+    // Marks a position whose crop was removed
+    static final CropRecord REMOVED = new CropRecord(null, 0L, 0, 0L);
+}
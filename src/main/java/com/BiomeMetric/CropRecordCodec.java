@@ -0,0 +1,41 @@
+package com.Bit;
+
+import org.bukkit.Material;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Fixed-width binary crop record:
+// packed position (8) | crop type id (1) | planted (8) | height (1) | last fruit growth (8)
+final class CropRecordCodec {
+
+    static final int RECORD_BYTES = 26;
+
+    interface RecordSink {
+        void accept(long pos, CropRecord record);
+    }
+
+    private CropRecordCodec() {}
+
+    static void write(DataOutput out, long pos, CropRecord record) throws IOException {
+        out.writeLong(pos);
+        out.writeByte(CropTypes.id(record.type()));
+        out.writeLong(record.planted());
+        out.writeByte(Math.min(record.height(), 255));
+        out.writeLong(record.lastFruitGrowth());
+    }
+
+    // Returns false if the record names an unknown crop type; the bytes are consumed either way
+    static boolean read(DataInput in, RecordSink sink) throws IOException {
+        long pos = in.readLong();
+        Material type = CropTypes.byId(in.readByte());
+        long planted = in.readLong();
+        int height = in.readUnsignedByte();
+        long lastFruitGrowth = in.readLong();
+
+        if (type == null) return false;
+        sink.accept(pos, new CropRecord(type, planted, height, lastFruitGrowth));
+        return true;
+    }
+}
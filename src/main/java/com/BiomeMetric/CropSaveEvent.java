@@ -0,0 +1,22 @@
+package com.Bit;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// One write of crop records, from the background writer or into chunk data
+@Name("com.Bit.CropSave")
+@Label("Crop Save")
+@Category("BiomeMetric")
+@Description("Crop records written to the crop store or chunk data")
+final class CropSaveEvent extends jdk.jfr.Event {
+
+    @Label("Records")
+    int records;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytes;
+}
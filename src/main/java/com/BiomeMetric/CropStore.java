@@ -0,0 +1,19 @@
+package com.Bit;
+
+import java.io.IOException;
+
+// Backing storage for tracked crops. Writes are only ever issued from one thread at a time.
+interface CropStore {
+
+    interface Sink {
+        void accept(String worldName, long pos, CropRecord record);
+    }
+
+    void load(Sink sink) throws IOException;
+
+    // Stages a change; CropRecord.REMOVED deletes the entry
+    void write(String worldName, long pos, CropRecord record);
+
+    // Persists everything staged since the last commit; returns the bytes written
+    long commit() throws IOException;
+}
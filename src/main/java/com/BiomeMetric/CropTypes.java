@@ -0,0 +1,69 @@
+package com.Bit;
+
+import org.bukkit.Material;
+
+import java.util.Arrays;
+
+// Stable small ids for tracked crop materials. Ids are persisted, so new
+// materials must be appended at the end and existing ones never reordered.
+final class CropTypes {
+
+    private static final Material[] BY_ID = {
+            Material.WHEAT, Material.CARROTS, Material.POTATOES, Material.BEETROOTS,
+            Material.CACTUS, Material.SUGAR_CANE, Material.SWEET_BERRY_BUSH, Material.COCOA,
+            Material.PUMPKIN_STEM, Material.MELON_STEM, Material.ATTACHED_PUMPKIN_STEM, Material.ATTACHED_MELON_STEM,
+            Material.OAK_SAPLING, Material.SPRUCE_SAPLING, Material.BIRCH_SAPLING, Material.JUNGLE_SAPLING,
+            Material.ACACIA_SAPLING, Material.DARK_OAK_SAPLING, Material.MANGROVE_PROPAGULE, Material.CHERRY_SAPLING,
+            Material.BAMBOO, Material.KELP, Material.KELP_PLANT
+    };
+
+    private static final byte[] ID_BY_ORDINAL = new byte[Material.values().length];
+
+    static {
+        Arrays.fill(ID_BY_ORDINAL, (byte) -1);
+        for (int id = 0; id < BY_ID.length; id++) {
+            ID_BY_ORDINAL[BY_ID[id].ordinal()] = (byte) id;
+        }
+    }
+
+    private CropTypes() {}
+
+    static int count() {
+        return BY_ID.length;
+    }
+
+    // -1 for materials that are not tracked crops
+    static int id(Material type) {
+        return ID_BY_ORDINAL[type.ordinal()];
+    }
+
+    static Material byId(int id) {
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+
+    // Crops that grow by adding segments on top; they are tracked at their base block
+    static boolean isStacking(Material type) {
+        return type == Material.CACTUS || type == Material.SUGAR_CANE || type == Material.BAMBOO
+                || type == Material.KELP || type == Material.KELP_PLANT;
+    }
+
+    // Whether a block of type 'found' still holds a crop tracked as 'type'. Stems turn into
+    // attached stems next to their fruit, and a stack's base can change between kelp kinds.
+    static boolean matches(Material type, Material found) {
+        if (found == type) return true;
+        return switch (type) {
+            case PUMPKIN_STEM -> found == Material.ATTACHED_PUMPKIN_STEM;
+            case MELON_STEM -> found == Material.ATTACHED_MELON_STEM;
+            case KELP, KELP_PLANT -> found == Material.KELP || found == Material.KELP_PLANT;
+            default -> false;
+        };
+    }
+
+    // Whether a block of type 'other' is a segment of a stack of 'type'; kelp mixes KELP and KELP_PLANT
+    static boolean sameStack(Material type, Material other) {
+        if (type == Material.KELP || type == Material.KELP_PLANT) {
+            return other == Material.KELP || other == Material.KELP_PLANT;
+        }
+        return other == type;
+    }
+}
@@ -0,0 +1,79 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.bukkit.block.data.Ageable;
+import org.bukkit.block.data.BlockData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// One crop in an async growth evaluation. The main thread captures the crop's state,
+// a worker fills in the outcome, and the main thread applies it if the crop is unchanged.
+final class CropUpdate {
+
+    // Written only if the block still has the type the worker saw
+    record BlockChange(int x, int y, int z, Material expected, BlockData data) {}
+
+    final long pos;
+    // The crop's slot in its WorldCrops when the update was captured
+    final int slot;
+    final Material type;
+    final long planted;
+    // The stem's fruit spots as they were when captured; a mask cleared since is not overwritten
+    final byte capturedFruitSpots;
+
+    // Captured state in, new state out
+    int height;
+    long lastFruitGrowth;
+    byte fruitSpots;
+
+    long nextDue;
+    // The sapling is due; tree generation needs the live world, so the main thread does it
+    boolean treeDue;
+    // The sapling is due but something is in the way of its tree
+    boolean treeBlocked;
+    // The block no longer holds the crop; the main thread checks the live block and evicts it
+    boolean gone;
+    private List<BlockChange> changes = Collections.emptyList();
+
+    CropUpdate(WorldCrops crops, int slot) {
+        this.pos = crops.pos(slot);
+        this.slot = slot;
+        this.type = crops.type(slot);
+        this.planted = crops.planted(slot);
+        this.height = crops.height(slot);
+        this.lastFruitGrowth = crops.lastFruitGrowth(slot);
+        this.capturedFruitSpots = crops.fruitSpots(slot);
+        this.fruitSpots = capturedFruitSpots;
+    }
+
+    void change(int x, int y, int z, Material expected, BlockData blockData) {
+        if (changes.isEmpty()) changes = new ArrayList<>(2);
+        changes.add(new BlockChange(x, y, z, expected, blockData));
+    }
+
+    List<BlockChange> changes() {
+        return changes;
+    }
+
+    // Writes the changes unless the world moved on since the worker looked; returns false
+    // (writing nothing) if any changed block is unloaded or no longer what it expected
+    boolean applyTo(WorldAccess world) {
+        for (BlockChange change : changes) {
+            if (!world.isLoaded(change.x() >> 4, change.z() >> 4)) return false;
+            if (world.getType(change.x(), change.y(), change.z()) != change.expected()) return false;
+        }
+
+        for (BlockChange change : changes) {
+            // Bonemeal may have got there first; never set an age back
+            if (change.data() instanceof Ageable next
+                    && world.getBlockData(change.x(), change.y(), change.z()) instanceof Ageable current
+                    && current.getAge() >= next.getAge()) {
+                continue;
+            }
+            world.setBlockData(change.x(), change.y(), change.z(), change.data());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,87 @@
+package com.Bit;
+
+import java.util.Arrays;
+
+// Binary min-heap of (due time, world, position) held in parallel arrays. The growth
+// pass pops only entries whose time has come, so its cost follows the number of crops
+// that change rather than the number tracked. Entries are never removed in place: a
+// crop that is rescheduled, removed or unloaded leaves its old entry behind, and the
+// pass drops it when it surfaces by comparing against WorldCrops.nextDue.
+final class DueQueue {
+
+    private long[] due = new long[64];
+    private long[] pos = new long[64];
+    private WorldCrops[] owner = new WorldCrops[64];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void push(long dueAt, WorldCrops world, long position) {
+        if (size == due.length) {
+            int capacity = size * 2;
+            due = Arrays.copyOf(due, capacity);
+            pos = Arrays.copyOf(pos, capacity);
+            owner = Arrays.copyOf(owner, capacity);
+        }
+
+        // Sift up
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (due[parent] <= dueAt) break;
+            move(parent, i);
+            i = parent;
+        }
+        due[i] = dueAt;
+        pos[i] = position;
+        owner[i] = world;
+    }
+
+    // Head accessors; only valid while the queue is not empty
+    long headDue() {
+        return due[0];
+    }
+
+    long headPos() {
+        return pos[0];
+    }
+
+    WorldCrops headOwner() {
+        return owner[0];
+    }
+
+    void removeHead() {
+        int last = --size;
+        long lastDue = due[last];
+        long lastPos = pos[last];
+        WorldCrops lastOwner = owner[last];
+        owner[last] = null;
+        if (last == 0) return;
+
+        // Sift the former last entry down from the root
+        int i = 0;
+        int half = last >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < last && due[child + 1] < due[child]) child++;
+            if (lastDue <= due[child]) break;
+            move(child, i);
+            i = child;
+        }
+        due[i] = lastDue;
+        pos[i] = lastPos;
+        owner[i] = lastOwner;
+    }
+
+    private void move(int from, int to) {
+        due[to] = due[from];
+        pos[to] = pos[from];
+        owner[to] = owner[from];
+    }
+}
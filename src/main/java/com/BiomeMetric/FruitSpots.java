@@ -0,0 +1,93 @@
+package com.Bit;
+
+import org.bukkit.Material;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Where a mature stem can put its fruit, kept per stem as a bitmask over its four sides so a stem
+// whose fruit is due need not read its neighbours and the ground under them every time. The low
+// four bits are sides free for fruit (air on suitable ground), the high four the sides holding a
+// fruit already. A side can never be both, so the two markers below are not valid masks.
+// Block events beside a stem or under one of its sides clear its mask.
+final class FruitSpots {
+
+    // Not worked out yet, or cleared by a block event
+    static final byte UNKNOWN = -1;
+    // Cleared while the stem was out with a worker, so what the worker works out is thrown away
+    static final byte STALE = -2;
+
+    // Set by scan when a side lies in a chunk the view does not hold; such a mask is not kept
+    static final int INCOMPLETE = 0x100;
+
+    private static final int[] DX = {-1, 1, 0, 0};
+    private static final int[] DZ = {0, 0, -1, 1};
+
+    private FruitSpots() {}
+
+    static boolean isKnown(byte spots) {
+        return spots != UNKNOWN && spots != STALE;
+    }
+
+    static int dx(int side) {
+        return DX[side];
+    }
+
+    static int dz(int side) {
+        return DZ[side];
+    }
+
+    static int fruits(int spots) {
+        return Integer.bitCount(spots & 0xF0);
+    }
+
+    static int free(int spots) {
+        return spots & 0x0F;
+    }
+
+    static int scan(BlockView view, int x, int y, int z, Material fruitType) {
+        int spots = 0;
+        for (int side = 0; side < 4; side++) {
+            int sideX = x + DX[side];
+            int sideZ = z + DZ[side];
+            // Neighbours across a chunk border are only read if that chunk is loaded
+            if (!view.isLoaded(sideX >> 4, sideZ >> 4)) {
+                spots |= INCOMPLETE;
+                continue;
+            }
+
+            Material found = view.getType(sideX, y, sideZ);
+            if (found == fruitType) {
+                spots |= 0x10 << side;
+            } else if (found == Material.AIR && isSuitableGround(view.getType(sideX, y - 1, sideZ))) {
+                spots |= 1 << side;
+            }
+        }
+        return spots;
+    }
+
+    // Records up to count fruits on free sides picked at random; returns the mask with them placed
+    static int place(CropUpdate crop, int spots, int x, int y, int z, Material fruitType, int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int free = free(spots);
+        for (int grown = 0; grown < count && free != 0; grown++) {
+            int pick = random.nextInt(Integer.bitCount(free));
+            int side = 0;
+            while ((free & (1 << side)) == 0 || pick-- > 0) {
+                side++;
+            }
+
+            crop.change(x + DX[side], y, z + DZ[side], Material.AIR, fruitType.createBlockData());
+            free &= ~(1 << side);
+            spots = (spots & ~(1 << side)) | 0x10 << side;
+        }
+        return spots;
+    }
+
+    private static boolean isSuitableGround(Material material) {
+        return switch (material) {
+            case DIRT, GRASS_BLOCK, FARMLAND, PODZOL, COARSE_DIRT,
+                 ROOTED_DIRT, MYCELIUM, MOSS_BLOCK -> true;
+            default -> false;
+        };
+    }
+}
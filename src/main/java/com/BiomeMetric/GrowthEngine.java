@@ -0,0 +1,199 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.bukkit.block.data.Ageable;
+import org.bukkit.block.data.BlockData;
+
+// The growth simulators. They read blocks only through a BlockView and record what should
+// change in the CropUpdate, so they can run on a worker thread against chunk snapshots.
+// Each returns when the crop next needs a look, or GrowthMath.NEVER if it is fully grown
+// or stuck (blocked, no room for fruit). Such a crop is dormant until something around
+// it changes. A crop whose block is something else entirely is flagged gone as well.
+final class GrowthEngine {
+
+    private final GrowthRules rules;
+
+    GrowthEngine(GrowthRules rules) {
+        this.rules = rules;
+    }
+
+    GrowthRules rules() {
+        return rules;
+    }
+
+    void simulate(BlockView view, CropUpdate crop, long now) {
+        int x = BlockKey.x(crop.pos);
+        int y = BlockKey.y(crop.pos);
+        int z = BlockKey.z(crop.pos);
+
+        crop.nextDue = switch (crop.type) {
+            case CACTUS, SUGAR_CANE, BAMBOO -> simulateStackingGrowth(view, crop, x, y, z, now);
+            case KELP, KELP_PLANT -> simulateKelpGrowth(view, crop, x, y, z, now);
+            case OAK_SAPLING, SPRUCE_SAPLING, BIRCH_SAPLING, JUNGLE_SAPLING,
+                 ACACIA_SAPLING, DARK_OAK_SAPLING, MANGROVE_PROPAGULE,
+                 CHERRY_SAPLING -> simulateSaplingGrowth(view, crop, x, y, z, now);
+            case MELON_STEM, PUMPKIN_STEM -> simulateStemGrowth(view, crop, x, y, z, now);
+            default -> simulateAgeableGrowth(view, crop, x, y, z, now);
+        };
+    }
+
+    void reconcile(BlockView view, CropUpdate crop) {
+        crop.gone = !CropTypes.matches(crop.type, view.getType(BlockKey.x(crop.pos), BlockKey.y(crop.pos), BlockKey.z(crop.pos)));
+    }
+
+    private static long gone(CropUpdate crop, Material found) {
+        crop.gone = !CropTypes.matches(crop.type, found);
+        return GrowthMath.NEVER;
+    }
+
+    private long simulateSaplingGrowth(BlockView view, CropUpdate crop, int x, int y, int z, long now) {
+        Material found = view.getType(x, y, z);
+        if (found != crop.type) return gone(crop, found);
+
+        long growTime = rules.forBiome(view.getBiome(x, y, z)).growTime(crop.type);
+
+        if (growTime <= 0) return GrowthMath.NEVER;
+
+        if (now - crop.planted < growTime) return crop.planted + growTime;
+
+        // Boxed in: the generator would only fail, so the main thread just backs the sapling off
+        if (!SaplingGrowth.hasRoom(view, x, y, z, crop.type)) {
+            crop.treeBlocked = true;
+            return GrowthMath.NEVER;
+        }
+
+        // The main thread generates the tree and decides what comes next
+        crop.treeDue = true;
+        return GrowthMath.NEVER;
+    }
+
+    private long simulateStackingGrowth(BlockView view, CropUpdate crop, int x, int y, int z, long now) {
+        Material found = view.getType(x, y, z);
+        if (found != crop.type) return gone(crop, found);
+
+        GrowthRules.BiomeRules biomeRules = rules.forBiome(view.getBiome(x, y, z));
+        return growStack(view, crop, x, y, z, biomeRules.growInterval(crop.type), biomeRules.maxHeight(crop.type), now);
+    }
+
+    private long simulateKelpGrowth(BlockView view, CropUpdate crop, int x, int y, int z, long now) {
+        // Kelp is tracked at its base, which turns into KELP_PLANT once something grows on it
+        Material found = view.getType(x, y, z);
+        if (!CropTypes.sameStack(Material.KELP, found)) return gone(crop, found);
+
+        GrowthRules.BiomeRules biomeRules = rules.forBiome(view.getBiome(x, y, z));
+        // Kelp has max natural height of 26
+        int maxHeight = Math.min(biomeRules.maxHeight(Material.KELP), 26);
+        return growStack(view, crop, x, y, z, biomeRules.growInterval(Material.KELP), maxHeight, now);
+    }
+
+    // Extends the stack from its recorded top towards the height due by now. The recorded
+    // height is kept in step by the block events, so a step reads the top segment and the
+    // space above it; only a stack changed behind our back gets walked to find its real top.
+    private long growStack(BlockView view, CropUpdate crop, int x, int baseY, int z,
+                           long growInterval, int maxHeight, long now) {
+        if (growInterval <= 0) return GrowthMath.NEVER;
+
+        boolean kelp = crop.type == Material.KELP || crop.type == Material.KELP_PLANT;
+        Material space = kelp ? Material.WATER : Material.AIR;
+        int targetHeight = GrowthMath.targetHeight(now - crop.planted, growInterval, maxHeight);
+
+        if (targetHeight > crop.height) {
+            int topY = baseY + Math.max(1, crop.height) - 1;
+            if (topY > baseY && !CropTypes.sameStack(crop.type, view.getType(x, topY, z))) {
+                // Cut down without an event we saw: the stack ends below its first gap
+                topY = baseY;
+                while (topY - baseY + 1 < crop.height && CropTypes.sameStack(crop.type, view.getType(x, topY + 1, z))) {
+                    topY++;
+                }
+            }
+            crop.height = topY - baseY + 1;
+
+            while (crop.height < targetHeight) {
+                Material above = view.getType(x, topY + 1, z);
+                if (CropTypes.sameStack(crop.type, above)) {
+                    // Grown by something else; count it rather than place it
+                    topY++;
+                    crop.height++;
+                    continue;
+                }
+                if (above != space) break;
+
+                Material placed = !kelp ? crop.type : crop.height == 1 ? Material.KELP : Material.KELP_PLANT;
+                crop.change(x, topY + 1, z, space, placed.createBlockData());
+                topY++;
+                crop.height++;
+            }
+
+            if (crop.height < targetHeight) return GrowthMath.NEVER;
+        }
+        return GrowthMath.nextHeightAt(crop.planted, growInterval, crop.height, maxHeight);
+    }
+
+    private long simulateAgeableGrowth(BlockView view, CropUpdate crop, int x, int y, int z, long now) {
+        BlockData blockData = view.getBlockData(x, y, z);
+        if (blockData.getMaterial() != crop.type || !(blockData instanceof Ageable ageable)) return gone(crop, blockData.getMaterial());
+
+        long growTime = rules.forBiome(view.getBiome(x, y, z)).growTime(crop.type);
+
+        if (growTime <= 0) return GrowthMath.NEVER;
+
+        int maxAge = ageable.getMaximumAge();
+        int newAge = GrowthMath.targetAge(now - crop.planted, growTime, maxAge);
+
+        if (newAge > ageable.getAge()) {
+            ageable.setAge(newAge);
+            crop.change(x, y, z, crop.type, ageable);
+        }
+        return GrowthMath.nextAgeAt(crop.planted, growTime, ageable.getAge(), maxAge);
+    }
+
+    private long simulateStemGrowth(BlockView view, CropUpdate crop, int x, int y, int z, long now) {
+        BlockData blockData = view.getBlockData(x, y, z);
+        if (blockData.getMaterial() != crop.type || !(blockData instanceof Ageable ageable)) return gone(crop, blockData.getMaterial());
+
+        GrowthRules.BiomeRules biomeRules = rules.forBiome(view.getBiome(x, y, z));
+        long growTime = biomeRules.growTime(crop.type);
+
+        if (growTime <= 0) return GrowthMath.NEVER;
+
+        int maxAge = ageable.getMaximumAge();
+        int newAge = GrowthMath.targetAge(now - crop.planted, growTime, maxAge);
+
+        if (newAge > ageable.getAge()) {
+            ageable.setAge(newAge);
+            crop.change(x, y, z, crop.type, ageable);
+        }
+
+        if (ageable.getAge() < maxAge) {
+            return GrowthMath.nextAgeAt(crop.planted, growTime, ageable.getAge(), maxAge);
+        }
+
+        long fruitInterval = biomeRules.fruitInterval(crop.type);
+        if (fruitInterval <= 0) fruitInterval = 1000L;
+
+        Material fruitType = crop.type == Material.PUMPKIN_STEM ? Material.PUMPKIN : Material.MELON;
+        // Its sides are read once and then kept, until a block event around the stem clears them
+        int spots = FruitSpots.isKnown(crop.fruitSpots) ? crop.fruitSpots & 0xFF : FruitSpots.scan(view, x, y, z, fruitType);
+        int existingFruits = FruitSpots.fruits(spots);
+
+        long lastFruitGrowth = crop.lastFruitGrowth > 0 ? crop.lastFruitGrowth : crop.planted + growTime;
+
+        // After a long absence several fruits may be due at once
+        int fruitsDue = Math.min(GrowthMath.fruitsDue(now - lastFruitGrowth, fruitInterval), 4 - existingFruits);
+
+        long nextDue;
+        if (fruitsDue > 0 && FruitSpots.free(spots) != 0) {
+            spots = FruitSpots.place(crop, spots, x, y, z, fruitType, fruitsDue);
+            crop.lastFruitGrowth = now;
+            nextDue = now + fruitInterval;
+        } else if (fruitsDue > 0 || existingFruits >= 4) {
+            // No room, or surrounded: the stem waits for a harvest to free a side
+            nextDue = GrowthMath.NEVER;
+        } else {
+            nextDue = lastFruitGrowth + fruitInterval;
+        }
+
+        crop.fruitSpots = (spots & FruitSpots.INCOMPLETE) != 0 ? FruitSpots.UNKNOWN : (byte) spots;
+        return nextDue;
+    }
+}
@@ -0,0 +1,50 @@
+package com.Bit;
+
+// Closed-form growth targets. Every simulator derives its state from elapsed time
+// alone, so a crop that was unloaded for days lands on the same result in one step
+// as it would after thousands of periodic passes.
+final class GrowthMath {
+
+    // Next-due time of a crop that will not change again on its own (fully grown or stuck)
+    static final long NEVER = Long.MAX_VALUE;
+
+    private GrowthMath() {}
+
+    // Integer arithmetic so targetAge and nextAgeAt agree exactly at stage boundaries
+    static int targetAge(long elapsed, long growTime, int maxAge) {
+        if (elapsed >= growTime) return maxAge;
+        if (elapsed <= 0) return 0;
+        return (int) (elapsed * (maxAge + 1) / growTime);
+    }
+
+    // When targetAge first exceeds age
+    static long nextAgeAt(long planted, long growTime, int age, int maxAge) {
+        if (age >= maxAge) return NEVER;
+        long stages = maxAge + 1;
+        return planted + ((age + 1) * growTime + stages - 1) / stages;
+    }
+
+    // A planting time that puts a crop found at 'age' at the start of that stage, for crops found already growing
+    static long plantedAt(long now, long growTime, int age, int maxAge) {
+        if (growTime <= 0 || age <= 0) return now;
+        long stages = maxAge + 1;
+        return now - (Math.min(age, maxAge) * growTime + stages - 1) / stages;
+    }
+
+    // A planting time ahead of the clock (a clock set back) leaves the crop as planted
+    static int targetHeight(long elapsed, long growInterval, int maxHeight) {
+        if (elapsed <= 0) return 1;
+        return (int) Math.min(elapsed / growInterval + 1, maxHeight);
+    }
+
+    // When targetHeight first exceeds height
+    static long nextHeightAt(long planted, long growInterval, int height, int maxHeight) {
+        if (height >= maxHeight) return NEVER;
+        return planted + height * growInterval;
+    }
+
+    static int fruitsDue(long sinceLastFruit, long fruitInterval) {
+        if (sinceLastFruit < fruitInterval) return 0;
+        return (int) Math.min(sinceLastFruit / fruitInterval, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,241 @@
+package com.Bit;
+
+import java.util.List;
+import java.util.Locale;
+
+// Counters behind /biomemetric stats. Pass figures belong to the thread owning their shard
+// (the main thread unless the server is region-threaded); save figures also come from the
+// background writer, so those methods are synchronized. Crops applied between passes
+// (chunk catch-up) count towards the next pass that finishes.
+final class GrowthMetrics {
+
+    // Exclusive upper bounds of the pass-time histogram buckets; one more bucket holds the rest
+    private static final long[] BUCKET_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000};
+
+    // Running pass
+    private GrowthPassEvent passEvent;
+    private long mainThreadNanos;
+    private int scanned;
+    private int advanced;
+    private int skipped;
+    private int deferred;
+    private int blockWrites;
+    private int unloadedSkips;
+
+    // Last finished pass and totals
+    private final long[] histogram = new long[BUCKET_MILLIS.length + 1];
+    private long passes;
+    private int lastTicks;
+    private long lastWallMillis;
+    private long lastMainThreadNanos;
+    private int lastScanned;
+    private int lastAdvanced;
+    private int lastSkipped;
+    private int lastDeferred;
+    private int lastBlockWrites;
+    private int lastUnloadedSkips;
+    private long totalScanned;
+    private long totalAdvanced;
+    private long totalSkipped;
+    private long totalDeferred;
+    private long totalBlockWrites;
+    private long totalUnloadedSkips;
+
+    // Crops dropped because their block was something else
+    private long evicted;
+    private long reconcileEvicted;
+    private long chunksReconciled;
+    // Untracked crops found by the background discovery scan
+    private long discovered;
+    private long chunksDiscovered;
+
+    // Saplings
+    private long treesGrown;
+    private long treesFailed;
+    private long saplingsBoxedIn;
+
+    // Saves
+    private long saves;
+    private long lastSaveNanos;
+    private long maxSaveNanos;
+    private long totalSaveNanos;
+    private long lastSaveBytes;
+    private long totalSaveBytes;
+    private long totalSaveRecords;
+
+    // Starting again while a pass runs just extends it, as GrowthPass.begin does
+    void beginPass() {
+        if (passEvent != null) return;
+        passEvent = new GrowthPassEvent();
+        passEvent.begin();
+    }
+
+    void slice(long nanos) {
+        mainThreadNanos += nanos;
+    }
+
+    void scanned(int count) {
+        scanned += count;
+    }
+
+    void advanced() {
+        advanced++;
+    }
+
+    void skipped() {
+        skipped++;
+    }
+
+    void deferred() {
+        deferred++;
+    }
+
+    void blockWrites(int count) {
+        blockWrites += count;
+    }
+
+    void skippedUnloaded() {
+        unloadedSkips++;
+    }
+
+    void evicted(boolean byReconciler) {
+        evicted++;
+        if (byReconciler) reconcileEvicted++;
+    }
+
+    void reconciled() {
+        chunksReconciled++;
+    }
+
+    void discovered(int crops) {
+        discovered += crops;
+        chunksDiscovered++;
+    }
+
+    void treeGrown(boolean grown) {
+        if (grown) treesGrown++;
+        else treesFailed++;
+    }
+
+    void saplingBoxedIn() {
+        saplingsBoxedIn++;
+    }
+
+    void finishPass(int ticks, long wallMillis) {
+        passes++;
+        histogram[bucketOf(mainThreadNanos / 1_000_000L)]++;
+        lastTicks = ticks;
+        lastWallMillis = wallMillis;
+        lastMainThreadNanos = mainThreadNanos;
+        lastScanned = scanned;
+        lastAdvanced = advanced;
+        lastSkipped = skipped;
+        lastDeferred = deferred;
+        lastBlockWrites = blockWrites;
+        lastUnloadedSkips = unloadedSkips;
+        totalScanned += scanned;
+        totalAdvanced += advanced;
+        totalSkipped += skipped;
+        totalDeferred += deferred;
+        totalBlockWrites += blockWrites;
+        totalUnloadedSkips += unloadedSkips;
+
+        GrowthPassEvent event = passEvent;
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.ticks = ticks;
+                event.mainThreadNanos = mainThreadNanos;
+                event.scanned = scanned;
+                event.advanced = advanced;
+                event.skipped = skipped;
+                event.deferred = deferred;
+                event.blockWrites = blockWrites;
+                event.unloadedSkips = unloadedSkips;
+                event.commit();
+            }
+        }
+
+        passEvent = null;
+        mainThreadNanos = 0;
+        scanned = 0;
+        advanced = 0;
+        skipped = 0;
+        deferred = 0;
+        blockWrites = 0;
+        unloadedSkips = 0;
+    }
+
+    long lastMainThreadNanos() {
+        return lastMainThreadNanos;
+    }
+
+    synchronized void recordSave(int records, long bytes, long nanos) {
+        saves++;
+        lastSaveNanos = nanos;
+        maxSaveNanos = Math.max(maxSaveNanos, nanos);
+        totalSaveNanos += nanos;
+        lastSaveBytes = bytes;
+        totalSaveBytes += bytes;
+        totalSaveRecords += records;
+    }
+
+    // Region-threaded servers keep growth counters per shard and save counters once for the plugin
+    void describeGrowth(List<String> lines) {
+        lines.add(String.format(Locale.ROOT, "Passes: %,d, last took %d ticks, %,d ms wall, %.2f ms on the main thread",
+                passes, lastTicks, lastWallMillis, lastMainThreadNanos / 1e6));
+        lines.add(String.format(Locale.ROOT, "Last pass: %,d scanned, %,d advanced, %,d skipped, %,d deferred, %,d block writes, %,d unloaded chunks skipped",
+                lastScanned, lastAdvanced, lastSkipped, lastDeferred, lastBlockWrites, lastUnloadedSkips));
+        lines.add(String.format(Locale.ROOT, "Since start: %,d scanned, %,d advanced, %,d skipped, %,d deferred, %,d block writes, %,d unloaded chunks skipped",
+                totalScanned, totalAdvanced, totalSkipped, totalDeferred, totalBlockWrites, totalUnloadedSkips));
+
+        StringBuilder buckets = new StringBuilder("Main-thread time per pass:");
+        String separator = " ";
+        for (int i = 0; i < histogram.length; i++) {
+            if (histogram[i] == 0) continue;
+            buckets.append(separator).append(bucketLabel(i)).append(": ").append(histogram[i]);
+            separator = ", ";
+        }
+        if (passes > 0) {
+            buckets.append(" (p50 ").append(percentileLabel(0.50)).append(", p99 ").append(percentileLabel(0.99)).append(')');
+        }
+        lines.add(buckets.toString());
+        lines.add(String.format(Locale.ROOT, "Evicted: %,d crops whose block was gone, %,d of them found by the background check of %,d chunks",
+                evicted, reconcileEvicted, chunksReconciled));
+        lines.add(String.format(Locale.ROOT, "Discovered: %,d untracked crops in %,d chunk scans", discovered, chunksDiscovered));
+        lines.add(String.format(Locale.ROOT, "Trees: %,d grown, %,d failed to generate, %,d due saplings found boxed in and not tried",
+                treesGrown, treesFailed, saplingsBoxedIn));
+    }
+
+    void describeSaves(List<String> lines) {
+        synchronized (this) {
+            lines.add(String.format(Locale.ROOT, "Saves: %,d, last %.1f ms / %,d bytes, average %.1f ms, max %.1f ms, %,d records and %,d bytes written",
+                    saves, lastSaveNanos / 1e6, lastSaveBytes, saves == 0 ? 0 : totalSaveNanos / 1e6 / saves,
+                    maxSaveNanos / 1e6, totalSaveRecords, totalSaveBytes));
+        }
+    }
+
+    // Percentiles come from the histogram, so they are only as fine as its buckets
+    private String percentileLabel(double fraction) {
+        long rank = (long) Math.ceil(fraction * passes);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank) return bucketLabel(i);
+        }
+        return bucketLabel(histogram.length - 1);
+    }
+
+    private static String bucketLabel(int bucket) {
+        return bucket < BUCKET_MILLIS.length
+                ? "<" + BUCKET_MILLIS[bucket] + " ms"
+                : ">=" + BUCKET_MILLIS[BUCKET_MILLIS.length - 1] + " ms";
+    }
+
+    private static int bucketOf(long millis) {
+        for (int i = 0; i < BUCKET_MILLIS.length; i++) {
+            if (millis < BUCKET_MILLIS[i]) return i;
+        }
+        return BUCKET_MILLIS.length;
+    }
+}
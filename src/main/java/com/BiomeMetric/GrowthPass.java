@@ -0,0 +1,100 @@
+package com.Bit;
+
+// State of the time-sliced growth pass. A pass starts every update-interval and covers
+// the crops due at that moment; each tick works on it for at most the tick budget and
+// leaves the rest for the next tick, so a large backlog spreads out instead of spiking.
+final class GrowthPass {
+
+    private long budgetNanos;
+
+    // Crops due at or before the cutoff belong to the running pass; -1 when idle
+    private long cutoff = -1;
+    private long startedAt;
+    private int ticks;
+    private int processed;
+
+    private int lastTicks;
+    private int lastProcessed;
+    private long lastDurationMillis;
+    // Passes that were still running when the next one was due
+    private int overruns;
+
+    GrowthPass(long budgetMillis) {
+        budget(budgetMillis);
+    }
+
+    void budget(long budgetMillis) {
+        this.budgetNanos = Math.max(1L, budgetMillis) * 1_000_000L;
+    }
+
+    long budgetMillis() {
+        return budgetNanos / 1_000_000L;
+    }
+
+    // A pass that has not caught up yet just extends its cutoff
+    void begin(long now) {
+        if (running()) {
+            overruns++;
+        } else {
+            startedAt = now;
+            ticks = 0;
+            processed = 0;
+        }
+        cutoff = now;
+    }
+
+    boolean running() {
+        return cutoff >= 0;
+    }
+
+    long cutoff() {
+        return cutoff;
+    }
+
+    // Starts this tick's slice and returns its System.nanoTime() deadline
+    long startSlice() {
+        ticks++;
+        return System.nanoTime() + budgetNanos;
+    }
+
+    void processed(int count) {
+        processed += count;
+    }
+
+    void finish(long now) {
+        lastTicks = ticks;
+        lastProcessed = processed;
+        lastDurationMillis = now - startedAt;
+        cutoff = -1;
+    }
+
+    // How long the oldest crop still waiting in the running pass has been due
+    long behindMillis(DueQueue queue, long now) {
+        if (!running() || queue.isEmpty() || queue.headDue() > cutoff) return 0;
+        return Math.max(0, now - queue.headDue());
+    }
+
+    int ticks() {
+        return ticks;
+    }
+
+    int processed() {
+        return processed;
+    }
+
+    int lastTicks() {
+        return lastTicks;
+    }
+
+    int lastProcessed() {
+        return lastProcessed;
+    }
+
+    long lastDurationMillis() {
+        return lastDurationMillis;
+    }
+
+    int overruns() {
+        return overruns;
+    }
+}
@@ -0,0 +1,38 @@
+package com.Bit;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// One growth pass from its cutoff to its last applied crop; it spans several ticks when the budget runs out
+@Name("com.Bit.GrowthPass")
+@Label("Growth Pass")
+@Category("BiomeMetric")
+@Description("A growth pass over the crops due at its start")
+final class GrowthPassEvent extends jdk.jfr.Event {
+
+    @Label("Ticks")
+    int ticks;
+
+    @Label("Main Thread Nanos")
+    long mainThreadNanos;
+
+    @Label("Scanned")
+    int scanned;
+
+    @Label("Advanced")
+    int advanced;
+
+    @Label("Skipped")
+    int skipped;
+
+    @Label("Deferred")
+    int deferred;
+
+    @Label("Block Writes")
+    int blockWrites;
+
+    @Label("Unloaded Chunks Skipped")
+    int unloadedSkips;
+}
@@ -0,0 +1,394 @@
+package com.Bit;
+
+import org.bukkit.Material;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// The growth path of a shard, on the thread that owns it. Due crops are popped in due order and
+// grouped into one job per chunk together with a snapshot of it, the workers evaluate the jobs,
+// and what comes back is applied if the world still matches what the worker saw. The server is
+// only reached through the host and its WorldAccess worlds, so the plugin and the headless load
+// driver run this same code.
+final class GrowthPipeline {
+
+    // What the pipeline needs from the server it runs on
+    interface Host {
+
+        // The world as the shard's thread sees it, writing through the shard's batch; null if not loaded
+        WorldAccess world(GrowthShard shard, String worldName);
+
+        // The crop's record changed and has to be saved
+        void markDirty(WorldCrops crops, int slot);
+
+        // Call after the crop is gone from its shard
+        void markRemoved(WorldCrops crops, long pos);
+
+        long intervalMillis();
+
+        // Null when priority tiers are off
+        ProximityTiers tiers();
+
+        int treesPerTick();
+    }
+
+    // Next-due time of a crop whose chunk job is with the workers
+    static final long IN_FLIGHT = Long.MIN_VALUE;
+
+    private final Host host;
+    private final GrowthWorkers workers;
+    // Swapped whole on reload; jobs already with the workers keep the engine they were given
+    private final Supplier<GrowthEngine> engine;
+    private final Clock clock;
+
+    GrowthPipeline(Host host, GrowthWorkers workers, Supplier<GrowthEngine> engine, Clock clock) {
+        this.host = host;
+        this.workers = workers;
+        this.engine = engine;
+        this.clock = clock;
+    }
+
+    // One tick of the pipeline: apply what the workers finished, then snapshot the chunks of
+    // the next due crops and hand them out. Both halves stop once the deadline has passed.
+    void slice(GrowthShard shard, long deadline) {
+        GrowthSliceEvent event = new GrowthSliceEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long now = clock.millis();
+
+        int applied = applyFinishedJobs(shard, now, deadline);
+        shard.pass.processed(applied);
+
+        int dispatched = 0;
+        boolean passDone = false;
+        if (shard.pass.running()) {
+            long cutoff = shard.pass.cutoff();
+            dispatched = dispatchDueCrops(shard, cutoff, now, deadline);
+            passDone = shard.inFlight == 0 && (shard.dueQueue.isEmpty() || shard.dueQueue.headDue() > cutoff);
+        }
+
+        shard.metrics.slice(System.nanoTime() - start);
+        if (passDone) {
+            shard.pass.finish(clock.millis());
+            shard.metrics.finishPass(shard.pass.lastTicks(), shard.pass.lastDurationMillis());
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.applied = applied;
+            event.dispatched = dispatched;
+            event.inFlight = shard.inFlight;
+            event.commit();
+        }
+    }
+
+    // Pops due crops in due order and groups them into one job per chunk; returns crops handed out
+    private int dispatchDueCrops(GrowthShard shard, long cutoff, long now, long deadline) {
+        DueQueue dueQueue = shard.dueQueue;
+        Map<WorldCrops, LongHashMap<ChunkJob>> jobs = new HashMap<>();
+        Map<WorldCrops, WorldAccess> worlds = new HashMap<>();
+        int popped = 0;
+        int dispatched = 0;
+
+        while (!dueQueue.isEmpty() && dueQueue.headDue() <= cutoff) {
+            // Always make some progress; after that check the clock every few crops
+            if (popped > 0 && (popped & 15) == 0 && System.nanoTime() >= deadline) break;
+            popped++;
+
+            long due = dueQueue.headDue();
+            long pos = dueQueue.headPos();
+            WorldCrops worldCrops = dueQueue.headOwner();
+            dueQueue.removeHead();
+
+            // Stale entry: the crop is gone, was rescheduled, or its chunk unloaded (catch-up re-arms it)
+            int slot = worldCrops.activeSlotOf(pos);
+            WorldAccess world = slot < 0 || worldCrops.nextDue(slot) != due
+                    ? null
+                    : worlds.computeIfAbsent(worldCrops, crops -> host.world(shard, crops.worldName()));
+            if (world == null) {
+                shard.metrics.skipped();
+                continue;
+            }
+
+            LongHashMap<ChunkJob> worldJobs = jobs.computeIfAbsent(worldCrops, key -> new LongHashMap<>());
+            long chunkKey = WorldCrops.chunkKeyOf(pos);
+            ChunkJob job = worldJobs.get(chunkKey);
+            if (job == null) {
+                job = newJob(shard, world, worldCrops, BlockKey.x(pos) >> 4, BlockKey.z(pos) >> 4);
+                if (job == null) continue;
+                worldJobs.put(chunkKey, job);
+            }
+            addToJob(job, world, slot);
+            dispatched++;
+        }
+
+        for (LongHashMap<ChunkJob> worldJobs : jobs.values()) {
+            for (int slot = 0; slot < worldJobs.capacity(); slot++) {
+                ChunkJob job = worldJobs.valueAt(slot);
+                if (job != null) submit(job, now);
+            }
+        }
+        return dispatched;
+    }
+
+    // Null if the chunk unloaded without the plugin hearing of it. Its crops are parked rather than the
+    // chunk loaded for them, so the rest of its queue entries go stale and its next load catches it up.
+    private ChunkJob newJob(GrowthShard shard, WorldAccess world, WorldCrops worldCrops, int chunkX, int chunkZ) {
+        if (!world.isLoaded(chunkX, chunkZ)) {
+            worldCrops.park(chunkX, chunkZ);
+            shard.metrics.skippedUnloaded();
+            return null;
+        }
+        SnapshotView view = new SnapshotView(world.minHeight(), world.maxHeight());
+        view.add(world.snapshot(chunkX, chunkZ, true));
+        return new ChunkJob(shard, worldCrops, chunkX, chunkZ, view, false);
+    }
+
+    private void addToJob(ChunkJob job, WorldAccess world, int slot) {
+        // A mask cleared while the stem was last out is plain unknown again, so only a clear from now on counts
+        if (job.world.fruitSpots(slot) == FruitSpots.STALE) job.world.setFruitSpots(slot, FruitSpots.UNKNOWN);
+        CropUpdate update = new CropUpdate(job.world, slot);
+        job.crops.add(update);
+        // Marks the crop as handed out; any queue entry left for it is now stale
+        job.world.setNextDue(slot, IN_FLIGHT);
+
+        // Stems on a chunk edge place fruit next door, so the worker needs that chunk too if it is loaded
+        if (update.type == Material.MELON_STEM || update.type == Material.PUMPKIN_STEM) {
+            int x = BlockKey.x(update.pos);
+            int z = BlockKey.z(update.pos);
+            snapshotNeighbour(job, world, (x - 1) >> 4, z >> 4);
+            snapshotNeighbour(job, world, (x + 1) >> 4, z >> 4);
+            snapshotNeighbour(job, world, x >> 4, (z - 1) >> 4);
+            snapshotNeighbour(job, world, x >> 4, (z + 1) >> 4);
+        }
+    }
+
+    // Region backend: a neighbour owned by another region counts as unloaded, so no fruit is placed there
+    private void snapshotNeighbour(ChunkJob job, WorldAccess world, int chunkX, int chunkZ) {
+        if (job.view.isLoaded(chunkX, chunkZ) || !world.isLoaded(chunkX, chunkZ)) return;
+        job.view.add(world.snapshot(chunkX, chunkZ, true));
+    }
+
+    private void submit(ChunkJob job, long now) {
+        job.shard.inFlight++;
+        workers.submit(job, engine.get(), now);
+    }
+
+    // Offline catch-up for a chunk that just loaded. Targets are closed-form in elapsed time,
+    // so one job brings every crop straight to the age, height and fruit count it would have
+    // reached had the chunk stayed loaded, applied as a single batch of block writes.
+    void catchUp(GrowthShard shard, WorldCrops worldCrops, WorldCrops.ChunkBucket bucket) {
+        WorldAccess world = host.world(shard, worldCrops.worldName());
+        if (world == null || !bucket.isActive()) return;
+
+        ChunkJob job = newJob(shard, world, worldCrops, bucket.chunkX, bucket.chunkZ);
+        if (job == null) return;
+        for (int i = 0; i < bucket.size(); i++) {
+            addToJob(job, world, bucket.slotAt(i));
+        }
+        submit(job, clock.millis());
+    }
+
+    // Has the workers check every crop of a loaded chunk is still there
+    void reconcile(GrowthShard shard, WorldCrops crops, WorldCrops.ChunkBucket bucket) {
+        WorldAccess world = host.world(shard, crops.worldName());
+        if (world == null || bucket.isEmpty() || !world.isLoaded(bucket.chunkX, bucket.chunkZ)) return;
+
+        SnapshotView view = new SnapshotView(world.minHeight(), world.maxHeight());
+        view.add(world.snapshot(bucket.chunkX, bucket.chunkZ, false));
+        ChunkJob job = new ChunkJob(shard, crops, bucket.chunkX, bucket.chunkZ, view, true);
+        for (int i = 0; i < bucket.size(); i++) {
+            job.crops.add(new CropUpdate(crops, bucket.slotAt(i)));
+        }
+
+        shard.reconciling++;
+        shard.metrics.reconciled();
+        workers.submit(job, engine.get(), clock.millis());
+    }
+
+    // Applies finished jobs a chunk at a time until the budget is spent; returns crops applied
+    private int applyFinishedJobs(GrowthShard shard, long now, long deadline) {
+        int applied = 0;
+        ChunkJob job;
+        while ((applied == 0 || System.nanoTime() < deadline) && (job = shard.finished.poll()) != null) {
+            if (job.reconcile) {
+                shard.reconciling--;
+                applyReconcile(job);
+                continue;
+            }
+            shard.inFlight--;
+            applied += applyJob(job, now);
+        }
+        return applied;
+    }
+
+    private int applyJob(ChunkJob job, long now) {
+        GrowthShard shard = job.shard;
+        WorldAccess world = host.world(shard, job.world.worldName());
+        int applied = 0;
+        shard.metrics.scanned(job.crops.size());
+
+        for (CropUpdate update : job.crops) {
+            // Broken, replanted, unloaded or rescheduled while the worker ran; nothing to apply
+            int slot = update.slot;
+            if (world == null || job.world.activeSlotOf(update.pos) != slot || job.world.nextDue(slot) != IN_FLIGHT) {
+                shard.metrics.skipped();
+                continue;
+            }
+
+            long nextDue;
+            if (job.failed) {
+                shard.metrics.skipped();
+                nextDue = retryAt(now);
+            } else if (update.gone) {
+                if (evictIfGone(shard, world, job.world, update.pos, false)) continue;
+                // The snapshot was behind and the crop is still there
+                nextDue = retryAt(now);
+            } else {
+                nextDue = applyUpdate(shard, world, job.world, update, now);
+                if (nextDue == IN_FLIGHT) {
+                    // Waiting for its tree; the tree queue schedules it again if it stays a sapling
+                    applied++;
+                    continue;
+                }
+            }
+            // Never hand back something due in this same pass
+            schedule(shard, job.world, update.pos, slot, tierDue(shard, job.world, slot, nextDue > now ? nextDue : retryAt(now), now));
+            applied++;
+        }
+
+        if (world != null) {
+            shard.metrics.blockWrites(world.applyWrites());
+        }
+        return applied;
+    }
+
+    // Only crops the worker saw on another block are read live, and evicted if that holds
+    private void applyReconcile(ChunkJob job) {
+        WorldAccess world = host.world(job.shard, job.world.worldName());
+        if (world == null || job.failed) return;
+
+        for (CropUpdate update : job.crops) {
+            if (update.gone && job.world.activeSlotOf(update.pos) == update.slot) {
+                evictIfGone(job.shard, world, job.world, update.pos, true);
+            }
+        }
+    }
+
+    private long applyUpdate(GrowthShard shard, WorldAccess world, WorldCrops crops, CropUpdate update, long now) {
+        // The world may have moved on since the snapshot; a crop whose blocks changed is looked at again later
+        int slot = update.slot;
+        if (!update.applyTo(world)) {
+            // So are the stem's sides
+            crops.setFruitSpots(slot, FruitSpots.UNKNOWN);
+            shard.metrics.skipped();
+            return retryAt(now);
+        }
+
+        // Kept unless a block event cleared the mask while the worker had the stem
+        crops.setFruitSpots(slot, crops.fruitSpots(slot) == update.capturedFruitSpots ? update.fruitSpots : FruitSpots.UNKNOWN);
+        boolean advanced = !update.changes().isEmpty();
+        if (update.height != crops.height(slot) || update.lastFruitGrowth != crops.lastFruitGrowth(slot)) {
+            crops.setHeight(slot, update.height);
+            crops.setLastFruitGrowth(slot, update.lastFruitGrowth);
+            host.markDirty(crops, slot);
+            advanced = true;
+        }
+        if (advanced) shard.metrics.advanced();
+
+        if (update.treeBlocked) {
+            shard.metrics.saplingBoxedIn();
+            return shard.saplings.backoff(crops, update.pos, now, host.intervalMillis());
+        }
+        if (!update.treeDue) return update.nextDue;
+
+        shard.saplings.queue(crops, update.pos, update.type);
+        return IN_FLIGHT;
+    }
+
+    // A tree can write hundreds of blocks, so only a few are generated per tick; stale entries are free
+    void growTrees(GrowthShard shard, long now) {
+        int limit = host.treesPerTick();
+        int generated = 0;
+        SaplingGrowth.QueuedTree tree;
+        while (generated < limit && (tree = shard.saplings.poll()) != null) {
+            if (growTree(shard, tree, now)) generated++;
+        }
+    }
+
+    // Tree generation needs the live world, so a due sapling waits in its shard's queue after the
+    // worker has looked at it. Returns whether the generator was run.
+    private boolean growTree(GrowthShard shard, SaplingGrowth.QueuedTree tree, long now) {
+        WorldCrops crops = tree.crops();
+        long pos = tree.pos();
+        int slot = crops.activeSlotOf(pos);
+        // Its chunk unloaded, or it was removed or rescheduled while it waited
+        if (slot < 0 || crops.nextDue(slot) != IN_FLIGHT) return false;
+
+        WorldAccess world = host.world(shard, crops.worldName());
+        if (world == null) return false;
+
+        WorldAccess.TreeResult result = world.growTree(BlockKey.x(pos), BlockKey.y(pos), BlockKey.z(pos), tree.type());
+        if (result == WorldAccess.TreeResult.GROWN) {
+            // The sapling is a tree now, so it is no longer tracked
+            shard.metrics.treeGrown(true);
+            shard.saplings.forget(crops, pos);
+            crops.remove(pos);
+            host.markRemoved(crops, pos);
+            return true;
+        }
+
+        long due = retryAt(now);
+        if (result == WorldAccess.TreeResult.FAILED) {
+            // Back off; something changing nearby brings it forward
+            shard.metrics.treeGrown(false);
+            due = shard.saplings.backoff(crops, pos, now, host.intervalMillis());
+        }
+        schedule(shard, crops, pos, slot, tierDue(shard, crops, slot, due, now));
+        return result == WorldAccess.TreeResult.FAILED;
+    }
+
+    // Stops tracking a crop whose block holds something else now; returns true if it did
+    boolean evictIfGone(GrowthShard shard, WorldAccess world, WorldCrops crops, long pos, boolean byReconciler) {
+        int slot = crops.activeSlotOf(pos);
+        if (slot < 0) return false;
+
+        if (CropTypes.matches(crops.type(slot), world.getType(BlockKey.x(pos), BlockKey.y(pos), BlockKey.z(pos)))) return false;
+
+        crops.remove(pos);
+        shard.saplings.forget(crops, pos);
+        host.markRemoved(crops, pos);
+        shard.metrics.evicted(byReconciler);
+        return true;
+    }
+
+    // With nobody near, a crop is not looked at again before the far cadence comes round
+    private long tierDue(GrowthShard shard, WorldCrops worldCrops, int slot, long due, long now) {
+        worldCrops.setDeferred(slot, false);
+        ProximityTiers tiers = host.tiers();
+        if (tiers == null || due == GrowthMath.NEVER || tiers.isNear(worldCrops.worldName(), WorldCrops.chunkKeyOf(worldCrops.pos(slot)))) {
+            return due;
+        }
+
+        long farDue = now + tiers.farIntervalMillis();
+        if (due >= farDue) return due;
+
+        worldCrops.setDeferred(slot, true);
+        shard.metrics.deferred();
+        return farDue;
+    }
+
+    // The crop belongs to the shard whose queue it came out of, which is already ticking
+    private static void schedule(GrowthShard shard, WorldCrops worldCrops, long pos, int slot, long due) {
+        worldCrops.setNextDue(slot, due);
+        if (due != GrowthMath.NEVER) {
+            shard.dueQueue.push(due, worldCrops, pos);
+        }
+    }
+
+    // For crops that could not be evaluated this time (snapshot out of date, neighbours unloaded): look again next pass
+    private long retryAt(long now) {
+        return now + host.intervalMillis();
+    }
+}
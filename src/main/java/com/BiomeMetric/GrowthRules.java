@@ -0,0 +1,231 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.bukkit.block.Biome;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// biomes.yml compiled into per-biome rule rows indexed by crop type id. The hot path
+// resolves a biome by its registry ordinal and a crop by CropTypes.id, so a lookup is
+// two array reads with no string building or config access. Durations are in millis;
+// zero or negative means the crop does not grow in that biome.
+final class GrowthRules {
+
+    static final class BiomeRules {
+        final String group;
+        private final long[] growTime;
+        private final long[] growInterval;
+        private final long[] fruitInterval;
+        private final int[] maxHeight;
+
+        private BiomeRules(String group, int defaultMaxHeight) {
+            this.group = group;
+            int types = CropTypes.count();
+            growTime = new long[types];
+            growInterval = new long[types];
+            fruitInterval = new long[types];
+            maxHeight = new int[types];
+            Arrays.fill(growTime, -1L);
+            Arrays.fill(growInterval, -1L);
+            Arrays.fill(fruitInterval, -1L);
+            Arrays.fill(maxHeight, defaultMaxHeight);
+        }
+
+        private BiomeRules(String group, BiomeRules base) {
+            this.group = group;
+            growTime = base.growTime.clone();
+            growInterval = base.growInterval.clone();
+            fruitInterval = base.fruitInterval.clone();
+            maxHeight = base.maxHeight.clone();
+        }
+
+        long growTime(Material type) {
+            int id = CropTypes.id(type);
+            return id < 0 ? -1L : growTime[id];
+        }
+
+        long growInterval(Material type) {
+            int id = CropTypes.id(type);
+            return id < 0 ? -1L : growInterval[id];
+        }
+
+        long fruitInterval(Material type) {
+            int id = CropTypes.id(type);
+            return id < 0 ? -1L : fruitInterval[id];
+        }
+
+        int maxHeight(Material type) {
+            int id = CropTypes.id(type);
+            return id < 0 ? 0 : maxHeight[id];
+        }
+
+        private boolean sameFor(BiomeRules other, int id) {
+            return growTime[id] == other.growTime[id] && growInterval[id] == other.growInterval[id]
+                    && fruitInterval[id] == other.fruitInterval[id] && maxHeight[id] == other.maxHeight[id];
+        }
+
+        // Keys present in the section override what the row inherited from its group
+        private void apply(ConfigurationSection section) {
+            if (section == null) return;
+
+            for (int id = 0; id < CropTypes.count(); id++) {
+                String name = CropTypes.byId(id).name();
+                if (section.contains(name)) growTime[id] = section.getLong(name) * 1000L;
+                if (section.contains(name + "-interval")) growInterval[id] = section.getLong(name + "-interval") * 1000L;
+                if (section.contains(name + "-fruit-interval")) fruitInterval[id] = section.getLong(name + "-fruit-interval") * 1000L;
+                if (section.contains(name + "-max-height")) maxHeight[id] = section.getInt(name + "-max-height");
+            }
+        }
+    }
+
+    private final Map<String, BiomeRules> byName;
+    private final BiomeRules unlisted;
+    private final int groupCount;
+
+    // Filled lazily per biome ordinal; rows are immutable so a racy read only costs a re-resolve
+    private volatile BiomeRules[] byOrdinal = new BiomeRules[0];
+
+    private GrowthRules(Map<String, BiomeRules> byName, BiomeRules unlisted, int groupCount) {
+        this.byName = byName;
+        this.unlisted = unlisted;
+        this.groupCount = groupCount;
+    }
+
+    static GrowthRules compile(ConfigurationSection config) {
+        int defaultMaxHeight = config.getInt("default-max-height", 3);
+
+        // First group that lists a biome wins
+        Map<String, String> groupOf = new HashMap<>();
+        Map<String, BiomeRules> groupRules = new LinkedHashMap<>();
+        ConfigurationSection groups = config.getConfigurationSection("biome-groups");
+        if (groups != null) {
+            for (String group : groups.getKeys(false)) {
+                BiomeRules rules = new BiomeRules(group, defaultMaxHeight);
+                rules.apply(config.getConfigurationSection("groups." + group));
+                groupRules.put(group, rules);
+
+                for (String biome : config.getStringList("biome-groups." + group)) {
+                    groupOf.putIfAbsent(normalize(biome), group);
+                }
+            }
+        }
+
+        Map<String, BiomeRules> byName = new HashMap<>();
+        for (Map.Entry<String, String> entry : groupOf.entrySet()) {
+            byName.put(entry.getKey(), groupRules.get(entry.getValue()));
+        }
+
+        // Per-biome overrides from the "biomes" section, layered over the biome's group
+        ConfigurationSection biomes = config.getConfigurationSection("biomes");
+        if (biomes != null) {
+            for (String biome : biomes.getKeys(false)) {
+                String name = normalize(biome);
+                String group = groupOf.get(name);
+                BiomeRules rules = group != null
+                        ? new BiomeRules(group, groupRules.get(group))
+                        : new BiomeRules(null, defaultMaxHeight);
+                rules.apply(biomes.getConfigurationSection(biome));
+                byName.put(name, rules);
+            }
+        }
+
+        return new GrowthRules(byName, new BiomeRules(null, defaultMaxHeight), groupRules.size());
+    }
+
+    int groupCount() {
+        return groupCount;
+    }
+
+    // What a reload changes: by biome ordinal, the crop type ids that grow differently there
+    static final class Changes {
+        private final boolean[][] byBiome;
+        // By CropTypes id: changed in at least one biome
+        private final boolean[] anyBiome = new boolean[CropTypes.count()];
+        private int pairs;
+
+        private Changes(int biomes) {
+            byBiome = new boolean[biomes][];
+        }
+
+        boolean anyBiome(int id) {
+            return anyBiome[id];
+        }
+
+        boolean in(Biome biome, int id) {
+            int ordinal = biome.ordinal();
+            return ordinal < byBiome.length && byBiome[ordinal] != null && byBiome[ordinal][id];
+        }
+
+        // Changed (biome, crop type) pairs
+        int pairs() {
+            return pairs;
+        }
+    }
+
+    Changes changes(GrowthRules other, Iterable<Biome> biomes) {
+        int maxOrdinal = -1;
+        for (Biome biome : biomes) {
+            maxOrdinal = Math.max(maxOrdinal, biome.ordinal());
+        }
+
+        Changes changes = new Changes(maxOrdinal + 1);
+        for (Biome biome : biomes) {
+            BiomeRules mine = forBiome(biome);
+            BiomeRules theirs = other.forBiome(biome);
+            if (mine == theirs) continue;
+
+            for (int id = 0; id < changes.anyBiome.length; id++) {
+                if (mine.sameFor(theirs, id)) continue;
+                if (changes.byBiome[biome.ordinal()] == null) changes.byBiome[biome.ordinal()] = new boolean[changes.anyBiome.length];
+                changes.byBiome[biome.ordinal()][id] = true;
+                changes.anyBiome[id] = true;
+                changes.pairs++;
+            }
+        }
+        return changes;
+    }
+
+    BiomeRules forBiome(Biome biome) {
+        int ordinal = biome.ordinal();
+        BiomeRules[] table = byOrdinal;
+        if (ordinal < table.length) {
+            BiomeRules rules = table[ordinal];
+            if (rules != null) return rules;
+        }
+        return cache(ordinal, forName(biome.name()));
+    }
+
+    // Vanilla biomes match as JUNGLE or minecraft:jungle, datapack biomes as namespace:path
+    BiomeRules forName(String biomeName) {
+        return byName.getOrDefault(normalize(biomeName), unlisted);
+    }
+
+    private synchronized BiomeRules cache(int ordinal, BiomeRules rules) {
+        BiomeRules[] table = byOrdinal;
+        if (ordinal >= table.length) {
+            table = Arrays.copyOf(table, Math.max(ordinal + 1, table.length * 2));
+            table[ordinal] = rules;
+            byOrdinal = table;
+        } else {
+            table[ordinal] = rules;
+        }
+        return rules;
+    }
+
+    static String normalize(String biomeName) {
+        String name = biomeName.trim();
+        int colon = name.indexOf(':');
+        if (colon < 0) return name.toUpperCase(Locale.ROOT);
+
+        String namespace = name.substring(0, colon).toLowerCase(Locale.ROOT);
+        String path = name.substring(colon + 1);
+        return namespace.equals("minecraft")
+                ? path.toUpperCase(Locale.ROOT)
+                : namespace + ":" + path.toLowerCase(Locale.ROOT);
+    }
+}
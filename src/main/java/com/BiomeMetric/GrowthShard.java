@@ -0,0 +1,110 @@
+package com.Bit;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Growth state that one thread owns: tracked crops, their due queue, the running pass, counters
+// and the jobs coming back from the workers. The classic scheduler keeps every world in a single
+// shard on the main thread. On a region-threaded server each cell of a world (a square of chunks
+// no region ever splits) is its own shard, ticked by whichever region owns it, so shards share
+// nothing and need no locks; other threads only reach one through its inbox.
+final class GrowthShard {
+
+    record Key(String worldName, int cellX, int cellZ) {
+    }
+
+    // Null for the classic shard, which covers every world
+    final String worldName;
+    final int cellX;
+    final int cellZ;
+
+    private final Map<String, WorldCrops> crops = new HashMap<>();
+    final DueQueue dueQueue = new DueQueue();
+    final GrowthPass pass;
+    final GrowthMetrics metrics;
+    final BlockWriteBatch pendingWrites = new BlockWriteBatch();
+    final SaplingGrowth saplings = new SaplingGrowth();
+    // Crop positions (a stack's base) to re-read once physics has finished with them
+    final Map<WorldCrops, LongHashMap<Boolean>> pendingChecks = new HashMap<>();
+    // Filled by the workers, drained by the owning thread
+    final Queue<ChunkJob> finished = new ConcurrentLinkedQueue<>();
+    // Work handed over from other threads, run at the start of the shard's next tick
+    private final Queue<Runnable> inbox = new ConcurrentLinkedQueue<>();
+    // Region backend: changes for the background writer, handed over once per tick under one lock
+    final Map<String, LongHashMap<CropRecord>> unsaved = new HashMap<>();
+    boolean hasUnsaved;
+
+    // Chunk jobs handed to the workers and not yet applied
+    int inFlight;
+    int reconciling;
+    // Set from the interval on the first tick
+    long ticksUntilPass = Long.MAX_VALUE;
+    // Settings last taken from the plugin; compared each tick so a reload reaches every shard
+    long intervalTicks;
+    CropReconciler reconcilerSource;
+    // Null when reconcile is off
+    CropReconciler reconciler;
+
+    // Region backend: the repeating task and the loaded chunk it is pinned to, null while nothing here is loaded
+    Scheduling.Task ticker;
+    int tickerChunkX;
+    int tickerChunkZ;
+
+    // Published at the end of each tick for /biomemetric stats on other threads
+    volatile int trackedCount;
+    volatile int queuedCount;
+    volatile int inFlightCount;
+
+    GrowthShard(String worldName, int cellX, int cellZ, long budgetMillis, GrowthMetrics metrics) {
+        this.worldName = worldName;
+        this.cellX = cellX;
+        this.cellZ = cellZ;
+        this.pass = new GrowthPass(budgetMillis);
+        this.metrics = metrics;
+    }
+
+    // Null if nothing was ever tracked in that world here
+    WorldCrops get(String worldName) {
+        return crops.get(worldName);
+    }
+
+    WorldCrops cropsIn(String worldName) {
+        return crops.computeIfAbsent(worldName, WorldCrops::new);
+    }
+
+    WorldCrops remove(String worldName) {
+        return crops.remove(worldName);
+    }
+
+    Collection<WorldCrops> worlds() {
+        return crops.values();
+    }
+
+    void post(Runnable task) {
+        inbox.add(task);
+    }
+
+    void runInbox() {
+        Runnable task;
+        while ((task = inbox.poll()) != null) {
+            task.run();
+        }
+    }
+
+    void publish() {
+        int tracked = 0;
+        for (WorldCrops worldCrops : crops.values()) {
+            tracked += worldCrops.size();
+        }
+        trackedCount = tracked;
+        queuedCount = dueQueue.size();
+        inFlightCount = inFlight;
+    }
+
+    String describe() {
+        return worldName == null ? "" : " in " + worldName + " cell " + cellX + ", " + cellZ;
+    }
+}
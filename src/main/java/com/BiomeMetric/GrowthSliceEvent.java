@@ -0,0 +1,23 @@
+package com.Bit;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// The growth work done inside one server tick, to line up with the server's own tick events
+@Name("com.Bit.GrowthSlice")
+@Label("Growth Slice")
+@Category("BiomeMetric")
+@Description("Growth work done on the main thread in one tick")
+final class GrowthSliceEvent extends jdk.jfr.Event {
+
+    @Label("Applied")
+    int applied;
+
+    @Label("Dispatched")
+    int dispatched;
+
+    @Label("Jobs In Flight")
+    int inFlight;
+}
@@ -0,0 +1,70 @@
+package com.Bit;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Worker pool that evaluates chunk jobs against their snapshots. Finished jobs are
+// handed back through their shard's queue, which its owning thread drains; nothing here
+// touches the world.
+final class GrowthWorkers {
+
+    private final ExecutorService pool;
+    private final Logger logger;
+
+    GrowthWorkers(int threads, Logger logger) {
+        this.logger = logger;
+        AtomicInteger counter = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "BiomeMetric-growth-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void submit(ChunkJob job, GrowthEngine engine, long now) {
+        try {
+            pool.execute(() -> {
+                try {
+                    for (CropUpdate update : job.crops) {
+                        if (job.reconcile) {
+                            engine.reconcile(job.view, update);
+                        } else {
+                            engine.simulate(job.view, update, now);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    job.failed = true;
+                    logger.log(Level.WARNING, "Growth evaluation failed for chunk " + job.chunkX + ", " + job.chunkZ, e);
+                }
+                job.shard.finished.add(job);
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; hand the job straight back so its crops are not lost
+            job.failed = true;
+            job.shard.finished.add(job);
+        }
+    }
+
+    // Other background work (discovery scans) shares the pool; dropped when shutting down
+    void execute(Runnable task) {
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Nothing to hand back
+        }
+    }
+
+    void close() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.Bit;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.TreeType;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.type.Sapling;
+
+// WorldAccess over a loaded Bukkit world for the thread owning the shard. Writes are queued on
+// the shard's batch and applied once per chunk job. On a region-threaded server chunks owned
+// by another region count as unloaded.
+final class LiveWorld implements WorldAccess {
+
+    private final World world;
+    private final BlockWriteBatch writes;
+    private final Scheduling scheduling;
+
+    LiveWorld(World world, BlockWriteBatch writes, Scheduling scheduling) {
+        this.world = world;
+        this.writes = writes;
+        this.scheduling = scheduling;
+    }
+
+    @Override
+    public Material getType(int x, int y, int z) {
+        return world.getBlockAt(x, y, z).getType();
+    }
+
+    @Override
+    public BlockData getBlockData(int x, int y, int z) {
+        return world.getBlockAt(x, y, z).getBlockData();
+    }
+
+    @Override
+    public Biome getBiome(int x, int y, int z) {
+        return world.getBlockAt(x, y, z).getBiome();
+    }
+
+    @Override
+    public boolean isLoaded(int chunkX, int chunkZ) {
+        return world.isChunkLoaded(chunkX, chunkZ) && scheduling.owns(world, chunkX, chunkZ);
+    }
+
+    @Override
+    public int minHeight() {
+        return world.getMinHeight();
+    }
+
+    @Override
+    public int maxHeight() {
+        return world.getMaxHeight();
+    }
+
+    @Override
+    public void setBlockData(int x, int y, int z, BlockData data) {
+        writes.set(world.getBlockAt(x, y, z), data);
+    }
+
+    @Override
+    public int applyWrites() {
+        return writes.apply();
+    }
+
+    @Override
+    public ChunkSnapshot snapshot(int chunkX, int chunkZ, boolean biomes) {
+        return world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, biomes, false);
+    }
+
+    @Override
+    public TreeResult growTree(int x, int y, int z, Material saplingType) {
+        Block block = world.getBlockAt(x, y, z);
+        TreeType treeType = SaplingGrowth.treeType(saplingType);
+        // Tree generation reaches into neighbouring chunks; wait until they are loaded rather than load them
+        if (treeType == null || block.getType() != saplingType || !(block.getBlockData() instanceof Sapling sapling)
+                || !isAreaLoaded(x >> 4, z >> 4)) {
+            return TreeResult.NOT_TRIED;
+        }
+
+        // Remove the sapling first so the generator does not see it in the way
+        block.setType(Material.AIR);
+        if (world.generateTree(block.getLocation(), treeType)) return TreeResult.GROWN;
+
+        block.setType(saplingType);
+        block.setBlockData(sapling);
+        return TreeResult.FAILED;
+    }
+
+    private boolean isAreaLoaded(int chunkX, int chunkZ) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                if (!isLoaded(chunkX + dx, chunkZ + dz)) return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package com.Bit;
+
+import java.util.Arrays;
+
+// LongHashMap's layout with primitive int values, for indexes that map a packed position
+// to a slot. Values must be non-negative; -1 marks an empty slot and a missing key.
+final class LongIntMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    LongIntMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return values.length;
+    }
+
+    int get(long key) {
+        int slot = mix(key) & mask;
+        int value;
+        while ((value = values[slot]) >= 0) {
+            if (keys[slot] == key) return value;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Returns the previous value, or -1
+    int put(long key, int value) {
+        if (value < 0) throw new IllegalArgumentException("negative values are not supported");
+
+        int slot = mix(key) & mask;
+        int existing;
+        while ((existing = values[slot]) >= 0) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            rehash(values.length << 1);
+        }
+        return -1;
+    }
+
+    // Returns the removed value, or -1
+    int remove(long key) {
+        int slot = mix(key) & mask;
+        int existing;
+        while ((existing = values[slot]) >= 0) {
+            if (keys[slot] == key) {
+                shiftBack(slot);
+                size--;
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Close the gap left at 'slot' by moving later entries of the same probe run back
+    private void shiftBack(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (values[next] >= 0) {
+            int ideal = mix(keys[next]) & mask;
+            // Move the entry if its ideal slot is not cyclically within (gap, next]
+            if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[gap] = -1;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] < 0) continue;
+            int slot = mix(oldKeys[i]) & mask;
+            while (values[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, -1);
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.75f);
+    }
+
+    // Same finalizer as LongHashMap
+    private static int mix(long key) {
+        key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+        return (int) (key ^ (key >>> 31));
+    }
+}
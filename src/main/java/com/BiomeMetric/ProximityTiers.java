@@ -0,0 +1,70 @@
+package com.Bit;
+
+import org.bukkit.Location;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// Update tiers by player proximity. Crops in chunks within the radius of an online player
+// follow the normal cadence; loaded crops nobody is near wait at least far-interval between
+// updates. Targets are closed-form in elapsed time, so a crop looked at late lands in the
+// same state, just without the intermediate block writes nobody was there to see.
+final class ProximityTiers {
+
+    private final int chunkRadius;
+    private final long farIntervalMillis;
+
+    // World name -> chunk keys near a player, rebuilt as each pass starts
+    private Map<String, LongHashMap<Boolean>> near = new HashMap<>();
+
+    private ProximityTiers(int radiusBlocks, long farIntervalMillis) {
+        this.chunkRadius = Math.max(0, (radiusBlocks + 15) >> 4);
+        this.farIntervalMillis = farIntervalMillis;
+    }
+
+    // Null unless priority.enabled is set
+    static ProximityTiers fromConfig(ConfigurationSection section) {
+        if (section == null || !section.getBoolean("enabled", false)) return null;
+        return new ProximityTiers(section.getInt("radius", 64), Math.max(1L, section.getLong("far-interval", 600)) * 1000L);
+    }
+
+    long farIntervalMillis() {
+        return farIntervalMillis;
+    }
+
+    boolean isNear(String worldName, long chunkKey) {
+        LongHashMap<Boolean> chunks = near.get(worldName);
+        return chunks != null && chunks.get(chunkKey) != null;
+    }
+
+    // Rebuilds the near set and returns the chunks that came into range since the last rebuild
+    Map<String, LongHashMap<Boolean>> rebuild(Collection<? extends Player> players) {
+        Map<String, LongHashMap<Boolean>> previous = near;
+        Map<String, LongHashMap<Boolean>> current = new HashMap<>();
+        Map<String, LongHashMap<Boolean>> entered = new HashMap<>();
+
+        for (Player player : players) {
+            Location location = player.getLocation();
+            String worldName = player.getWorld().getName();
+            LongHashMap<Boolean> chunks = current.computeIfAbsent(worldName, name -> new LongHashMap<>());
+            LongHashMap<Boolean> before = previous.get(worldName);
+
+            int centerX = location.getBlockX() >> 4;
+            int centerZ = location.getBlockZ() >> 4;
+            for (int dx = -chunkRadius; dx <= chunkRadius; dx++) {
+                for (int dz = -chunkRadius; dz <= chunkRadius; dz++) {
+                    long chunkKey = WorldCrops.chunkKey(centerX + dx, centerZ + dz);
+                    if (chunks.put(chunkKey, Boolean.TRUE) == null && (before == null || before.get(chunkKey) == null)) {
+                        entered.computeIfAbsent(worldName, name -> new LongHashMap<>()).put(chunkKey, Boolean.TRUE);
+                    }
+                }
+            }
+        }
+
+        near = current;
+        return entered;
+    }
+}
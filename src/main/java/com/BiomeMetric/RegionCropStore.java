@@ -0,0 +1,257 @@
+package com.Bit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+// Binary crop storage: crops/<world>/r.<rx>.<rz>.bmc, one file per 32x32 chunk region.
+// Each file is a small header (magic, version, record count, CRC32 of the records)
+// followed by fixed-width CropRecordCodec records. Files are rewritten through a
+// temporary file and an atomic rename, so a crash never leaves a half-written region.
+final class RegionCropStore implements CropStore {
+
+    private static final int MAGIC = 0x424D4352; // "BMCR"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2 + 4 + 4;
+
+    // One region file; the unit the startup load reads in parallel
+    record Region(String worldName, Path file) {}
+
+    // Told when a commit finds a region unreadable, so everything held in memory for it can be written again
+    interface DamageListener {
+        void damaged(String worldName, int regionX, int regionZ);
+    }
+
+    private final Path root;
+    private final Logger logger;
+    private DamageListener damageListener = (worldName, regionX, regionZ) -> {};
+
+    // Changes staged since the last commit: world -> region key -> position -> record
+    private final Map<String, LongHashMap<LongHashMap<CropRecord>>> staged = new HashMap<>();
+
+    RegionCropStore(Path root, Logger logger) {
+        this.root = root;
+        this.logger = logger;
+    }
+
+    // Set before the first commit; called on whichever thread commits
+    void onDamaged(DamageListener listener) {
+        this.damageListener = listener;
+    }
+
+    @Override
+    public void load(Sink sink) throws IOException {
+        for (Region region : regions()) {
+            load(region, sink);
+        }
+    }
+
+    List<Region> regions() throws IOException {
+        List<Region> found = new ArrayList<>();
+        if (!Files.isDirectory(root)) return found;
+
+        try (DirectoryStream<Path> worlds = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path worldDir : worlds) {
+                String worldName = worldDir.getFileName().toString();
+                try (DirectoryStream<Path> regions = Files.newDirectoryStream(worldDir, "r.*.bmc")) {
+                    for (Path file : regions) {
+                        found.add(new Region(worldName, file));
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    // Reads one region; different regions may be read from several threads at once.
+    // A damaged file is set aside and reads as empty.
+    void load(Region region, Sink sink) {
+        try {
+            readRegion(region.file(), (pos, record) -> sink.accept(region.worldName(), pos, record));
+        } catch (IOException e) {
+            quarantine(region.file(), e);
+        }
+    }
+
+    @Override
+    public void write(String worldName, long pos, CropRecord record) {
+        LongHashMap<LongHashMap<CropRecord>> regions = staged.computeIfAbsent(worldName, name -> new LongHashMap<>());
+        long regionKey = regionKeyOf(pos);
+        LongHashMap<CropRecord> changes = regions.get(regionKey);
+        if (changes == null) {
+            changes = new LongHashMap<>();
+            regions.put(regionKey, changes);
+        }
+        changes.put(pos, record);
+    }
+
+    @Override
+    public long commit() throws IOException {
+        IOException failure = null;
+        long written = 0;
+
+        for (Map.Entry<String, LongHashMap<LongHashMap<CropRecord>>> entry : staged.entrySet()) {
+            LongHashMap<LongHashMap<CropRecord>> regions = entry.getValue();
+            for (int slot = 0; slot < regions.capacity(); slot++) {
+                LongHashMap<CropRecord> changes = regions.valueAt(slot);
+                if (changes == null || changes.isEmpty()) continue;
+
+                long regionKey = regions.keyAt(slot);
+                try {
+                    written += commitRegion(entry.getKey(), regionKey, changes);
+                    changes.clear();
+                } catch (IOException e) {
+                    // Leave the changes staged so the next commit retries them
+                    if (failure == null) failure = e;
+                }
+            }
+        }
+
+        // Regions that failed keep their changes; committed ones are empty and skipped next time
+        if (failure != null) throw failure;
+        staged.clear();
+        return written;
+    }
+
+    private long commitRegion(String worldName, long regionKey, LongHashMap<CropRecord> changes) throws IOException {
+        int regionX = regionX(regionKey);
+        int regionZ = regionZ(regionKey);
+        Path file = regionFile(worldName, regionX, regionZ);
+
+        LongHashMap<CropRecord> records = new LongHashMap<>();
+        boolean damaged = false;
+        if (Files.exists(file)) {
+            try {
+                readRegion(file, records::put);
+            } catch (IOException e) {
+                quarantine(file, e);
+                damaged = true;
+            }
+        }
+
+        for (int slot = 0; slot < changes.capacity(); slot++) {
+            CropRecord record = changes.valueAt(slot);
+            if (record == null) continue;
+
+            if (record == CropRecord.REMOVED) {
+                records.remove(changes.keyAt(slot));
+            } else {
+                records.put(changes.keyAt(slot), record);
+            }
+        }
+
+        // Only this commit's changes survive in the file, so the rest of the region has to come from memory
+        if (damaged) {
+            logger.warning("Crop region " + regionX + ", " + regionZ + " of world " + worldName
+                    + " was lost; writing its crops again from memory.");
+            damageListener.damaged(worldName, regionX, regionZ);
+        }
+
+        if (records.isEmpty()) {
+            Files.deleteIfExists(file);
+            return 0;
+        }
+        return writeRegion(file, records);
+    }
+
+    private void readRegion(Path file, CropRecordCodec.RecordSink sink) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < HEADER_BYTES) throw new IOException("truncated header");
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) throw new IOException("bad magic");
+
+        short version = in.readShort();
+        if (version > VERSION) throw new IOException("unsupported version " + version);
+
+        int count = in.readInt();
+        int checksum = in.readInt();
+        if (count < 0 || bytes.length != HEADER_BYTES + (long) count * CropRecordCodec.RECORD_BYTES) {
+            throw new IOException("expected " + count + " records but file is " + bytes.length + " bytes");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes, HEADER_BYTES, bytes.length - HEADER_BYTES);
+        if ((int) crc.getValue() != checksum) throw new IOException("checksum mismatch");
+
+        for (int i = 0; i < count; i++) {
+            CropRecordCodec.read(in, sink);
+        }
+    }
+
+    private long writeRegion(Path file, LongHashMap<CropRecord> records) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(records.size() * CropRecordCodec.RECORD_BYTES);
+        DataOutputStream out = new DataOutputStream(payload);
+        for (int slot = 0; slot < records.capacity(); slot++) {
+            CropRecord record = records.valueAt(slot);
+            if (record != null) {
+                CropRecordCodec.write(out, records.keyAt(slot), record);
+            }
+        }
+        out.flush();
+
+        byte[] body = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temp.toFile());
+             DataOutputStream header = new DataOutputStream(stream)) {
+            header.writeInt(MAGIC);
+            header.writeShort(VERSION);
+            header.writeInt(records.size());
+            header.writeInt((int) crc.getValue());
+            header.write(body);
+            header.flush();
+            stream.getFD().sync();
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return HEADER_BYTES + body.length;
+    }
+
+    // A damaged region is set aside rather than deleted so it can be inspected or recovered
+    private void quarantine(Path file, IOException cause) {
+        logger.warning("Crop region " + file + " is unreadable (" + cause.getMessage() + "), moving it aside.");
+        try {
+            Files.move(file, file.resolveSibling(file.getFileName() + ".corrupt"), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warning("Could not move " + file + " aside: " + e.getMessage());
+        }
+    }
+
+    private Path regionFile(String worldName, int regionX, int regionZ) {
+        return root.resolve(worldName).resolve("r." + regionX + "." + regionZ + ".bmc");
+    }
+
+    private static long regionKeyOf(long pos) {
+        return WorldCrops.chunkKey(BlockKey.x(pos) >> 9, BlockKey.z(pos) >> 9);
+    }
+
+    private static int regionX(long regionKey) {
+        return (int) regionKey;
+    }
+
+    private static int regionZ(long regionKey) {
+        return (int) (regionKey >> 32);
+    }
+}
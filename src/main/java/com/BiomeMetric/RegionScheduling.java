@@ -0,0 +1,154 @@
+package com.Bit;
+
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Consumer;
+
+// Region backend for Folia. The plugin builds against the Spigot API, which has none of the
+// region schedulers, so they are looked up by name once and called reflectively. The ownership
+// check runs on hot paths, so it goes through a method handle bound to the server instead.
+final class RegionScheduling implements Scheduling {
+
+    private static final String REGIONIZED_SERVER = "io.papermc.paper.threadedregions.RegionizedServer";
+    private static final String SCHEDULER_PACKAGE = "io.papermc.paper.threadedregions.scheduler.";
+    // Folia's grid-exponent default; regions are made of sections this many chunk shifts wide
+    private static final int DEFAULT_SECTION_SHIFT = 4;
+
+    private final Plugin plugin;
+    private final int cellShift;
+
+    private final Object globalScheduler;
+    private final Object regionScheduler;
+    private final Object asyncScheduler;
+    private final Method globalExecute;
+    private final Method globalAtFixedRate;
+    private final Method regionExecute;
+    private final Method regionDelayed;
+    private final Method regionAtFixedRate;
+    private final Method asyncRunNow;
+    private final Method taskCancel;
+    // (World, int, int) boolean, bound to the server
+    private final MethodHandle ownedByCurrentRegion;
+
+    static boolean available() {
+        try {
+            Class.forName(REGIONIZED_SERVER);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    RegionScheduling(Plugin plugin) {
+        this.plugin = plugin;
+        this.cellShift = sectionShift();
+        try {
+            Class<?> server = plugin.getServer().getClass();
+            Class<?> global = Class.forName(SCHEDULER_PACKAGE + "GlobalRegionScheduler");
+            Class<?> region = Class.forName(SCHEDULER_PACKAGE + "RegionScheduler");
+            Class<?> async = Class.forName(SCHEDULER_PACKAGE + "AsyncScheduler");
+
+            globalScheduler = server.getMethod("getGlobalRegionScheduler").invoke(plugin.getServer());
+            regionScheduler = server.getMethod("getRegionScheduler").invoke(plugin.getServer());
+            asyncScheduler = server.getMethod("getAsyncScheduler").invoke(plugin.getServer());
+
+            globalExecute = global.getMethod("execute", Plugin.class, Runnable.class);
+            globalAtFixedRate = global.getMethod("runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class);
+            regionExecute = region.getMethod("execute", Plugin.class, World.class, int.class, int.class, Runnable.class);
+            regionDelayed = region.getMethod("runDelayed", Plugin.class, World.class, int.class, int.class, Consumer.class, long.class);
+            regionAtFixedRate = region.getMethod("runAtFixedRate", Plugin.class, World.class, int.class, int.class,
+                    Consumer.class, long.class, long.class);
+            asyncRunNow = async.getMethod("runNow", Plugin.class, Consumer.class);
+            taskCancel = Class.forName(SCHEDULER_PACKAGE + "ScheduledTask").getMethod("cancel");
+            ownedByCurrentRegion = MethodHandles.publicLookup()
+                    .unreflect(server.getMethod("isOwnedByCurrentRegion", World.class, int.class, int.class))
+                    .bindTo(plugin.getServer())
+                    .asType(MethodType.methodType(boolean.class, World.class, int.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Region schedulers not found on a region-threaded server", e);
+        }
+    }
+
+    // Server internals, so only trusted when present; the default is what Folia ships with
+    private static int sectionShift() {
+        try {
+            Object shift = Class.forName("io.papermc.paper.threadedregions.TickRegions").getMethod("getRegionChunkShift").invoke(null);
+            return shift instanceof Integer value ? value : DEFAULT_SECTION_SHIFT;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return DEFAULT_SECTION_SHIFT;
+        }
+    }
+
+    @Override
+    public boolean regionThreaded() {
+        return true;
+    }
+
+    @Override
+    public int cellShift() {
+        return cellShift;
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        invoke(globalExecute, globalScheduler, plugin, task);
+    }
+
+    @Override
+    public Task runGlobalTimer(long periodTicks, Runnable task) {
+        return handle(invoke(globalAtFixedRate, globalScheduler, plugin, (Consumer<Object>) scheduled -> task.run(), 1L, periodTicks));
+    }
+
+    @Override
+    public void runAt(World world, int chunkX, int chunkZ, Runnable task) {
+        invoke(regionExecute, regionScheduler, plugin, world, chunkX, chunkZ, task);
+    }
+
+    @Override
+    public void runLaterAt(World world, int chunkX, int chunkZ, long delayTicks, Runnable task) {
+        invoke(regionDelayed, regionScheduler, plugin, world, chunkX, chunkZ, (Consumer<Object>) scheduled -> task.run(), delayTicks);
+    }
+
+    @Override
+    public Task runTimerAt(World world, int chunkX, int chunkZ, long periodTicks, Runnable task) {
+        return handle(invoke(regionAtFixedRate, regionScheduler, plugin, world, chunkX, chunkZ,
+                (Consumer<Object>) scheduled -> task.run(), 1L, periodTicks));
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        invoke(asyncRunNow, asyncScheduler, plugin, (Consumer<Object>) scheduled -> task.run());
+    }
+
+    @Override
+    public boolean owns(World world, int chunkX, int chunkZ) {
+        try {
+            return (boolean) ownedByCurrentRegion.invokeExact(world, chunkX, chunkZ);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Task handle(Object scheduledTask) {
+        return () -> invoke(taskCancel, scheduledTask);
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.bukkit.TreeType;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+// Saplings that are due for a tree. Generating one is by far the most expensive growth step and
+// fails outright when something is in the way, so the worker first looks at the space every tree
+// of the type needs (vanilla checks the trunk column, then a ring around it from a type-specific
+// layer up). A sapling boxed in there is never handed to the generator; one that still fails backs
+// off, doubling its wait each time until something around it changes. Generations that do go ahead
+// wait in a queue, and the shard runs only a few of them per tick.
+final class SaplingGrowth {
+
+    record QueuedTree(WorldCrops crops, long pos, Material type) {}
+
+    // Trunk height every tree of the type reaches, and the first layer above the sapling its ring covers
+    private record Clearance(int trunk, int ringFrom) {}
+
+    // Highest layer any clearance reaches; a block changing this far above a blocked sapling may free it
+    static final int MAX_CLEARANCE = 10;
+    // Waits run from one update interval up to 64 of them
+    private static final int MAX_BACKOFF_SHIFT = 6;
+
+    private static final boolean[] OBSTRUCTS = new boolean[Material.values().length];
+
+    static {
+        for (Material material : Material.values()) {
+            // Trees grow through leaves, logs, snow layers and anything soft; VOID_AIR is above the build limit
+            String name = material.name();
+            OBSTRUCTS[material.ordinal()] = material == Material.VOID_AIR
+                    || material.isSolid() && material != Material.SNOW
+                    && !name.endsWith("_LEAVES") && !name.endsWith("_LOG") && !name.endsWith("_WOOD");
+        }
+    }
+
+    // Failed attempts per blocked sapling; a sapling is in here only while it is backing off
+    private final Map<WorldCrops, LongIntMap> blocked = new HashMap<>();
+    private final ArrayDeque<QueuedTree> queue = new ArrayDeque<>();
+
+    static TreeType treeType(Material saplingType) {
+        return switch (saplingType) {
+            case OAK_SAPLING -> TreeType.TREE;
+            case SPRUCE_SAPLING -> TreeType.REDWOOD;
+            case BIRCH_SAPLING -> TreeType.BIRCH;
+            case JUNGLE_SAPLING -> TreeType.JUNGLE;
+            case ACACIA_SAPLING -> TreeType.ACACIA;
+            case DARK_OAK_SAPLING -> TreeType.DARK_OAK;
+            case MANGROVE_PROPAGULE -> TreeType.MANGROVE;
+            case CHERRY_SAPLING -> TreeType.CHERRY;
+            default -> null;
+        };
+    }
+
+    // The shortest tree vanilla generates for each type; anything taller needs this space too
+    private static Clearance clearance(TreeType treeType) {
+        return switch (treeType) {
+            case REDWOOD -> new Clearance(5, 2);
+            case BIRCH, ACACIA -> new Clearance(5, 1);
+            case JUNGLE -> new Clearance(10, 1);
+            case DARK_OAK -> new Clearance(6, 1);
+            case MANGROVE -> new Clearance(2, 2);
+            case CHERRY -> new Clearance(7, 1);
+            default -> new Clearance(4, 1);
+        };
+    }
+
+    // Worker side: false only if something is certainly in the way. Columns in chunks the view
+    // does not hold are taken to be clear, and the generator finds out.
+    static boolean hasRoom(BlockView view, int x, int y, int z, Material saplingType) {
+        TreeType treeType = treeType(saplingType);
+        if (treeType == null) return false;
+
+        Clearance clearance = clearance(treeType);
+        for (int dy = 1; dy < clearance.trunk(); dy++) {
+            int radius = dy < clearance.ringFrom() ? 0 : 1;
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    if (!view.isLoaded((x + dx) >> 4, (z + dz) >> 4)) continue;
+                    if (OBSTRUCTS[view.getType(x + dx, y + dy, z + dz).ordinal()]) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Records a failed attempt and returns when to try again
+    long backoff(WorldCrops crops, long pos, long now, long intervalMillis) {
+        LongIntMap attempts = blocked.computeIfAbsent(crops, key -> new LongIntMap());
+        int failed = Math.max(0, attempts.get(pos));
+        attempts.put(pos, failed + 1);
+        return now + (intervalMillis << Math.min(failed, MAX_BACKOFF_SHIFT));
+    }
+
+    // Null if no sapling in that world is backing off, which spares callers the lookups
+    LongIntMap blockedIn(WorldCrops crops) {
+        LongIntMap attempts = blocked.get(crops);
+        return attempts == null || attempts.size() == 0 ? null : attempts;
+    }
+
+    void forget(WorldCrops crops, long pos) {
+        LongIntMap attempts = blocked.get(crops);
+        if (attempts != null) attempts.remove(pos);
+    }
+
+    void forget(WorldCrops crops) {
+        blocked.remove(crops);
+        queue.removeIf(tree -> tree.crops() == crops);
+    }
+
+    void queue(WorldCrops crops, long pos, Material type) {
+        queue.add(new QueuedTree(crops, pos, type));
+    }
+
+    // Null once the queue is empty
+    QueuedTree poll() {
+        return queue.poll();
+    }
+
+    int queued() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,56 @@
+package com.Bit;
+
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.util.logging.Logger;
+
+// Where the plugin's tasks run. On Spigot and Paper that is the Bukkit scheduler and the main
+// thread. Region-threaded servers (Folia) have no main thread: each region of a world ticks on
+// its own thread, so anything that touches blocks has to run on the region owning them.
+interface Scheduling {
+
+    interface Task {
+        void cancel();
+    }
+
+    // True when regions tick on separate threads
+    boolean regionThreaded();
+
+    // log2 of the width, in chunks, of the smallest area a region owns as a whole
+    int cellShift();
+
+    // Next tick, on the main thread (Folia: the global region)
+    void runGlobal(Runnable task);
+
+    Task runGlobalTimer(long periodTicks, Runnable task);
+
+    // Next tick, on the thread owning the chunk
+    void runAt(World world, int chunkX, int chunkZ, Runnable task);
+
+    void runLaterAt(World world, int chunkX, int chunkZ, long delayTicks, Runnable task);
+
+    Task runTimerAt(World world, int chunkX, int chunkZ, long periodTicks, Runnable task);
+
+    void runAsync(Runnable task);
+
+    // Whether the calling thread may touch the chunk's blocks right now
+    boolean owns(World world, int chunkX, int chunkZ);
+
+    // "auto" picks the region backend only on a server that is region-threaded
+    static Scheduling create(Plugin plugin, String mode, Logger logger) {
+        boolean regionServer = RegionScheduling.available();
+        if ("classic".equalsIgnoreCase(mode)) {
+            if (regionServer) logger.warning("scheduler is set to classic on a region-threaded server; crop growth will not be thread-safe.");
+            return new BukkitScheduling(plugin);
+        }
+        if ("region".equalsIgnoreCase(mode) || regionServer) {
+            if (!regionServer) {
+                logger.warning("scheduler is set to region, but this server is not region-threaded; using the classic scheduler.");
+                return new BukkitScheduling(plugin);
+            }
+            return new RegionScheduling(plugin);
+        }
+        return new BukkitScheduling(plugin);
+    }
+}
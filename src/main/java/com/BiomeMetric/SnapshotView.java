@@ -0,0 +1,49 @@
+package com.Bit;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.block.Biome;
+import org.bukkit.block.data.BlockData;
+
+// BlockView over chunk snapshots taken on the main thread, safe to read from any thread.
+// A chunk without a snapshot counts as unloaded.
+final class SnapshotView implements BlockView {
+
+    private final LongHashMap<ChunkSnapshot> chunks = new LongHashMap<>();
+    private final int minY;
+    private final int maxY;
+
+    SnapshotView(int minY, int maxY) {
+        this.minY = minY;
+        this.maxY = maxY;
+    }
+
+    void add(ChunkSnapshot snapshot) {
+        chunks.put(WorldCrops.chunkKey(snapshot.getX(), snapshot.getZ()), snapshot);
+    }
+
+    @Override
+    public boolean isLoaded(int chunkX, int chunkZ) {
+        return chunks.containsKey(WorldCrops.chunkKey(chunkX, chunkZ));
+    }
+
+    @Override
+    public Material getType(int x, int y, int z) {
+        if (y < minY || y >= maxY) return Material.VOID_AIR;
+        ChunkSnapshot snapshot = chunks.get(WorldCrops.chunkKey(x >> 4, z >> 4));
+        return snapshot == null ? Material.VOID_AIR : snapshot.getBlockType(x & 15, y, z & 15);
+    }
+
+    @Override
+    public BlockData getBlockData(int x, int y, int z) {
+        if (y < minY || y >= maxY) return Material.VOID_AIR.createBlockData();
+        ChunkSnapshot snapshot = chunks.get(WorldCrops.chunkKey(x >> 4, z >> 4));
+        return snapshot == null ? Material.VOID_AIR.createBlockData() : snapshot.getBlockData(x & 15, y, z & 15);
+    }
+
+    @Override
+    public Biome getBiome(int x, int y, int z) {
+        ChunkSnapshot snapshot = chunks.get(WorldCrops.chunkKey(x >> 4, z >> 4));
+        return snapshot.getBiome(x & 15, Math.max(minY, Math.min(y, maxY - 1)), z & 15);
+    }
+}
@@ -0,0 +1,30 @@
+package com.Bit;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+
+// Block reads and writes in one world, in world coordinates, as the thread owning it sees them.
+// The live server and the in-memory load-test world both implement it, so the growth pipeline
+// runs the same code against either. Chunks this thread may not touch count as unloaded.
+interface WorldAccess extends BlockView {
+
+    enum TreeResult { NOT_TRIED, GROWN, FAILED }
+
+    int minHeight();
+
+    int maxHeight();
+
+    // May be queued until applyWrites
+    void setBlockData(int x, int y, int z, BlockData data);
+
+    // Applies the writes queued so far; returns how many there were
+    int applyWrites();
+
+    // A copy of the chunk workers can read while the world moves on; only asked for loaded chunks
+    ChunkSnapshot snapshot(int chunkX, int chunkZ, boolean biomes);
+
+    // Replaces the sapling at (x, y, z) with a tree, or leaves it as it was. NOT_TRIED if the block
+    // is no sapling of that type any more or the chunks the tree may reach into are not all loaded.
+    TreeResult growTree(int x, int y, int z, Material saplingType);
+}
@@ -0,0 +1,366 @@
+package com.Bit;
+
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Tracked crops of one world. State lives in primitive columns indexed by slot, so a crop
+// costs a few dozen bytes instead of an object graph, and walks over many crops read
+// packed arrays. Slots freed by removals are reused through a free list. Crops are also
+// bucketed by chunk; only buckets whose chunk is loaded sit in the active list, the rest
+// are parked until their chunk loads again.
+final class WorldCrops {
+
+    // 2020-01-01 UTC; times are stored as int seconds from here, which lasts until 2088
+    static final long EPOCH = 1_577_836_800_000L;
+
+    static final class ChunkBucket {
+        final int chunkX;
+        final int chunkZ;
+        // Slots of this chunk's crops, in no particular order
+        private int[] slots = new int[4];
+        private int count;
+        // Changed since it was last written to the chunk (chunk storage mode only)
+        boolean dirty;
+        private int activeIndex = -1;
+
+        ChunkBucket(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        boolean isActive() {
+            return activeIndex >= 0;
+        }
+
+        int size() {
+            return count;
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        // Index-based so callers can walk it without an iterator: for (i < size()) slotAt(i)
+        int slotAt(int index) {
+            return slots[index];
+        }
+
+        private void add(int slot) {
+            if (count == slots.length) slots = Arrays.copyOf(slots, count * 2);
+            slots[count++] = slot;
+        }
+
+        // Buckets hold a chunk's worth of crops, so a scan is cheaper than another column
+        private void remove(int slot) {
+            for (int i = 0; i < count; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--count];
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final byte FREE = -1;
+    private static final byte DEFERRED = 1;
+
+    private final String worldName;
+    private final LongHashMap<ChunkBucket> chunks = new LongHashMap<>();
+    private final List<ChunkBucket> active = new ArrayList<>();
+    private final LongIntMap slotByPos = new LongIntMap();
+
+    // Columns, one entry per slot
+    private long[] pos = new long[64];
+    // CropTypes id, FREE for a slot on the free list
+    private byte[] type = new byte[64];
+    // Seconds since EPOCH
+    private int[] planted = new int[64];
+    private byte[] height = new byte[64];
+    // Seconds since EPOCH, 0 for never
+    private int[] lastFruit = new int[64];
+    // When the growth pass should next look at the crop; not persisted. A free slot holds the next free slot here
+    private long[] nextDue = new long[64];
+    private byte[] flags = new byte[64];
+    // FruitSpots mask of a mature stem; not persisted, worked out again after a restart
+    private byte[] fruitSpots = new byte[64];
+
+    // Slots handed out so far, free or not
+    private int used;
+    private int freeHead = -1;
+    private int size;
+    // Tallest height recorded so far; bounds how far stackAt looks down
+    private int tallestStack = 1;
+
+    WorldCrops(String worldName) {
+        this.worldName = worldName;
+    }
+
+    String worldName() {
+        return worldName;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Slot of the crop at pos, or -1
+    int slotOf(long pos) {
+        return slotByPos.get(pos);
+    }
+
+    // -1 unless there is a crop at pos and its chunk is loaded
+    int activeSlotOf(long pos) {
+        int slot = slotByPos.get(pos);
+        if (slot < 0) return -1;
+        ChunkBucket bucket = chunks.get(chunkKeyOf(pos));
+        return bucket != null && bucket.isActive() ? slot : -1;
+    }
+
+    // Tracks a crop at pos, replacing whatever was tracked there; returns its slot.
+    // New buckets start active only if the caller knows the chunk is loaded.
+    int put(long pos, Material cropType, long plantedAt, int cropHeight, long lastFruitGrowth, boolean chunkLoaded) {
+        int slot = slotByPos.get(pos);
+        if (slot < 0) {
+            long chunkKey = chunkKeyOf(pos);
+            ChunkBucket bucket = chunks.get(chunkKey);
+            if (bucket == null) {
+                bucket = new ChunkBucket(BlockKey.x(pos) >> 4, BlockKey.z(pos) >> 4);
+                chunks.put(chunkKey, bucket);
+                if (chunkLoaded) activate(bucket);
+            }
+
+            slot = allocate();
+            this.pos[slot] = pos;
+            slotByPos.put(pos, slot);
+            bucket.add(slot);
+            size++;
+        }
+
+        type[slot] = (byte) CropTypes.id(cropType);
+        planted[slot] = toSeconds(plantedAt);
+        height[slot] = (byte) cropHeight;
+        tallestStack = Math.max(tallestStack, cropHeight);
+        lastFruit[slot] = lastFruitGrowth == 0 ? 0 : toSeconds(lastFruitGrowth);
+        nextDue[slot] = 0;
+        flags[slot] = 0;
+        fruitSpots[slot] = FruitSpots.UNKNOWN;
+        return slot;
+    }
+
+    int put(long pos, CropRecord record, boolean chunkLoaded) {
+        return put(pos, record.type(), record.planted(), record.height(), record.lastFruitGrowth(), chunkLoaded);
+    }
+
+    boolean remove(long pos) {
+        int slot = slotByPos.remove(pos);
+        if (slot < 0) return false;
+
+        long chunkKey = chunkKeyOf(pos);
+        ChunkBucket bucket = chunks.get(chunkKey);
+        if (bucket != null) {
+            bucket.remove(slot);
+            if (bucket.isEmpty()) {
+                park(bucket);
+                chunks.remove(chunkKey);
+            }
+        }
+        release(slot);
+        size--;
+        return true;
+    }
+
+    long pos(int slot) {
+        return pos[slot];
+    }
+
+    Material type(int slot) {
+        return CropTypes.byId(type[slot]);
+    }
+
+    long planted(int slot) {
+        return toMillis(planted[slot]);
+    }
+
+    int height(int slot) {
+        return height[slot] & 0xFF;
+    }
+
+    void setHeight(int slot, int cropHeight) {
+        height[slot] = (byte) cropHeight;
+        tallestStack = Math.max(tallestStack, cropHeight);
+    }
+
+    // Slot of the tracked stack whose recorded segments include (x, y, z), or -1. The top of a
+    // stack is its base plus its recorded height, so this looks down the position index
+    // rather than the world, and no further than the tallest stack recorded.
+    int stackAt(int x, int y, int z) {
+        for (int baseY = y; baseY > y - tallestStack; baseY--) {
+            int slot = slotByPos.get(BlockKey.pack(x, baseY, z));
+            if (slot < 0) continue;
+            return CropTypes.isStacking(type(slot)) && y < baseY + height(slot) ? slot : -1;
+        }
+        return -1;
+    }
+
+    long lastFruitGrowth(int slot) {
+        int seconds = lastFruit[slot];
+        return seconds == 0 ? 0 : toMillis(seconds);
+    }
+
+    void setLastFruitGrowth(int slot, long millis) {
+        lastFruit[slot] = millis == 0 ? 0 : toSeconds(millis);
+    }
+
+    long nextDue(int slot) {
+        return nextDue[slot];
+    }
+
+    void setNextDue(int slot, long due) {
+        nextDue[slot] = due;
+    }
+
+    // Pushed back to the far cadence because no player was near; brought forward when one comes close
+    boolean deferred(int slot) {
+        return (flags[slot] & DEFERRED) != 0;
+    }
+
+    void setDeferred(int slot, boolean deferred) {
+        flags[slot] = (byte) (deferred ? flags[slot] | DEFERRED : flags[slot] & ~DEFERRED);
+    }
+
+    byte fruitSpots(int slot) {
+        return fruitSpots[slot];
+    }
+
+    void setFruitSpots(int slot, byte spots) {
+        fruitSpots[slot] = spots;
+    }
+
+    CropRecord record(int slot) {
+        return new CropRecord(type(slot), planted(slot), height(slot), lastFruitGrowth(slot));
+    }
+
+    ChunkBucket bucket(int chunkX, int chunkZ) {
+        return chunks.get(chunkKey(chunkX, chunkZ));
+    }
+
+    // Forgets a chunk's crops entirely, for storage modes that keep them with the chunk.
+    // Their slots are freed, so anything the caller needs from them must be read first.
+    ChunkBucket drop(int chunkX, int chunkZ) {
+        ChunkBucket bucket = chunks.remove(chunkKey(chunkX, chunkZ));
+        if (bucket != null) {
+            park(bucket);
+            for (int i = 0; i < bucket.count; i++) {
+                int slot = bucket.slots[i];
+                slotByPos.remove(pos[slot]);
+                release(slot);
+            }
+            size -= bucket.count;
+            bucket.count = 0;
+        }
+        return bucket;
+    }
+
+    ChunkBucket activate(int chunkX, int chunkZ) {
+        ChunkBucket bucket = chunks.get(chunkKey(chunkX, chunkZ));
+        if (bucket != null) activate(bucket);
+        return bucket;
+    }
+
+    ChunkBucket park(int chunkX, int chunkZ) {
+        ChunkBucket bucket = chunks.get(chunkKey(chunkX, chunkZ));
+        if (bucket != null) park(bucket);
+        return bucket;
+    }
+
+    void parkAll() {
+        for (ChunkBucket bucket : active) {
+            bucket.activeIndex = -1;
+        }
+        active.clear();
+    }
+
+    // Buckets of loaded chunks, indexable so the growth pass can walk it without an iterator
+    List<ChunkBucket> activeBuckets() {
+        return active;
+    }
+
+    // Every bucket, loaded or not, for persistence
+    LongHashMap<ChunkBucket> allBuckets() {
+        return chunks;
+    }
+
+    // Rough bytes held for the crops (columns, position index and bucket slot lists), for the stats
+    long memoryBytes() {
+        long bytes = (long) pos.length * (8 + 1 + 4 + 1 + 4 + 8 + 1 + 1) + slotByPos.capacity() * 12L;
+        for (int slot = 0; slot < chunks.capacity(); slot++) {
+            ChunkBucket bucket = chunks.valueAt(slot);
+            if (bucket != null) bytes += 4L * bucket.slots.length;
+        }
+        return bytes;
+    }
+
+    private int allocate() {
+        if (freeHead >= 0) {
+            int slot = freeHead;
+            freeHead = (int) nextDue[slot];
+            return slot;
+        }
+
+        if (used == pos.length) {
+            int capacity = used + (used >> 1);
+            pos = Arrays.copyOf(pos, capacity);
+            type = Arrays.copyOf(type, capacity);
+            planted = Arrays.copyOf(planted, capacity);
+            height = Arrays.copyOf(height, capacity);
+            lastFruit = Arrays.copyOf(lastFruit, capacity);
+            nextDue = Arrays.copyOf(nextDue, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            fruitSpots = Arrays.copyOf(fruitSpots, capacity);
+        }
+        return used++;
+    }
+
+    private void release(int slot) {
+        type[slot] = FREE;
+        nextDue[slot] = freeHead;
+        freeHead = slot;
+    }
+
+    private void activate(ChunkBucket bucket) {
+        if (bucket.isActive()) return;
+        bucket.activeIndex = active.size();
+        active.add(bucket);
+    }
+
+    // Swap-remove keeps parking O(1)
+    private void park(ChunkBucket bucket) {
+        if (!bucket.isActive()) return;
+        int index = bucket.activeIndex;
+        ChunkBucket last = active.remove(active.size() - 1);
+        if (last != bucket) {
+            active.set(index, last);
+            last.activeIndex = index;
+        }
+        bucket.activeIndex = -1;
+    }
+
+    private static int toSeconds(long millis) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, Math.floorDiv(millis - EPOCH, 1000L)));
+    }
+
+    private static long toMillis(int seconds) {
+        return EPOCH + seconds * 1000L;
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkZ << 32) | (chunkX & 0xFFFFFFFFL);
+    }
+
+    static long chunkKeyOf(long pos) {
+        return chunkKey(BlockKey.x(pos) >> 4, BlockKey.z(pos) >> 4);
+    }
+}
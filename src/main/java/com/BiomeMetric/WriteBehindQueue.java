@@ -0,0 +1,167 @@
+package com.Bit;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Coalesces crop changes made on the main thread and hands them to the store from a
+// background thread, either on a fixed cadence or as soon as enough changes pile up.
+// Repeated changes to the same position between flushes collapse into the latest one.
+final class WriteBehindQueue {
+
+    private final CropStore store;
+    private final Logger logger;
+    private final GrowthMetrics metrics;
+    private final long flushIntervalMillis;
+    private final int flushThreshold;
+
+    private final Object pendingLock = new Object();
+    private Map<String, LongHashMap<CropRecord>> pending = new HashMap<>();
+    private int pendingCount;
+    private boolean flushRequested;
+    // Set by close; from then on changes are written by whoever makes them
+    private boolean closed;
+
+    // Held for the whole flush so the store only ever sees one writer
+    private final Object storeLock = new Object();
+    private ScheduledExecutorService executor;
+
+    WriteBehindQueue(CropStore store, Logger logger, GrowthMetrics metrics, long flushIntervalMillis, int flushThreshold) {
+        this.store = store;
+        this.logger = logger;
+        this.metrics = metrics;
+        this.flushIntervalMillis = Math.max(1000L, flushIntervalMillis);
+        this.flushThreshold = Math.max(1, flushThreshold);
+    }
+
+    void start() {
+        ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BiomeMetric-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        synchronized (pendingLock) {
+            executor = writer;
+        }
+    }
+
+    void put(String worldName, long pos, CropRecord record) {
+        boolean drain;
+        synchronized (pendingLock) {
+            if (pending.computeIfAbsent(worldName, name -> new LongHashMap<>()).put(pos, record) == null) {
+                pendingCount++;
+            }
+            drain = flushIfFull();
+        }
+        if (drain) flushQuietly();
+    }
+
+    // Many changes under one lock, for callers on several threads that batch their own
+    void putAll(Map<String, LongHashMap<CropRecord>> changes) {
+        boolean drain;
+        synchronized (pendingLock) {
+            for (Map.Entry<String, LongHashMap<CropRecord>> entry : changes.entrySet()) {
+                LongHashMap<CropRecord> worldPending = pending.computeIfAbsent(entry.getKey(), name -> new LongHashMap<>());
+                LongHashMap<CropRecord> worldChanges = entry.getValue();
+                for (int slot = 0; slot < worldChanges.capacity(); slot++) {
+                    CropRecord record = worldChanges.valueAt(slot);
+                    if (record != null && worldPending.put(worldChanges.keyAt(slot), record) == null) {
+                        pendingCount++;
+                    }
+                }
+            }
+            drain = flushIfFull();
+        }
+        if (drain) flushQuietly();
+    }
+
+    // Caller holds pendingLock. Returns true once closed: the writer is gone, so the caller
+    // flushes, outside the lock since a flush takes storeLock first.
+    private boolean flushIfFull() {
+        if (closed) return true;
+        if (pendingCount >= flushThreshold && !flushRequested && executor != null) {
+            flushRequested = true;
+            executor.execute(this::flushQuietly);
+        }
+        return false;
+    }
+
+    int pendingCount() {
+        synchronized (pendingLock) {
+            return pendingCount;
+        }
+    }
+
+    void flush() throws IOException {
+        synchronized (storeLock) {
+            Map<String, LongHashMap<CropRecord>> batch;
+            int records;
+            synchronized (pendingLock) {
+                flushRequested = false;
+                if (pendingCount == 0) return;
+                batch = pending;
+                records = pendingCount;
+                pending = new HashMap<>();
+                pendingCount = 0;
+            }
+
+            CropSaveEvent event = new CropSaveEvent();
+            event.begin();
+            long start = System.nanoTime();
+
+            for (Map.Entry<String, LongHashMap<CropRecord>> entry : batch.entrySet()) {
+                LongHashMap<CropRecord> changes = entry.getValue();
+                for (int slot = 0; slot < changes.capacity(); slot++) {
+                    CropRecord record = changes.valueAt(slot);
+                    if (record != null) {
+                        store.write(entry.getKey(), changes.keyAt(slot), record);
+                    }
+                }
+            }
+            long bytes = store.commit();
+            metrics.recordSave(records, bytes, System.nanoTime() - start);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.records = records;
+                event.bytes = bytes;
+                event.commit();
+            }
+        }
+    }
+
+    // Stops the background writer and flushes whatever is left on the calling thread
+    void close() {
+        ScheduledExecutorService writer;
+        synchronized (pendingLock) {
+            closed = true;
+            writer = executor;
+            executor = null;
+        }
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                    logger.warning("Timed out waiting for the background crop writer to finish.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Failed to save crop data", e);
+        }
+    }
+}
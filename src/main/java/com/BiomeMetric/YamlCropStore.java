@@ -0,0 +1,69 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+
+// crops.yml layout: crops.<world:x:y:z>.type/planted/height/lastFruitGrowth
+final class YamlCropStore implements CropStore {
+
+    private final File file;
+    private final FileConfiguration config;
+    private boolean dirty;
+
+    YamlCropStore(File file) {
+        this.file = file;
+        this.config = YamlConfiguration.loadConfiguration(file);
+    }
+
+    @Override
+    public void load(Sink sink) {
+        ConfigurationSection crops = config.getConfigurationSection("crops");
+        if (crops == null) return;
+
+        for (String key : crops.getKeys(false)) {
+            String path = "crops." + key;
+            String typeName = config.getString(path + ".type");
+            long planted = config.getLong(path + ".planted");
+            int height = config.getInt(path + ".height", 1);
+            long lastFruitGrowth = config.getLong(path + ".lastFruitGrowth", 0L);
+            try {
+                Material type = Material.valueOf(typeName);
+                String[] parts = key.split(":");
+                if (parts.length < 4) continue;
+
+                long pos = BlockKey.pack(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+                sink.accept(parts[0], pos, new CropRecord(type, planted, height, lastFruitGrowth));
+            } catch (IllegalArgumentException | NullPointerException ignored) {}
+        }
+    }
+
+    @Override
+    public void write(String worldName, long pos, CropRecord record) {
+        String path = "crops." + worldName + ":" + BlockKey.x(pos) + ":" + BlockKey.y(pos) + ":" + BlockKey.z(pos);
+        config.set(path, null);
+        dirty = true;
+        if (record == CropRecord.REMOVED) return;
+
+        config.set(path + ".type", record.type().name());
+        config.set(path + ".planted", record.planted());
+        if (record.height() != 1) {
+            config.set(path + ".height", record.height());
+        }
+        if (record.lastFruitGrowth() > 0) {
+            config.set(path + ".lastFruitGrowth", record.lastFruitGrowth());
+        }
+    }
+
+    @Override
+    public long commit() throws IOException {
+        if (!dirty) return 0;
+        config.save(file);
+        dirty = false;
+        return file.length();
+    }
+}
@@ -0,0 +1,168 @@
+package com.Bit;
+
+import org.bukkit.Server;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveIntervalTest {
+
+    // 200 to 2,000 ticks, a 1 to 10 ms budget, aiming under 40 ms per tick
+    private static final String CONFIG = """
+            enabled: true
+            min-interval: 10
+            max-interval: 100
+            target-mspt: 40
+            min-tick-budget: 1
+            max-tick-budget: 10
+            """;
+
+    // Paper's extra method, which the plugin finds by reflection
+    interface PaperServer extends Server {
+        double getAverageTickTime();
+    }
+
+    @Test
+    public void offUnlessEnabled() {
+        assertNull(AdaptiveInterval.fromConfig(null, paper(new double[]{20}), 200, 5));
+        assertNull(AdaptiveInterval.fromConfig(section("enabled: false"), paper(new double[]{20}), 200, 5));
+    }
+
+    @Test
+    public void startingValuesAreClamped() {
+        AdaptiveInterval adaptive = AdaptiveInterval.fromConfig(section(CONFIG), paper(new double[]{20}), 20, 50);
+        assertEquals(200, adaptive.intervalTicks());
+        assertEquals(10, adaptive.budgetMillis());
+    }
+
+    @Test
+    public void slowServerWidensTheIntervalAndHalvesTheBudgetUpToTheLimits() {
+        double[] mspt = {45};
+        AdaptiveInterval adaptive = AdaptiveInterval.fromConfig(section(CONFIG), paper(mspt), 200, 8);
+        assertTrue(adaptive.reportsMspt());
+        assertEquals(45, adaptive.mspt(), 0);
+
+        assertTrue(adaptive.adjust(false, 0, 1));
+        assertEquals(300, adaptive.intervalTicks());
+        assertEquals(4, adaptive.budgetMillis());
+
+        for (int i = 0; i < 20; i++) {
+            adaptive.adjust(false, 0, 1);
+        }
+        assertEquals(2_000, adaptive.intervalTicks());
+        assertEquals(1, adaptive.budgetMillis());
+        assertFalse(adaptive.adjust(false, 0, 1));
+    }
+
+    @Test
+    public void recoveredServerNarrowsTheIntervalDownToItsMinimum() {
+        double[] mspt = {45};
+        AdaptiveInterval adaptive = AdaptiveInterval.fromConfig(section(CONFIG), paper(mspt), 1_000, 5);
+        adaptive.adjust(false, 0, 1);
+        assertEquals(1_500, adaptive.intervalTicks());
+
+        mspt[0] = 20;
+        assertTrue(adaptive.adjust(false, 0, 1));
+        assertEquals(1_200, adaptive.intervalTicks());
+        for (int i = 0; i < 30; i++) {
+            adaptive.adjust(false, 0, 1);
+        }
+        assertEquals(200, adaptive.intervalTicks());
+        assertFalse(adaptive.adjust(false, 0, 1));
+    }
+
+    // Between 80% of the target and the target nothing moves, so the cadence does not flap
+    @Test
+    public void nothingChangesInsideTheHysteresisBand() {
+        double[] mspt = {33};
+        AdaptiveInterval adaptive = AdaptiveInterval.fromConfig(section(CONFIG), paper(mspt), 600, 5);
+
+        assertFalse(adaptive.adjust(false, 0, 1));
+        mspt[0] = 40;
+        assertFalse(adaptive.adjust(false, 0, 1));
+        assertEquals(600, adaptive.intervalTicks());
+        assertEquals(5, adaptive.budgetMillis());
+
+        mspt[0] = 31.9;
+        assertTrue(adaptive.adjust(false, 0, 1));
+        assertEquals(480, adaptive.intervalTicks());
+    }
+
+    @Test
+    public void passStillRunningWidensTheIntervalAndGivesItMoreBudget() {
+        AdaptiveInterval adaptive = AdaptiveInterval.fromConfig(section(CONFIG), paper(new double[]{35}), 600, 5);
+
+        assertTrue(adaptive.adjust(true, 0, 3));
+        assertEquals(900, adaptive.intervalTicks());
+        assertEquals(6, adaptive.budgetMillis());
+    }
+
+    @Test
+    public void budgetFollowsTheHeadroomLeftInATick() {
+        // 2 ms left under the target, but the last pass cost 3 ms per tick
+        AdaptiveInterval tight = AdaptiveInterval.fromConfig(section(CONFIG), paper(new double[]{38}), 600, 5);
+        assertTrue(tight.adjust(false, 9_000_000L, 3));
+        assertEquals(4, tight.budgetMillis());
+        assertEquals(600, tight.intervalTicks());
+
+        // Plenty left, and the pass needed several ticks
+        AdaptiveInterval roomy = AdaptiveInterval.fromConfig(section(CONFIG), paper(new double[]{10}), 600, 5);
+        assertTrue(roomy.adjust(false, 3_000_000L, 3));
+        assertEquals(6, roomy.budgetMillis());
+        assertEquals(480, roomy.intervalTicks());
+    }
+
+    // Without Paper only ticks running over 50 ms show up, through the smoothed gap between our ticks
+    @Test
+    public void withoutMsptTheTickGapIsTheSignal() {
+        AdaptiveInterval adaptive = AdaptiveInterval.fromConfig(section(CONFIG), plain(), 600, 5);
+        assertFalse(adaptive.reportsMspt());
+
+        long nanos = 1_000_000_000L;
+        for (int i = 0; i < 100; i++) {
+            adaptive.tick(nanos += 50_000_000L);
+        }
+        assertEquals(50, adaptive.mspt(), 0.01);
+        assertTrue(adaptive.adjust(false, 0, 1));
+        assertEquals(480, adaptive.intervalTicks());
+
+        for (int i = 0; i < 100; i++) {
+            adaptive.tick(nanos += 80_000_000L);
+        }
+        assertTrue(adaptive.mspt() > 52.5);
+        assertTrue(adaptive.adjust(false, 0, 1));
+        assertEquals(720, adaptive.intervalTicks());
+        assertEquals(2, adaptive.budgetMillis());
+    }
+
+    private static ConfigurationSection section(String yaml) {
+        return YamlConfiguration.loadConfiguration(new StringReader(yaml));
+    }
+
+    private static Server paper(double[] mspt) {
+        return (Server) Proxy.newProxyInstance(AdaptiveIntervalTest.class.getClassLoader(), new Class<?>[]{PaperServer.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getAverageTickTime" -> mspt[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.toString());
+                });
+    }
+
+    private static Server plain() {
+        return (Server) Proxy.newProxyInstance(AdaptiveIntervalTest.class.getClassLoader(), new Class<?>[]{Server.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.toString());
+                });
+    }
+}
@@ -0,0 +1,68 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class CropLoaderTest {
+
+    private static final CropRecord WHEAT = new CropRecord(Material.WHEAT, 1_700_000_000_000L, 1, 0L);
+    // Cells of 4 by 4 chunks
+    private static final int SHIFT = 2 + 4;
+
+    @Test
+    public void regionSplitsByCell() {
+        CropLoader.Partition region = new CropLoader.Partition("world");
+        region.add(BlockKey.pack(0, 64, 0), WHEAT);
+        region.add(BlockKey.pack(63, 64, 63), WHEAT);
+        region.add(BlockKey.pack(64, 64, 0), WHEAT);
+        region.add(BlockKey.pack(-1, 64, 0), WHEAT);
+
+        LongHashMap<CropLoader.Partition> parts = region.byCell(SHIFT);
+        assertEquals(3, parts.size());
+        CropLoader.Partition origin = parts.get(WorldCrops.chunkKey(0, 0));
+        assertNotNull(origin);
+        assertEquals(2, origin.size);
+        assertEquals("world", origin.worldName);
+        assertEquals(BlockKey.pack(63, 64, 63), origin.positions[1]);
+        assertEquals(1, parts.get(WorldCrops.chunkKey(1, 0)).size);
+        assertEquals(1, parts.get(WorldCrops.chunkKey(-1, 0)).size);
+        assertNull(parts.get(WorldCrops.chunkKey(0, -1)));
+    }
+
+    // The server loads spawn chunks before the store has merged, so the load events found nothing
+    // to start; the merge has to find a chunk that is already loaded to start the cell ticking
+    @Test
+    public void cellMergedAfterItsChunksLoadedNamesALoadedChunk() {
+        TestWorld world = new TestWorld(64);
+        world.unload(0, 0);
+        world.unload(1, 0);
+
+        CropLoader.Partition region = new CropLoader.Partition("world");
+        region.add(BlockKey.pack(5, 64, 5), WHEAT);
+        region.add(BlockKey.pack(20, 64, 5), WHEAT);
+        region.add(BlockKey.pack(40, 64, 5), WHEAT);
+        region.add(BlockKey.pack(41, 64, 6), WHEAT);
+
+        CropLoader.Partition cell = region.byCell(SHIFT).get(WorldCrops.chunkKey(0, 0));
+        int loaded = cell.firstLoaded(chunkKey -> world.isLoaded((int) chunkKey, (int) (chunkKey >> 32)));
+        assertEquals(2, loaded);
+        assertEquals(BlockKey.pack(40, 64, 5), cell.positions[loaded]);
+    }
+
+    @Test
+    public void cellWithNothingLoadedNamesNoChunk() {
+        TestWorld world = new TestWorld(64);
+        world.unload(0, 0);
+
+        CropLoader.Partition region = new CropLoader.Partition("world");
+        region.add(BlockKey.pack(1, 64, 1), WHEAT);
+        region.add(BlockKey.pack(2, 64, 2), WHEAT);
+
+        assertEquals(-1, region.firstLoaded(chunkKey -> world.isLoaded((int) chunkKey, (int) (chunkKey >> 32))));
+        assertEquals(-1, new CropLoader.Partition("world").firstLoaded(chunkKey -> true));
+    }
+}
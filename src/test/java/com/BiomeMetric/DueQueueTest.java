@@ -0,0 +1,100 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DueQueueTest {
+
+    private static final long PLANTED = 1_700_000_000_000L;
+
+    @Test
+    public void popsInDueOrder() {
+        WorldCrops crops = new WorldCrops("world");
+        DueQueue queue = new DueQueue();
+        queue.push(PLANTED + 300, crops, BlockKey.pack(3, 64, 0));
+        queue.push(PLANTED + 100, crops, BlockKey.pack(1, 64, 0));
+        queue.push(PLANTED + 200, crops, BlockKey.pack(2, 64, 0));
+
+        assertEquals(3, queue.size());
+        for (int x = 1; x <= 3; x++) {
+            assertEquals(PLANTED + x * 100, queue.headDue());
+            assertEquals(BlockKey.pack(x, 64, 0), queue.headPos());
+            assertSame(crops, queue.headOwner());
+            queue.removeHead();
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    // Well past the starting capacity, with ties, pushed and popped in random order
+    @Test
+    public void growsAndStaysOrdered() {
+        Random random = new Random(11);
+        WorldCrops crops = new WorldCrops("world");
+        DueQueue queue = new DueQueue();
+        long[] pushed = new long[5_000];
+        for (int i = 0; i < pushed.length; i++) {
+            pushed[i] = PLANTED + random.nextInt(1_000);
+            queue.push(pushed[i], crops, BlockKey.pack(i, 64, 0));
+        }
+        assertEquals(pushed.length, queue.size());
+
+        Arrays.sort(pushed);
+        for (long due : pushed) {
+            assertEquals(due, queue.headDue());
+            queue.removeHead();
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void staleEntriesAreSkippedWhenTheySurface() {
+        WorldCrops crops = new WorldCrops("world");
+        DueQueue queue = new DueQueue();
+        long kept = BlockKey.pack(0, 64, 0);
+        long rescheduled = BlockKey.pack(1, 64, 0);
+        long removed = BlockKey.pack(2, 64, 0);
+        long unloaded = BlockKey.pack(100, 64, 0);
+        schedule(queue, crops, crops.put(kept, Material.WHEAT, PLANTED, 1, 0L, true), PLANTED + 300);
+        int slot = crops.put(rescheduled, Material.WHEAT, PLANTED, 1, 0L, true);
+        schedule(queue, crops, slot, PLANTED + 100);
+        schedule(queue, crops, crops.put(removed, Material.WHEAT, PLANTED, 1, 0L, true), PLANTED + 200);
+        schedule(queue, crops, crops.put(unloaded, Material.WHEAT, PLANTED, 1, 0L, true), PLANTED + 250);
+
+        // Moved later: its old entry stays in the queue
+        schedule(queue, crops, slot, PLANTED + 400);
+        crops.remove(removed);
+        crops.park(100 >> 4, 0);
+
+        assertEquals(List.of(kept, rescheduled), due(queue, PLANTED + 1_000));
+        assertTrue(queue.isEmpty());
+    }
+
+    private static void schedule(DueQueue queue, WorldCrops crops, int slot, long due) {
+        crops.setNextDue(slot, due);
+        queue.push(due, crops, crops.pos(slot));
+    }
+
+    // What the growth pass does with the head of the queue
+    private static List<Long> due(DueQueue queue, long now) {
+        List<Long> found = new ArrayList<>();
+        while (!queue.isEmpty() && queue.headDue() <= now) {
+            long due = queue.headDue();
+            long pos = queue.headPos();
+            WorldCrops crops = queue.headOwner();
+            queue.removeHead();
+
+            int slot = crops.activeSlotOf(pos);
+            if (slot >= 0 && crops.nextDue(slot) == due) found.add(pos);
+        }
+        return found;
+    }
+}
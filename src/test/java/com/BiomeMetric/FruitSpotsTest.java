@@ -0,0 +1,189 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FruitSpotsTest {
+
+    private static final int WEST = 0;
+    private static final int EAST = 1;
+    private static final int NORTH = 2;
+    private static final int SOUTH = 3;
+
+    // Stems take 10 minutes to mature and fruit every 5
+    private static final String RULES = String.join("\n",
+            "biome-groups:",
+            "  Temperate: [PLAINS]",
+            "groups:",
+            "  Temperate:",
+            "    MELON_STEM: 600",
+            "    MELON_STEM-fruit-interval: 300",
+            "");
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final TestWorld world = new TestWorld(64);
+    private final GrowthEngine engine = new GrowthEngine(GrowthRules.compile(YamlConfiguration.loadConfiguration(new StringReader(RULES))));
+
+    private void side(int side, Material type) {
+        world.set(8 + FruitSpots.dx(side), 64, 8 + FruitSpots.dz(side), type);
+    }
+
+    // A mature melon stem at (8, 64, 8), planted long enough ago for every side to be due a fruit
+    private int matureStem(WorldCrops crops) {
+        world.set(8, 64, 8, TestWorld.blockData(Material.MELON_STEM, 7));
+        return crops.put(BlockKey.pack(8, 64, 8), Material.MELON_STEM, NOW - 3_600_000L, 1, 0L, true);
+    }
+
+    private static Set<Integer> sidesChanged(CropUpdate update) {
+        Set<Integer> sides = new HashSet<>();
+        for (CropUpdate.BlockChange change : update.changes()) {
+            for (int side = 0; side < 4; side++) {
+                if (change.x() == 8 + FruitSpots.dx(side) && change.z() == 8 + FruitSpots.dz(side)) sides.add(side);
+            }
+        }
+        return sides;
+    }
+
+    @Test
+    public void scanSeesFruitsAndFreeSides() {
+        side(WEST, Material.MELON);
+        side(EAST, Material.STONE);
+        // Air over stone is no place for fruit
+        world.set(8, 63, 9, Material.STONE);
+
+        int spots = FruitSpots.scan(world, 8, 64, 8, Material.MELON);
+
+        assertEquals(0x10 << WEST | 1 << NORTH, spots);
+        assertEquals(1, FruitSpots.fruits(spots));
+        assertEquals(1 << NORTH, FruitSpots.free(spots));
+    }
+
+    @Test
+    public void sidesInUnloadedChunksMakeTheScanIncomplete() {
+        world.unload(1, 0);
+        int spots = FruitSpots.scan(world, 15, 64, 8, Material.MELON);
+
+        assertTrue((spots & FruitSpots.INCOMPLETE) != 0);
+        assertEquals(1 << WEST | 1 << NORTH | 1 << SOUTH, FruitSpots.free(spots));
+    }
+
+    @Test
+    public void placeFillsFreeSidesOnly() {
+        WorldCrops crops = new WorldCrops("world");
+        CropUpdate update = new CropUpdate(crops, matureStem(crops));
+        int spots = 1 << WEST | 1 << NORTH | 0x10 << EAST;
+
+        int placed = FruitSpots.place(update, spots, 8, 64, 8, Material.MELON, 4);
+
+        assertEquals(0x10 << WEST | 0x10 << NORTH | 0x10 << EAST, placed);
+        assertEquals(Set.of(WEST, NORTH), sidesChanged(update));
+        for (CropUpdate.BlockChange change : update.changes()) {
+            assertEquals(Material.AIR, change.expected());
+            assertEquals(Material.MELON, change.data().getMaterial());
+        }
+    }
+
+    @Test
+    public void placeStopsAtTheCount() {
+        WorldCrops crops = new WorldCrops("world");
+        for (int run = 0; run < 20; run++) {
+            CropUpdate update = new CropUpdate(crops, matureStem(crops));
+            int placed = FruitSpots.place(update, 0x0F, 8, 64, 8, Material.MELON, 1);
+
+            assertEquals(1, update.changes().size());
+            assertEquals(1, FruitSpots.fruits(placed));
+            assertEquals(3, Integer.bitCount(FruitSpots.free(placed)));
+            int side = sidesChanged(update).iterator().next();
+            assertEquals(0x10 << side, placed & 0xF0);
+        }
+    }
+
+    @Test
+    public void fullyOccupiedStemIsNeverDue() {
+        for (int side = 0; side < 4; side++) {
+            side(side, Material.MELON);
+        }
+        WorldCrops crops = new WorldCrops("world");
+        CropUpdate update = new CropUpdate(crops, matureStem(crops));
+
+        engine.simulate(world, update, NOW);
+
+        assertEquals(GrowthMath.NEVER, update.nextDue);
+        assertTrue(update.changes().isEmpty());
+        assertEquals((byte) 0xF0, update.fruitSpots);
+    }
+
+    @Test
+    public void stemWithNoRoomIsNeverDue() {
+        for (int side = 0; side < 4; side++) {
+            side(side, Material.STONE);
+        }
+        WorldCrops crops = new WorldCrops("world");
+        CropUpdate update = new CropUpdate(crops, matureStem(crops));
+
+        engine.simulate(world, update, NOW);
+
+        assertEquals(GrowthMath.NEVER, update.nextDue);
+        assertTrue(update.changes().isEmpty());
+        assertEquals((byte) 0, update.fruitSpots);
+    }
+
+    @Test
+    public void keptMaskIsTrustedUntilANeighbourClearsIt() {
+        WorldCrops crops = new WorldCrops("world");
+        int slot = matureStem(crops);
+        // Worked out when only the west side was free; since then that side got a block and north opened up
+        crops.setFruitSpots(slot, (byte) (1 << WEST | 0x10 << EAST | 0x10 << SOUTH));
+        side(WEST, Material.STONE);
+        side(EAST, Material.MELON);
+        side(SOUTH, Material.MELON);
+
+        CropUpdate kept = new CropUpdate(crops, slot);
+        engine.simulate(world, kept, NOW);
+        assertEquals(Set.of(WEST), sidesChanged(kept));
+
+        // What the block event beside the stem does; the next look reads the sides again
+        crops.setFruitSpots(slot, FruitSpots.UNKNOWN);
+        CropUpdate rescanned = new CropUpdate(crops, slot);
+        engine.simulate(world, rescanned, NOW);
+        assertEquals(Set.of(NORTH), sidesChanged(rescanned));
+        assertEquals((byte) (0x10 << EAST | 0x10 << SOUTH | 0x10 << NORTH), rescanned.fruitSpots);
+    }
+
+    @Test
+    public void maskClearedWhileOutIsReadAgain() {
+        WorldCrops crops = new WorldCrops("world");
+        int slot = matureStem(crops);
+        crops.setFruitSpots(slot, FruitSpots.STALE);
+        side(WEST, Material.STONE);
+        side(EAST, Material.STONE);
+        side(SOUTH, Material.STONE);
+
+        CropUpdate update = new CropUpdate(crops, slot);
+        engine.simulate(world, update, NOW);
+
+        assertEquals(Set.of(NORTH), sidesChanged(update));
+    }
+
+    @Test
+    public void incompleteMaskIsNotKept() {
+        WorldCrops crops = new WorldCrops("world");
+        world.set(15, 64, 8, TestWorld.blockData(Material.MELON_STEM, 7));
+        int slot = crops.put(BlockKey.pack(15, 64, 8), Material.MELON_STEM, NOW - 3_600_000L, 1, 0L, true);
+        world.unload(1, 0);
+
+        CropUpdate update = new CropUpdate(crops, slot);
+        engine.simulate(world, update, NOW);
+
+        assertEquals(FruitSpots.UNKNOWN, update.fruitSpots);
+        assertEquals(3, update.changes().size());
+    }
+}
@@ -0,0 +1,95 @@
+package com.Bit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GrowthMathTest {
+
+    private static final long PLANTED = 1_700_000_000_000L;
+
+    @Test
+    public void targetAgeSplitsGrowTimeIntoEqualStages() {
+        // Wheat: ages 0 to 7, so 8 stages of 1,000 ms over 8,000 ms
+        assertEquals(0, GrowthMath.targetAge(999, 8_000, 7));
+        assertEquals(1, GrowthMath.targetAge(1_000, 8_000, 7));
+        assertEquals(3, GrowthMath.targetAge(3_999, 8_000, 7));
+        assertEquals(7, GrowthMath.targetAge(7_000, 8_000, 7));
+        assertEquals(7, GrowthMath.targetAge(8_000, 8_000, 7));
+        assertEquals(7, GrowthMath.targetAge(Long.MAX_VALUE / 2, 8_000, 7));
+    }
+
+    @Test
+    public void noElapsedTimeMeansNoGrowth() {
+        assertEquals(0, GrowthMath.targetAge(0, 8_000, 7));
+        assertEquals(0, GrowthMath.targetAge(-5_000, 8_000, 7));
+        assertEquals(1, GrowthMath.targetHeight(0, 1_000, 3));
+        assertEquals(1, GrowthMath.targetHeight(-1, 1_000, 3));
+        assertEquals(1, GrowthMath.targetHeight(-5_000, 1_000, 3));
+        assertEquals(0, GrowthMath.fruitsDue(0, 1_000));
+        assertEquals(0, GrowthMath.fruitsDue(-5_000, 1_000));
+    }
+
+    // Checked at every millisecond of a grow time that does not divide into whole stages
+    @Test
+    public void nextAgeAtIsTheFirstTimeTargetAgeMovesOn() {
+        long growTime = 7_001;
+        int maxAge = 3;
+        for (int age = 0; age < maxAge; age++) {
+            long next = GrowthMath.nextAgeAt(PLANTED, growTime, age, maxAge);
+            assertTrue(GrowthMath.targetAge(next - PLANTED, growTime, maxAge) > age);
+            assertTrue(GrowthMath.targetAge(next - 1 - PLANTED, growTime, maxAge) <= age);
+        }
+
+        for (long elapsed = 0; elapsed <= growTime; elapsed++) {
+            int age = GrowthMath.targetAge(elapsed, growTime, maxAge);
+            if (age < maxAge) {
+                assertTrue(PLANTED + elapsed < GrowthMath.nextAgeAt(PLANTED, growTime, age, maxAge));
+            }
+        }
+    }
+
+    @Test
+    public void fullyGrownIsNeverDueAgain() {
+        assertEquals(GrowthMath.NEVER, GrowthMath.nextAgeAt(PLANTED, 8_000, 7, 7));
+        assertEquals(GrowthMath.NEVER, GrowthMath.nextAgeAt(PLANTED, 8_000, 9, 7));
+        assertEquals(GrowthMath.NEVER, GrowthMath.nextHeightAt(PLANTED, 1_000, 3, 3));
+    }
+
+    @Test
+    public void targetHeightAddsOneBlockPerIntervalUpToTheMaximum() {
+        assertEquals(1, GrowthMath.targetHeight(999, 1_000, 3));
+        assertEquals(2, GrowthMath.targetHeight(1_000, 1_000, 3));
+        assertEquals(3, GrowthMath.targetHeight(2_000, 1_000, 3));
+        assertEquals(3, GrowthMath.targetHeight(1_000_000, 1_000, 3));
+        assertEquals(3, GrowthMath.targetHeight(Long.MAX_VALUE, 1_000, 3));
+    }
+
+    @Test
+    public void nextHeightAtIsTheFirstTimeTargetHeightMovesOn() {
+        for (int height = 1; height < 3; height++) {
+            long next = GrowthMath.nextHeightAt(PLANTED, 1_000, height, 3);
+            assertEquals(height + 1, GrowthMath.targetHeight(next - PLANTED, 1_000, 3));
+            assertEquals(height, GrowthMath.targetHeight(next - 1 - PLANTED, 1_000, 3));
+        }
+    }
+
+    @Test
+    public void fruitsDueCountsWholeIntervals() {
+        assertEquals(0, GrowthMath.fruitsDue(999, 1_000));
+        assertEquals(1, GrowthMath.fruitsDue(1_000, 1_000));
+        assertEquals(2, GrowthMath.fruitsDue(2_999, 1_000));
+        assertEquals(Integer.MAX_VALUE, GrowthMath.fruitsDue(Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    public void plantedAtPutsAFoundCropAtTheStartOfItsStage() {
+        long now = PLANTED + 100_000;
+        for (int age = 1; age <= 7; age++) {
+            long planted = GrowthMath.plantedAt(now, 8_000, age, 7);
+            assertEquals(age, GrowthMath.targetAge(now - planted, 8_000, 7));
+        }
+        assertEquals(now, GrowthMath.plantedAt(now, 8_000, 0, 7));
+    }
+}
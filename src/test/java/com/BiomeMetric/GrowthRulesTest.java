@@ -0,0 +1,163 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.bukkit.block.Biome;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GrowthRulesTest {
+
+    private static final Biome JUNGLE = TestWorld.biome("JUNGLE", 0);
+    private static final Biome BAMBOO_JUNGLE = TestWorld.biome("BAMBOO_JUNGLE", 1);
+    private static final Biome DESERT = TestWorld.biome("DESERT", 2);
+    private static final Biome PLAINS = TestWorld.biome("PLAINS", 3);
+    private static final List<Biome> BIOMES = List.of(JUNGLE, BAMBOO_JUNGLE, DESERT, PLAINS);
+
+    private static final String BASE = """
+            default-max-height: 4
+            biome-groups:
+              Tropical:
+                - jungle
+                - minecraft:BAMBOO_JUNGLE
+              Arid:
+                - DESERT
+                - JUNGLE
+            groups:
+              Tropical:
+                WHEAT: 100
+                CARROTS: 200
+                CACTUS-max-height: 2
+              Arid:
+                WHEAT: 300
+            """;
+
+    @Test
+    public void biomeNamesAreNormalised() {
+        assertEquals("JUNGLE", GrowthRules.normalize("jungle"));
+        assertEquals("JUNGLE", GrowthRules.normalize(" minecraft:jungle "));
+        assertEquals("BAMBOO_JUNGLE", GrowthRules.normalize("Minecraft:Bamboo_Jungle"));
+        assertEquals("terralith:orchid_swamp", GrowthRules.normalize("Terralith:Orchid_Swamp"));
+    }
+
+    @Test
+    public void groupsCompileToRowsSharedByTheirBiomes() {
+        GrowthRules rules = compile(BASE);
+
+        assertEquals(2, rules.groupCount());
+        GrowthRules.BiomeRules jungle = rules.forBiome(JUNGLE);
+        assertEquals("Tropical", jungle.group);
+        assertSame(jungle, rules.forBiome(BAMBOO_JUNGLE));
+        assertSame(jungle, rules.forName("minecraft:jungle"));
+        assertEquals(100_000L, jungle.growTime(Material.WHEAT));
+        assertEquals(200_000L, jungle.growTime(Material.CARROTS));
+        assertEquals(-1L, jungle.growTime(Material.POTATOES));
+        assertEquals(2, jungle.maxHeight(Material.CACTUS));
+        assertEquals(4, jungle.maxHeight(Material.SUGAR_CANE));
+
+        // JUNGLE is listed by Arid too, but the first group to list a biome wins
+        assertEquals("Arid", rules.forBiome(DESERT).group);
+        assertEquals(300_000L, rules.forBiome(DESERT).growTime(Material.WHEAT));
+
+        GrowthRules.BiomeRules plains = rules.forBiome(PLAINS);
+        assertNull(plains.group);
+        assertEquals(-1L, plains.growTime(Material.WHEAT));
+        assertEquals(4, plains.maxHeight(Material.CACTUS));
+        // Not a tracked crop
+        assertEquals(-1L, plains.growTime(Material.STONE));
+        assertEquals(0, plains.maxHeight(Material.STONE));
+    }
+
+    @Test
+    public void biomeOverridesLayerOverTheirGroup() {
+        GrowthRules rules = compile(BASE + """
+                biomes:
+                  minecraft:bamboo_jungle:
+                    CARROTS: 50
+                    CARROTS-max-height: 7
+                  plains:
+                    POTATOES: 60
+                """);
+
+        GrowthRules.BiomeRules bamboo = rules.forBiome(BAMBOO_JUNGLE);
+        assertEquals("Tropical", bamboo.group);
+        assertEquals(50_000L, bamboo.growTime(Material.CARROTS));
+        assertEquals(7, bamboo.maxHeight(Material.CARROTS));
+        assertEquals(100_000L, bamboo.growTime(Material.WHEAT));
+        assertEquals(2, bamboo.maxHeight(Material.CACTUS));
+
+        // The rest of the group keeps the group's values
+        assertEquals(200_000L, rules.forBiome(JUNGLE).growTime(Material.CARROTS));
+
+        GrowthRules.BiomeRules plains = rules.forBiome(PLAINS);
+        assertNull(plains.group);
+        assertEquals(60_000L, plains.growTime(Material.POTATOES));
+        assertEquals(-1L, plains.growTime(Material.WHEAT));
+        assertEquals(4, plains.maxHeight(Material.SUGAR_CANE));
+    }
+
+    @Test
+    public void unchangedConfigHasNoChanges() {
+        GrowthRules.Changes changes = compile(BASE).changes(compile(BASE), BIOMES);
+
+        assertEquals(0, changes.pairs());
+        for (int id = 0; id < CropTypes.count(); id++) {
+            assertFalse(changes.anyBiome(id));
+        }
+    }
+
+    @Test
+    public void changedValueMarksOnlyItsBiomesAndCrop() {
+        GrowthRules.Changes changes = compile(BASE).changes(compile(BASE.replace("CARROTS: 200", "CARROTS: 250")), BIOMES);
+
+        int carrots = CropTypes.id(Material.CARROTS);
+        assertEquals(2, changes.pairs());
+        assertTrue(changes.anyBiome(carrots));
+        assertFalse(changes.anyBiome(CropTypes.id(Material.WHEAT)));
+        assertTrue(changes.in(JUNGLE, carrots));
+        assertTrue(changes.in(BAMBOO_JUNGLE, carrots));
+        assertFalse(changes.in(DESERT, carrots));
+        assertFalse(changes.in(PLAINS, carrots));
+        assertFalse(changes.in(TestWorld.biome("FOREST", 40), carrots));
+    }
+
+    @Test
+    public void addedAndRemovedEntriesAreChanges() {
+        GrowthRules before = compile(BASE);
+        int wheat = CropTypes.id(Material.WHEAT);
+        int potatoes = CropTypes.id(Material.POTATOES);
+
+        // A biome joining a group takes the group's values
+        GrowthRules joined = compile(BASE.replace("    - DESERT\n", "    - DESERT\n    - PLAINS\n"));
+        GrowthRules.Changes added = before.changes(joined, BIOMES);
+        assertTrue(added.in(PLAINS, wheat));
+        assertFalse(added.in(DESERT, wheat));
+        assertEquals(1, added.pairs());
+
+        // A crop key added to a group
+        GrowthRules.Changes keyAdded = before.changes(compile(BASE.replace("    WHEAT: 300\n", "    WHEAT: 300\n    POTATOES: 10\n")), BIOMES);
+        assertTrue(keyAdded.in(DESERT, potatoes));
+        assertEquals(1, keyAdded.pairs());
+
+        // A biome leaving its group falls back to the unlisted defaults
+        GrowthRules left = compile(BASE.replace("    - minecraft:BAMBOO_JUNGLE\n", ""));
+        GrowthRules.Changes removed = before.changes(left, BIOMES);
+        assertTrue(removed.in(BAMBOO_JUNGLE, wheat));
+        assertTrue(removed.in(BAMBOO_JUNGLE, CropTypes.id(Material.CARROTS)));
+        assertTrue(removed.in(BAMBOO_JUNGLE, CropTypes.id(Material.CACTUS)));
+        assertFalse(removed.in(JUNGLE, wheat));
+        assertEquals(3, removed.pairs());
+    }
+
+    private static GrowthRules compile(String yaml) {
+        return GrowthRules.compile(YamlConfiguration.loadConfiguration(new StringReader(yaml)));
+    }
+}
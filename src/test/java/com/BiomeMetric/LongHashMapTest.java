@@ -0,0 +1,160 @@
+package com.Bit;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LongHashMapTest {
+
+    // Slot a key lands in when it is alone in a fresh map, which is where its probe run starts
+    static int homeSlot(long key) {
+        LongHashMap<Boolean> map = new LongHashMap<>();
+        map.put(key, true);
+        for (int slot = 0; slot < map.capacity(); slot++) {
+            if (map.valueAt(slot) != null) return slot;
+        }
+        throw new AssertionError("key not stored");
+    }
+
+    // The first 'count' keys from 'from' on that start their probe run at 'slot' in a fresh map
+    static long[] keysHomedAt(int slot, int count, long from) {
+        long[] keys = new long[count];
+        int found = 0;
+        for (long key = from; found < count; key++) {
+            if (homeSlot(key) == slot) keys[found++] = key;
+        }
+        return keys;
+    }
+
+    @Test
+    public void putGetAndReplace() {
+        LongHashMap<String> map = new LongHashMap<>();
+        long pos = BlockKey.pack(-30_000_000, -64, 29_999_999);
+
+        assertNull(map.put(pos, "wheat"));
+        assertEquals("wheat", map.put(pos, "carrots"));
+        assertEquals("carrots", map.get(pos));
+        assertEquals(1, map.size());
+        assertNull(map.get(pos + 1));
+        assertFalse(map.containsKey(pos + 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullValuesAreRejected() {
+        new LongHashMap<String>().put(1L, null);
+    }
+
+    @Test
+    public void collisionChainKeepsEveryKey() {
+        long[] keys = keysHomedAt(3, 4, 0L);
+        LongHashMap<Long> map = new LongHashMap<>();
+        for (long key : keys) {
+            map.put(key, key);
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(keys[i], map.keyAt(3 + i));
+            assertEquals(Long.valueOf(keys[i]), map.get(keys[i]));
+        }
+    }
+
+    @Test
+    public void removeShiftsBackAcrossTheWrap() {
+        // Three keys homed at the last slot run over into slots 0 and 1; one homed at 0 goes to 2
+        int last = new LongHashMap<>().capacity() - 1;
+        long[] wrapped = keysHomedAt(last, 3, 0L);
+        long atZero = keysHomedAt(0, 1, 0L)[0];
+        LongHashMap<Long> map = new LongHashMap<>();
+        for (long key : wrapped) {
+            map.put(key, key);
+        }
+        map.put(atZero, atZero);
+        assertEquals(atZero, map.keyAt(2));
+
+        assertEquals(Long.valueOf(wrapped[0]), map.remove(wrapped[0]));
+        assertEquals(wrapped[1], map.keyAt(last));
+        assertEquals(wrapped[2], map.keyAt(0));
+        assertEquals(atZero, map.keyAt(1));
+        assertNull(map.valueAt(2));
+
+        // Removing from the middle must not strand the key homed at 0 behind a gap
+        map.remove(wrapped[2]);
+        assertEquals(Long.valueOf(atZero), map.get(atZero));
+        assertEquals(Long.valueOf(wrapped[1]), map.get(wrapped[1]));
+        assertNull(map.get(wrapped[0]));
+        assertNull(map.get(wrapped[2]));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void growsAndKeepsEntries() {
+        LongHashMap<Integer> map = new LongHashMap<>();
+        int initial = map.capacity();
+        for (int i = 0; i < 10_000; i++) {
+            map.put(BlockKey.pack(i % 100, 64, i / 100), i);
+        }
+
+        assertEquals(10_000, map.size());
+        assertTrue(map.capacity() > initial);
+        assertEquals(1, Integer.bitCount(map.capacity()));
+        assertTrue(map.size() < map.capacity() * 0.75);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(Integer.valueOf(i), map.get(BlockKey.pack(i % 100, 64, i / 100)));
+        }
+    }
+
+    @Test
+    public void clearEmptiesEverySlot() {
+        LongHashMap<Boolean> map = new LongHashMap<>();
+        for (long key = 0; key < 100; key++) {
+            map.put(key, true);
+        }
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        for (int slot = 0; slot < map.capacity(); slot++) {
+            assertNull(map.valueAt(slot));
+        }
+        assertNull(map.get(5L));
+        map.put(5L, false);
+        assertEquals(Boolean.FALSE, map.get(5L));
+    }
+
+    @Test
+    public void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(7L);
+        LongHashMap<Integer> map = new LongHashMap<>();
+        Map<Long, Integer> reference = new HashMap<>();
+
+        for (int op = 0; op < 200_000; op++) {
+            // A narrow key range so removes hit and probe runs get long
+            long key = BlockKey.pack(random.nextInt(64) - 32, random.nextInt(8), random.nextInt(64) - 32);
+            if (random.nextInt(3) == 0) {
+                assertEquals(reference.remove(key), map.remove(key));
+            } else {
+                int value = random.nextInt();
+                assertEquals(reference.put(key, value), map.put(key, value));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+
+        int seen = 0;
+        for (int slot = 0; slot < map.capacity(); slot++) {
+            Integer value = map.valueAt(slot);
+            if (value == null) continue;
+            assertEquals(reference.get(map.keyAt(slot)), value);
+            seen++;
+        }
+        assertEquals(reference.size(), seen);
+        for (Map.Entry<Long, Integer> entry : reference.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+}
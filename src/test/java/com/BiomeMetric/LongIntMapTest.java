@@ -0,0 +1,115 @@
+package com.Bit;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// LongIntMap hashes like LongHashMap and starts at the same capacity, so keys that share a probe
+// run in one share it in the other
+public class LongIntMapTest {
+
+    @Test
+    public void putGetAndReplace() {
+        LongIntMap map = new LongIntMap();
+        long pos = BlockKey.pack(12, -64, -7);
+
+        assertEquals(-1, map.get(pos));
+        assertEquals(-1, map.put(pos, 0));
+        assertEquals(0, map.put(pos, 42));
+        assertEquals(42, map.get(pos));
+        assertEquals(1, map.size());
+        assertEquals(42, map.remove(pos));
+        assertEquals(-1, map.remove(pos));
+        assertEquals(0, map.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeValuesAreRejected() {
+        new LongIntMap().put(1L, -1);
+    }
+
+    @Test
+    public void collisionChainKeepsEveryKey() {
+        long[] keys = LongHashMapTest.keysHomedAt(5, 5, 0L);
+        LongIntMap map = new LongIntMap();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i, map.get(keys[i]));
+        }
+    }
+
+    @Test
+    public void removeShiftsBackAcrossTheWrap() {
+        int last = new LongIntMap().capacity() - 1;
+        long[] wrapped = LongHashMapTest.keysHomedAt(last, 3, 0L);
+        long[] atZero = LongHashMapTest.keysHomedAt(0, 2, 0L);
+        LongIntMap map = new LongIntMap();
+        for (int i = 0; i < wrapped.length; i++) {
+            map.put(wrapped[i], i);
+        }
+        map.put(atZero[0], 10);
+        map.put(atZero[1], 11);
+
+        // Each removal opens a gap inside a run that crosses the end of the table
+        assertEquals(0, map.remove(wrapped[0]));
+        assertEquals(2, map.remove(wrapped[2]));
+        assertEquals(1, map.get(wrapped[1]));
+        assertEquals(10, map.get(atZero[0]));
+        assertEquals(11, map.get(atZero[1]));
+        assertEquals(10, map.remove(atZero[0]));
+        assertEquals(11, map.get(atZero[1]));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void growsAndKeepsEntries() {
+        LongIntMap map = new LongIntMap();
+        int initial = map.capacity();
+        for (int i = 0; i < 50_000; i++) {
+            map.put(BlockKey.pack(i % 250, i % 7, i / 250), i);
+        }
+
+        assertEquals(50_000, map.size());
+        assertTrue(map.capacity() > initial);
+        assertTrue(map.size() < map.capacity() * 0.75);
+        for (int i = 0; i < 50_000; i++) {
+            assertEquals(i, map.get(BlockKey.pack(i % 250, i % 7, i / 250)));
+        }
+    }
+
+    @Test
+    public void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(11L);
+        LongIntMap map = new LongIntMap();
+        Map<Long, Integer> reference = new HashMap<>();
+
+        for (int op = 0; op < 200_000; op++) {
+            long key = BlockKey.pack(random.nextInt(48), random.nextInt(16) - 8, random.nextInt(48));
+            if (random.nextInt(3) == 0) {
+                Integer removed = reference.remove(key);
+                assertEquals(removed == null ? -1 : removed, map.remove(key));
+            } else {
+                int value = random.nextInt(Integer.MAX_VALUE);
+                Integer previous = reference.put(key, value);
+                assertEquals(previous == null ? -1 : previous, map.put(key, value));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+
+        for (Map.Entry<Long, Integer> entry : reference.entrySet()) {
+            assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+        }
+        for (int i = 0; i < 1_000; i++) {
+            long key = BlockKey.pack(random.nextInt(48), random.nextInt(16) - 8, random.nextInt(48));
+            assertEquals(reference.containsKey(key) ? reference.get(key) : -1, map.get(key));
+        }
+    }
+}
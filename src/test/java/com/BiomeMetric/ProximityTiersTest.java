@@ -0,0 +1,143 @@
+package com.Bit;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ProximityTiersTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long INTERVAL = 10_000L;
+    private static final int GROUND = 64;
+
+    @Test
+    public void onlyWhenEnabled() {
+        assertNull(ProximityTiers.fromConfig(null));
+        assertNull(ProximityTiers.fromConfig(section("radius: 64")));
+        assertNull(ProximityTiers.fromConfig(section("enabled: false")));
+        assertNotNull(ProximityTiers.fromConfig(section("enabled: true")));
+    }
+
+    @Test
+    public void radiusCoversWholeChunksAroundEachPlayer() {
+        // 20 blocks reaches into the second chunk out
+        ProximityTiers tiers = ProximityTiers.fromConfig(section("enabled: true\nradius: 20\nfar-interval: 300"));
+        assertEquals(300_000L, tiers.farIntervalMillis());
+
+        World world = world("world");
+        tiers.rebuild(List.of(player(world, 8, 8), player(world("nether"), 500, 500)));
+
+        assertTrue(tiers.isNear("world", WorldCrops.chunkKey(0, 0)));
+        assertTrue(tiers.isNear("world", WorldCrops.chunkKey(2, -2)));
+        assertTrue(tiers.isNear("world", WorldCrops.chunkKey(-2, 1)));
+        assertFalse(tiers.isNear("world", WorldCrops.chunkKey(3, 0)));
+        assertFalse(tiers.isNear("world", WorldCrops.chunkKey(500 >> 4, 500 >> 4)));
+        assertTrue(tiers.isNear("nether", WorldCrops.chunkKey(500 >> 4, 500 >> 4)));
+        assertFalse(tiers.isNear("the_end", WorldCrops.chunkKey(0, 0)));
+
+        // Nobody online, nothing near
+        tiers.rebuild(List.of());
+        assertFalse(tiers.isNear("world", WorldCrops.chunkKey(0, 0)));
+    }
+
+    // Chunks a player walks into come back from the rebuild, so crops held back there are called in again
+    @Test
+    public void rebuildReportsOnlyChunksThatCameIntoRange() {
+        ProximityTiers tiers = ProximityTiers.fromConfig(section("enabled: true\nradius: 0"));
+        World world = world("world");
+
+        Map<String, LongHashMap<Boolean>> entered = tiers.rebuild(List.of(player(world, 8, 8)));
+        assertEquals(1, entered.get("world").size());
+        assertNotNull(entered.get("world").get(WorldCrops.chunkKey(0, 0)));
+
+        assertTrue(tiers.rebuild(List.of(player(world, 9, 9))).isEmpty());
+
+        entered = tiers.rebuild(List.of(player(world, 9, 9), player(world, 40, 8)));
+        assertEquals(1, entered.get("world").size());
+        assertNotNull(entered.get("world").get(WorldCrops.chunkKey(2, 0)));
+
+        // Left and came back
+        tiers.rebuild(List.of(player(world, 40, 8)));
+        entered = tiers.rebuild(List.of(player(world, 8, 8)));
+        assertNotNull(entered.get("world").get(WorldCrops.chunkKey(0, 0)));
+    }
+
+    // A crop nobody is near waits for the far cadence; one near a player keeps its own due time
+    @Test
+    public void cropsFarFromPlayersAreDeferredToTheFarInterval() {
+        ProximityTiers tiers = ProximityTiers.fromConfig(section("enabled: true\nradius: 16\nfar-interval: 600"));
+        tiers.rebuild(List.of(player(world("world"), 8, 8)));
+
+        TestWorld world = new TestWorld(GROUND);
+        GrowthShard shard = new GrowthShard("world", 0, 0, 5, new GrowthMetrics());
+        GrowthPipeline pipeline = new GrowthPipeline(new TestHost(world, INTERVAL, 10, tiers), null, null, () -> NOW);
+        WorldCrops crops = shard.cropsIn("world");
+
+        // Both saplings are boxed in, so the generator fails and they back off one interval
+        long near = BlockKey.pack(20, GROUND, 8);
+        long far = BlockKey.pack(100, GROUND, 8);
+        queueBlockedSapling(world, shard, crops, near);
+        queueBlockedSapling(world, shard, crops, far);
+        pipeline.growTrees(shard, NOW);
+
+        int nearSlot = crops.slotOf(near);
+        assertEquals(NOW + INTERVAL, crops.nextDue(nearSlot));
+        assertFalse(crops.deferred(nearSlot));
+
+        int farSlot = crops.slotOf(far);
+        assertEquals(NOW + 600_000L, crops.nextDue(farSlot));
+        assertTrue(crops.deferred(farSlot));
+        assertEquals(NOW + INTERVAL, shard.dueQueue.headDue());
+    }
+
+    private static void queueBlockedSapling(TestWorld world, GrowthShard shard, WorldCrops crops, long pos) {
+        int x = BlockKey.x(pos);
+        int z = BlockKey.z(pos);
+        world.set(x, GROUND, z, Material.OAK_SAPLING);
+        world.set(x, GROUND + 1, z, Material.STONE);
+        int slot = crops.put(pos, Material.OAK_SAPLING, NOW, 1, 0L, true);
+        crops.setNextDue(slot, GrowthPipeline.IN_FLIGHT);
+        shard.saplings.queue(crops, pos, Material.OAK_SAPLING);
+    }
+
+    private static ConfigurationSection section(String yaml) {
+        return YamlConfiguration.loadConfiguration(new StringReader(yaml));
+    }
+
+    private static World world(String name) {
+        return (World) Proxy.newProxyInstance(ProximityTiersTest.class.getClassLoader(), new Class<?>[]{World.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getName", "toString" -> name;
+                    case "hashCode" -> name.hashCode();
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.toString());
+                });
+    }
+
+    private static Player player(World world, int x, int z) {
+        Location location = new Location(world, x + 0.5, GROUND, z + 0.5);
+        return (Player) Proxy.newProxyInstance(ProximityTiersTest.class.getClassLoader(), new Class<?>[]{Player.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getLocation" -> location;
+                    case "getWorld" -> world;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.toString());
+                });
+    }
+}
@@ -0,0 +1,194 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RegionCropStoreTest {
+
+    private static final long PLANTED = 1_700_000_000_000L;
+    private static final Logger LOGGER = Logger.getLogger("RegionCropStoreTest");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // Everything a fresh store over the same directory reads back, as world:x:y:z -> record
+    static Map<String, CropRecord> loadAll(CropStore store) throws IOException {
+        Map<String, CropRecord> loaded = new HashMap<>();
+        store.load((worldName, pos, record) -> loaded.put(key(worldName, pos), record));
+        return loaded;
+    }
+
+    static String key(String worldName, long pos) {
+        return worldName + ":" + BlockKey.x(pos) + ":" + BlockKey.y(pos) + ":" + BlockKey.z(pos);
+    }
+
+    private Path root() {
+        return folder.getRoot().toPath().resolve("crops");
+    }
+
+    private RegionCropStore store() {
+        return new RegionCropStore(root(), LOGGER);
+    }
+
+    private Path regionFile(String worldName, int regionX, int regionZ) {
+        return root().resolve(worldName).resolve("r." + regionX + "." + regionZ + ".bmc");
+    }
+
+    @Test
+    public void roundTripsRecordsAcrossWorldsAndRegions() throws IOException {
+        Map<String, CropRecord> expected = new HashMap<>();
+        RegionCropStore store = store();
+        long[] positions = {
+                BlockKey.pack(0, 64, 0), BlockKey.pack(511, -64, 511), BlockKey.pack(-1, 319, -1),
+                BlockKey.pack(-30_000_000, 70, 29_999_999), BlockKey.pack(1_000, 62, -2_000)
+        };
+        Material[] types = {Material.WHEAT, Material.SUGAR_CANE, Material.MELON_STEM, Material.OAK_SAPLING, Material.KELP};
+        for (int i = 0; i < positions.length; i++) {
+            String worldName = i % 2 == 0 ? "world" : "world_nether";
+            CropRecord record = new CropRecord(types[i], PLANTED - i * 60_000L, 1 + i, i == 2 ? PLANTED + 5_000L : 0L);
+            store.write(worldName, positions[i], record);
+            expected.put(key(worldName, positions[i]), record);
+        }
+
+        long written = store.commit();
+
+        assertTrue(written > 0);
+        assertEquals(expected, loadAll(store()));
+        assertTrue(Files.exists(regionFile("world", 0, 0)));
+        assertTrue(Files.exists(regionFile("world", -1, -1)));
+        assertTrue(Files.exists(regionFile("world_nether", 0, 0)));
+    }
+
+    @Test
+    public void commitLeavesNoTemporaryFiles() throws IOException {
+        RegionCropStore store = store();
+        store.write("world", BlockKey.pack(3, 64, 3), new CropRecord(Material.CARROTS, PLANTED, 1, 0L));
+        store.commit();
+        store.write("world", BlockKey.pack(4, 64, 3), new CropRecord(Material.POTATOES, PLANTED, 1, 0L));
+        store.commit();
+
+        File[] files = root().resolve("world").toFile().listFiles();
+        assertEquals(1, files.length);
+        assertEquals("r.0.0.bmc", files[0].getName());
+    }
+
+    @Test
+    public void laterCommitsMergeWithTheRegionOnDisk() throws IOException {
+        long first = BlockKey.pack(1, 64, 1);
+        long second = BlockKey.pack(2, 64, 1);
+        RegionCropStore store = store();
+        store.write("world", first, new CropRecord(Material.WHEAT, PLANTED, 1, 0L));
+        store.commit();
+
+        RegionCropStore restarted = store();
+        CropRecord replaced = new CropRecord(Material.BEETROOTS, PLANTED + 1, 1, 0L);
+        restarted.write("world", second, new CropRecord(Material.CACTUS, PLANTED, 3, 0L));
+        restarted.write("world", first, replaced);
+        restarted.commit();
+
+        Map<String, CropRecord> loaded = loadAll(store());
+        assertEquals(2, loaded.size());
+        assertEquals(replaced, loaded.get(key("world", first)));
+        assertEquals(3, loaded.get(key("world", second)).height());
+    }
+
+    @Test
+    public void removingTheLastRecordDeletesTheRegion() throws IOException {
+        long kept = BlockKey.pack(600, 64, 0);
+        long removed = BlockKey.pack(5, 64, 5);
+        RegionCropStore store = store();
+        store.write("world", kept, new CropRecord(Material.WHEAT, PLANTED, 1, 0L));
+        store.write("world", removed, new CropRecord(Material.WHEAT, PLANTED, 1, 0L));
+        store.commit();
+
+        store.write("world", removed, CropRecord.REMOVED);
+        assertEquals(0, store.commit());
+
+        assertFalse(Files.exists(regionFile("world", 0, 0)));
+        assertEquals(Map.of(key("world", kept), new CropRecord(Material.WHEAT, PLANTED, 1, 0L)), loadAll(store()));
+    }
+
+    @Test
+    public void flippedRecordByteIsQuarantinedAndNotLoaded() throws IOException {
+        RegionCropStore store = store();
+        for (int x = 0; x < 10; x++) {
+            store.write("world", BlockKey.pack(x, 64, 0), new CropRecord(Material.WHEAT, PLANTED, 1, 0L));
+        }
+        store.commit();
+        Path file = regionFile("world", 0, 0);
+
+        // The last byte of the last record; the header still matches the length, only the CRC32 catches it
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(raf.length() - 1);
+            int last = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(last ^ 0x01);
+        }
+
+        assertTrue(loadAll(store()).isEmpty());
+        assertFalse(Files.exists(file));
+        assertTrue(Files.exists(file.resolveSibling("r.0.0.bmc.corrupt")));
+    }
+
+    @Test
+    public void truncatedRegionIsQuarantinedAndNotLoaded() throws IOException {
+        RegionCropStore store = store();
+        store.write("world", BlockKey.pack(0, 64, 0), new CropRecord(Material.WHEAT, PLANTED, 1, 0L));
+        store.write("world", BlockKey.pack(1, 64, 0), new CropRecord(Material.WHEAT, PLANTED, 1, 0L));
+        store.commit();
+        Path file = regionFile("world", 0, 0);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+
+        assertTrue(loadAll(store()).isEmpty());
+        assertTrue(Files.exists(file.resolveSibling("r.0.0.bmc.corrupt")));
+    }
+
+    @Test
+    public void commitOverADamagedRegionAsksForItsFullContents() throws IOException {
+        Path file = regionFile("world", 0, 0);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+
+        long pos = BlockKey.pack(8, 64, 8);
+        CropRecord record = new CropRecord(Material.PUMPKIN_STEM, PLANTED, 1, PLANTED + 90_000L);
+        RegionCropStore store = store();
+        List<String> damaged = new ArrayList<>();
+        store.onDamaged((worldName, regionX, regionZ) -> damaged.add(worldName + ":" + regionX + ":" + regionZ));
+        store.write("world", pos, record);
+        store.commit();
+
+        assertTrue(Files.exists(file.resolveSibling("r.0.0.bmc.corrupt")));
+        assertEquals(List.of("world:0:0"), damaged);
+        assertEquals(Map.of(key("world", pos), record), loadAll(store()));
+
+        // What the plugin does when told: everything it holds for the region is written again
+        long other = BlockKey.pack(300, 70, 40);
+        CropRecord wheat = new CropRecord(Material.WHEAT, PLANTED, 3, 0L);
+        store.write("world", pos, record);
+        store.write("world", other, wheat);
+        store.commit();
+
+        assertEquals(List.of("world:0:0"), damaged);
+        assertEquals(Map.of(key("world", pos), record, key("world", other), wheat), loadAll(store()));
+    }
+}
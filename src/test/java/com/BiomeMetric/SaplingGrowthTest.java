@@ -0,0 +1,156 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SaplingGrowthTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long INTERVAL = 10_000L;
+    private static final int GROUND = 64;
+
+    // Trunk height and the first ring layer above the sapling, per type
+    private static final Map<Material, int[]> CLEARANCE = Map.of(
+            Material.OAK_SAPLING, new int[]{4, 1},
+            Material.SPRUCE_SAPLING, new int[]{5, 2},
+            Material.BIRCH_SAPLING, new int[]{5, 1},
+            Material.JUNGLE_SAPLING, new int[]{10, 1},
+            Material.ACACIA_SAPLING, new int[]{5, 1},
+            Material.DARK_OAK_SAPLING, new int[]{6, 1},
+            Material.MANGROVE_PROPAGULE, new int[]{2, 2},
+            Material.CHERRY_SAPLING, new int[]{7, 1});
+
+    @Test
+    public void openSkyHasRoomForEveryType() {
+        TestWorld world = new TestWorld(GROUND);
+        for (Material type : CLEARANCE.keySet()) {
+            assertTrue(type.name(), SaplingGrowth.hasRoom(world, 8, GROUND, 8, type));
+        }
+        assertFalse(SaplingGrowth.hasRoom(world, 8, GROUND, 8, Material.WHEAT));
+    }
+
+    @Test
+    public void blockInTheTrunkColumnLeavesNoRoom() {
+        for (Map.Entry<Material, int[]> entry : CLEARANCE.entrySet()) {
+            Material type = entry.getKey();
+            int trunk = entry.getValue()[0];
+
+            TestWorld top = new TestWorld(GROUND);
+            top.set(8, GROUND + trunk - 1, 8, Material.STONE);
+            assertFalse(type.name(), SaplingGrowth.hasRoom(top, 8, GROUND, 8, type));
+
+            TestWorld above = new TestWorld(GROUND);
+            above.set(8, GROUND + trunk, 8, Material.STONE);
+            assertTrue(type.name(), SaplingGrowth.hasRoom(above, 8, GROUND, 8, type));
+        }
+    }
+
+    @Test
+    public void ringIsCheckedFromItsTypesLayer() {
+        for (Map.Entry<Material, int[]> entry : CLEARANCE.entrySet()) {
+            Material type = entry.getKey();
+            int trunk = entry.getValue()[0];
+            int ringFrom = entry.getValue()[1];
+
+            TestWorld ring = new TestWorld(GROUND);
+            ring.set(9, GROUND + ringFrom, 7, Material.COBBLESTONE);
+            // A ring starting at the trunk's top layer is never reached
+            assertEquals(type.name(), ringFrom >= trunk, SaplingGrowth.hasRoom(ring, 8, GROUND, 8, type));
+
+            if (ringFrom > 1) {
+                TestWorld below = new TestWorld(GROUND);
+                below.set(9, GROUND + ringFrom - 1, 8, Material.COBBLESTONE);
+                assertTrue(type.name(), SaplingGrowth.hasRoom(below, 8, GROUND, 8, type));
+            }
+        }
+    }
+
+    @Test
+    public void leavesLogsAndSnowDoNotBlock() {
+        TestWorld world = new TestWorld(GROUND);
+        world.set(8, GROUND + 1, 8, Material.SNOW);
+        world.set(8, GROUND + 2, 8, Material.OAK_LEAVES);
+        world.set(9, GROUND + 2, 8, Material.OAK_LOG);
+        world.set(7, GROUND + 3, 9, Material.TALL_GRASS);
+        assertTrue(SaplingGrowth.hasRoom(world, 8, GROUND, 8, Material.OAK_SAPLING));
+    }
+
+    // Columns in a chunk the view does not hold are left for the generator to find out about
+    @Test
+    public void unloadedColumnsCountAsClear() {
+        TestWorld world = new TestWorld(GROUND);
+        world.set(16, GROUND + 2, 8, Material.STONE);
+        assertFalse(SaplingGrowth.hasRoom(world, 15, GROUND, 8, Material.OAK_SAPLING));
+
+        world.unload(1, 0);
+        assertTrue(SaplingGrowth.hasRoom(world, 15, GROUND, 8, Material.OAK_SAPLING));
+    }
+
+    @Test
+    public void backoffDoublesUpToItsCap() {
+        SaplingGrowth saplings = new SaplingGrowth();
+        WorldCrops crops = new WorldCrops("world");
+        long pos = BlockKey.pack(8, GROUND, 8);
+        assertNull(saplings.blockedIn(crops));
+
+        long[] waits = {1, 2, 4, 8, 16, 32, 64, 64, 64};
+        for (long wait : waits) {
+            assertEquals(NOW + wait * INTERVAL, saplings.backoff(crops, pos, NOW, INTERVAL));
+        }
+        assertEquals(waits.length, saplings.blockedIn(crops).get(pos));
+
+        // Each sapling keeps its own count, and one forgotten starts over
+        long other = BlockKey.pack(9, GROUND, 8);
+        assertEquals(NOW + INTERVAL, saplings.backoff(crops, other, NOW, INTERVAL));
+        saplings.forget(crops, pos);
+        assertEquals(NOW + INTERVAL, saplings.backoff(crops, pos, NOW, INTERVAL));
+    }
+
+    @Test
+    public void onlyTreesPerTickGeneratorsRunEachTick() {
+        TestWorld world = new TestWorld(GROUND);
+        GrowthShard shard = new GrowthShard("world", 0, 0, 5, new GrowthMetrics());
+        GrowthPipeline pipeline = new GrowthPipeline(new TestHost(world, INTERVAL, 2, null), null, null, () -> NOW);
+        WorldCrops crops = shard.cropsIn("world");
+
+        // A sapling removed while it waited is dropped without using up the limit
+        long removed = BlockKey.pack(0, GROUND, 0);
+        queueSapling(world, shard, crops, removed);
+        crops.remove(removed);
+        for (int x = 1; x <= 5; x++) {
+            queueSapling(world, shard, crops, BlockKey.pack(x * 4, GROUND, 0));
+        }
+        // A boxed-in one still costs a generator run
+        world.set(4, GROUND + 2, 0, Material.STONE);
+
+        pipeline.growTrees(shard, NOW);
+        assertEquals(1, world.trees());
+        assertEquals(3, shard.saplings.queued());
+        int blocked = crops.slotOf(BlockKey.pack(4, GROUND, 0));
+        assertEquals(NOW + INTERVAL, crops.nextDue(blocked));
+        assertEquals(1, shard.saplings.blockedIn(crops).get(BlockKey.pack(4, GROUND, 0)));
+
+        pipeline.growTrees(shard, NOW);
+        assertEquals(3, world.trees());
+        assertEquals(1, shard.saplings.queued());
+
+        pipeline.growTrees(shard, NOW);
+        assertEquals(4, world.trees());
+        assertEquals(0, shard.saplings.queued());
+        assertEquals(1, crops.size());
+    }
+
+    private static void queueSapling(TestWorld world, GrowthShard shard, WorldCrops crops, long pos) {
+        world.set(BlockKey.x(pos), BlockKey.y(pos), BlockKey.z(pos), Material.OAK_SAPLING);
+        int slot = crops.put(pos, Material.OAK_SAPLING, NOW, 1, 0L, true);
+        crops.setNextDue(slot, GrowthPipeline.IN_FLIGHT);
+        shard.saplings.queue(crops, pos, Material.OAK_SAPLING);
+    }
+}
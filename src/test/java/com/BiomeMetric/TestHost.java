@@ -0,0 +1,18 @@
+package com.Bit;
+
+// GrowthPipeline.Host over a single test world that saves nothing
+record TestHost(WorldAccess world, long intervalMillis, int treesPerTick, ProximityTiers tiers) implements GrowthPipeline.Host {
+
+    @Override
+    public WorldAccess world(GrowthShard shard, String worldName) {
+        return world;
+    }
+
+    @Override
+    public void markDirty(WorldCrops crops, int slot) {
+    }
+
+    @Override
+    public void markRemoved(WorldCrops crops, long pos) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.Bit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.block.Biome;
+import org.bukkit.block.data.Ageable;
+import org.bukkit.block.data.BlockData;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+// Map-backed WorldAccess for tests: below groundY is farmland, the rest air unless set, one biome
+// everywhere, and chunks count as loaded unless unloaded. Writes land straight away and a tree grows
+// wherever SaplingGrowth.hasRoom finds space. Block data and biomes are proxies, and a proxy server
+// is installed for Material.createBlockData, so no server jar is needed at runtime.
+final class TestWorld implements WorldAccess {
+
+    static final Biome PLAINS = biome("PLAINS", 0);
+
+    private final Map<Long, BlockData> blocks = new HashMap<>();
+    private final Set<Long> unloaded = new HashSet<>();
+    private final int groundY;
+    private int trees;
+
+    TestWorld(int groundY) {
+        installServer();
+        this.groundY = groundY;
+    }
+
+    void set(int x, int y, int z, Material type) {
+        blocks.put(BlockKey.pack(x, y, z), blockData(type, 0));
+    }
+
+    void set(int x, int y, int z, BlockData data) {
+        blocks.put(BlockKey.pack(x, y, z), data);
+    }
+
+    void unload(int chunkX, int chunkZ) {
+        unloaded.add(WorldCrops.chunkKey(chunkX, chunkZ));
+    }
+
+    int trees() {
+        return trees;
+    }
+
+    @Override
+    public Material getType(int x, int y, int z) {
+        return lookup(x, y, z).getMaterial();
+    }
+
+    @Override
+    public BlockData getBlockData(int x, int y, int z) {
+        return lookup(x, y, z).clone();
+    }
+
+    @Override
+    public Biome getBiome(int x, int y, int z) {
+        return PLAINS;
+    }
+
+    @Override
+    public boolean isLoaded(int chunkX, int chunkZ) {
+        return !unloaded.contains(WorldCrops.chunkKey(chunkX, chunkZ));
+    }
+
+    @Override
+    public int minHeight() {
+        return -64;
+    }
+
+    @Override
+    public int maxHeight() {
+        return 320;
+    }
+
+    @Override
+    public void setBlockData(int x, int y, int z, BlockData data) {
+        set(x, y, z, data);
+    }
+
+    @Override
+    public int applyWrites() {
+        return 0;
+    }
+
+    @Override
+    public ChunkSnapshot snapshot(int chunkX, int chunkZ, boolean biomes) {
+        throw new UnsupportedOperationException("Tests read the world directly");
+    }
+
+    @Override
+    public TreeResult growTree(int x, int y, int z, Material saplingType) {
+        if (getType(x, y, z) != saplingType) return TreeResult.NOT_TRIED;
+        if (!SaplingGrowth.hasRoom(this, x, y, z, saplingType)) return TreeResult.FAILED;
+
+        set(x, y, z, Material.OAK_LOG);
+        trees++;
+        return TreeResult.GROWN;
+    }
+
+    private BlockData lookup(int x, int y, int z) {
+        BlockData data = blocks.get(BlockKey.pack(x, y, z));
+        if (data != null) return data;
+        return blockData(y < groundY ? Material.FARMLAND : Material.AIR, 0);
+    }
+
+    static synchronized void installServer() {
+        if (Bukkit.getServer() != null) return;
+
+        Logger logger = Logger.getLogger("BiomeMetric-test");
+        Bukkit.setServer((Server) Proxy.newProxyInstance(TestWorld.class.getClassLoader(), new Class<?>[]{Server.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "createBlockData" -> blockData((Material) args[0], 0);
+                    case "getLogger" -> logger;
+                    case "getName", "getVersion", "getBukkitVersion" -> "test";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "TestServer";
+                    default -> throw new UnsupportedOperationException(method.toString());
+                }));
+    }
+
+    // Ageable for the crops vanilla ages, plain block data for everything else
+    static BlockData blockData(Material material, int age) {
+        int maxAge = switch (material) {
+            case WHEAT, CARROTS, POTATOES, MELON_STEM, PUMPKIN_STEM -> 7;
+            case BEETROOTS, SWEET_BERRY_BUSH -> 3;
+            default -> -1;
+        };
+        int[] state = {age};
+        Class<?>[] interfaces = maxAge >= 0 ? new Class<?>[]{Ageable.class} : new Class<?>[]{BlockData.class};
+        return (BlockData) Proxy.newProxyInstance(TestWorld.class.getClassLoader(), interfaces,
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getMaterial" -> material;
+                    case "getAge" -> state[0];
+                    case "setAge" -> {
+                        state[0] = (Integer) args[0];
+                        yield null;
+                    }
+                    case "getMaximumAge" -> maxAge;
+                    case "clone" -> blockData(material, state[0]);
+                    case "hashCode" -> material.hashCode() * 31 + state[0];
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> material + "[age=" + state[0] + "]";
+                    default -> throw new UnsupportedOperationException(method.toString());
+                });
+    }
+
+    static Biome biome(String name, int ordinal) {
+        return (Biome) Proxy.newProxyInstance(TestWorld.class.getClassLoader(), new Class<?>[]{Biome.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "name", "toString" -> name;
+                    case "ordinal", "hashCode" -> ordinal;
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.toString());
+                });
+    }
+}
@@ -0,0 +1,187 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WorldCropsTest {
+
+    private static final long PLANTED = 1_700_000_000_000L;
+
+    @Test
+    public void removedSlotIsReusedWithFreshState() {
+        WorldCrops crops = new WorldCrops("world");
+        long a = BlockKey.pack(0, 64, 0);
+        long b = BlockKey.pack(1, 64, 0);
+        long c = BlockKey.pack(2, 64, 0);
+        crops.put(a, Material.WHEAT, PLANTED, 1, 0L, true);
+        int freed = crops.put(b, Material.MELON_STEM, PLANTED, 1, PLANTED + 60_000L, true);
+        crops.put(c, Material.CARROTS, PLANTED, 1, 0L, true);
+        crops.setNextDue(freed, PLANTED + 5_000L);
+        crops.setDeferred(freed, true);
+        crops.setFruitSpots(freed, (byte) 0x13);
+
+        assertTrue(crops.remove(b));
+        assertFalse(crops.remove(b));
+        assertEquals(-1, crops.slotOf(b));
+        assertEquals(2, crops.size());
+
+        long d = BlockKey.pack(3, 64, 0);
+        int reused = crops.put(d, Material.POTATOES, PLANTED + 1_000L, 1, 0L, true);
+        assertEquals(freed, reused);
+        assertEquals(d, crops.pos(reused));
+        assertEquals(Material.POTATOES, crops.type(reused));
+        assertEquals(0L, crops.lastFruitGrowth(reused));
+        assertEquals(0L, crops.nextDue(reused));
+        assertFalse(crops.deferred(reused));
+        assertEquals(FruitSpots.UNKNOWN, crops.fruitSpots(reused));
+        assertEquals(Material.WHEAT, crops.type(crops.slotOf(a)));
+        assertEquals(Material.CARROTS, crops.type(crops.slotOf(c)));
+        assertEquals(3, crops.size());
+    }
+
+    @Test
+    public void droppedChunkFreesEverySlot() {
+        WorldCrops crops = new WorldCrops("world");
+        Set<Integer> dropped = new HashSet<>();
+        for (int x = 0; x < 5; x++) {
+            dropped.add(crops.put(BlockKey.pack(x, 64, 3), Material.WHEAT, PLANTED, 1, 0L, true));
+        }
+        long other = BlockKey.pack(20, 64, 3);
+        int otherSlot = crops.put(other, Material.BEETROOTS, PLANTED, 1, 0L, true);
+
+        WorldCrops.ChunkBucket bucket = crops.drop(0, 0);
+        assertEquals(0, bucket.size());
+        assertFalse(bucket.isActive());
+        assertEquals(1, crops.size());
+        assertEquals(1, crops.activeBuckets().size());
+        assertEquals(-1, crops.slotOf(BlockKey.pack(2, 64, 3)));
+        assertEquals(null, crops.bucket(0, 0));
+
+        Set<Integer> reused = new HashSet<>();
+        for (int z = 0; z < 5; z++) {
+            reused.add(crops.put(BlockKey.pack(7, 70, z), Material.CARROTS, PLANTED, 1, 0L, true));
+        }
+        assertEquals(dropped, reused);
+        assertEquals(otherSlot, crops.slotOf(other));
+        assertEquals(Material.BEETROOTS, crops.type(otherSlot));
+        assertEquals(5, crops.bucket(0, 0).size());
+        assertEquals(6, crops.size());
+    }
+
+    @Test
+    public void parkedChunkHasNoActiveSlots() {
+        WorldCrops crops = new WorldCrops("world");
+        long pos = BlockKey.pack(-17, 64, 40);
+        int slot = crops.put(pos, Material.WHEAT, PLANTED, 1, 0L, false);
+
+        assertEquals(slot, crops.slotOf(pos));
+        assertEquals(-1, crops.activeSlotOf(pos));
+        crops.activate(-2, 2);
+        assertEquals(slot, crops.activeSlotOf(pos));
+        crops.park(-2, 2);
+        assertEquals(-1, crops.activeSlotOf(pos));
+    }
+
+    @Test
+    public void timesKeepWholeSecondsFromTheEpoch() {
+        WorldCrops crops = new WorldCrops("world");
+        int slot = crops.put(BlockKey.pack(0, 64, 0), Material.WHEAT, WorldCrops.EPOCH, 1, 0L, true);
+        assertEquals(WorldCrops.EPOCH, crops.planted(slot));
+
+        // Sub-second parts round down, before the epoch too
+        crops.put(BlockKey.pack(0, 64, 0), Material.WHEAT, WorldCrops.EPOCH + 1_999L, 1, 0L, true);
+        assertEquals(WorldCrops.EPOCH + 1_000L, crops.planted(slot));
+        crops.put(BlockKey.pack(0, 64, 0), Material.WHEAT, WorldCrops.EPOCH - 1L, 1, 0L, true);
+        assertEquals(WorldCrops.EPOCH - 1_000L, crops.planted(slot));
+
+        long late2087 = Instant.parse("2087-12-31T23:59:59Z").toEpochMilli();
+        crops.put(BlockKey.pack(0, 64, 0), Material.WHEAT, late2087, 1, late2087, true);
+        assertEquals(late2087, crops.planted(slot));
+        assertEquals(late2087, crops.lastFruitGrowth(slot));
+    }
+
+    @Test
+    public void timesPastTheRangeClampToItsEnds() {
+        WorldCrops crops = new WorldCrops("world");
+        long last = WorldCrops.EPOCH + Integer.MAX_VALUE * 1000L;
+        long first = WorldCrops.EPOCH + Integer.MIN_VALUE * 1000L;
+
+        int slot = crops.put(BlockKey.pack(0, 64, 0), Material.WHEAT, last, 1, 0L, true);
+        assertEquals(last, crops.planted(slot));
+        crops.put(BlockKey.pack(0, 64, 0), Material.WHEAT, Long.MAX_VALUE, 1, 0L, true);
+        assertEquals(last, crops.planted(slot));
+        crops.put(BlockKey.pack(0, 64, 0), Material.WHEAT, first, 1, 0L, true);
+        assertEquals(first, crops.planted(slot));
+        crops.put(BlockKey.pack(0, 64, 0), Material.WHEAT, first - 3_600_000L, 1, 0L, true);
+        assertEquals(first, crops.planted(slot));
+
+        // Zero means no fruit yet and stays zero
+        crops.setLastFruitGrowth(slot, 0L);
+        assertEquals(0L, crops.lastFruitGrowth(slot));
+        crops.setLastFruitGrowth(slot, Long.MAX_VALUE);
+        assertEquals(last, crops.lastFruitGrowth(slot));
+    }
+
+    @Test
+    public void stackAtFindsSegmentsOfRecordedStacks() {
+        WorldCrops crops = new WorldCrops("world");
+        int low = crops.put(BlockKey.pack(4, 60, 4), Material.SUGAR_CANE, PLANTED, 2, 0L, true);
+        int high = crops.put(BlockKey.pack(4, 64, 4), Material.SUGAR_CANE, PLANTED, 3, 0L, true);
+        crops.put(BlockKey.pack(5, 64, 4), Material.WHEAT, PLANTED, 1, 0L, true);
+
+        assertEquals(low, crops.stackAt(4, 60, 4));
+        assertEquals(low, crops.stackAt(4, 61, 4));
+        assertEquals(-1, crops.stackAt(4, 62, 4));
+        assertEquals(-1, crops.stackAt(4, 63, 4));
+        assertEquals(high, crops.stackAt(4, 64, 4));
+        assertEquals(high, crops.stackAt(4, 66, 4));
+        assertEquals(-1, crops.stackAt(4, 67, 4));
+        assertEquals(-1, crops.stackAt(5, 64, 4));
+        assertEquals(-1, crops.stackAt(5, 65, 4));
+
+        // Growing taller than any stack so far widens how far stackAt looks down
+        crops.setHeight(high, 12);
+        assertEquals(high, crops.stackAt(4, 75, 4));
+        assertEquals(-1, crops.stackAt(4, 76, 4));
+    }
+
+    @Test
+    public void stackAtMatchesAFullScan() {
+        Random random = new Random(3L);
+        WorldCrops crops = new WorldCrops("world");
+        // Non-overlapping stacks of random height in a few columns, some plain crops between them
+        for (int column = 0; column < 8; column++) {
+            int y = -64;
+            while (y < 200) {
+                y += random.nextInt(6);
+                int height = 1 + random.nextInt(column == 0 ? 40 : 8);
+                Material type = random.nextInt(5) == 0 ? Material.WHEAT : Material.BAMBOO;
+                crops.put(BlockKey.pack(column, y, 0), type, PLANTED, type == Material.WHEAT ? 1 : height, 0L, true);
+                y += type == Material.WHEAT ? 1 : height;
+            }
+        }
+
+        for (int column = 0; column < 8; column++) {
+            for (int y = -70; y < 260; y++) {
+                assertEquals("column " + column + " y " + y, scanFor(crops, column, y), crops.stackAt(column, y, 0));
+            }
+        }
+    }
+
+    private static int scanFor(WorldCrops crops, int x, int y) {
+        for (int baseY = y; baseY >= -64; baseY--) {
+            int slot = crops.slotOf(BlockKey.pack(x, baseY, 0));
+            if (slot >= 0 && CropTypes.isStacking(crops.type(slot)) && y < baseY + crops.height(slot)) return slot;
+        }
+        return -1;
+    }
+}
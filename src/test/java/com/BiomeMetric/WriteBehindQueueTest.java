@@ -0,0 +1,137 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WriteBehindQueueTest {
+
+    private static final Logger LOGGER = Logger.getLogger("BiomeMetric-test");
+    private static final long PLANTED = 1_700_000_000_000L;
+
+    @Test
+    public void repeatedChangesToOnePositionCollapse() throws Exception {
+        MapStore store = new MapStore();
+        WriteBehindQueue queue = new WriteBehindQueue(store, LOGGER, new GrowthMetrics(), 60_000L, 1_000);
+        long a = BlockKey.pack(0, 64, 0);
+        long b = BlockKey.pack(1, 64, 0);
+
+        queue.put("world", a, wheat(1));
+        queue.put("world", a, wheat(2));
+        queue.put("world", b, wheat(1));
+        Map<String, LongHashMap<CropRecord>> batch = new HashMap<>();
+        batch.computeIfAbsent("world", name -> new LongHashMap<>()).put(a, CropRecord.REMOVED);
+        batch.computeIfAbsent("nether", name -> new LongHashMap<>()).put(a, wheat(5));
+        queue.putAll(batch);
+        assertEquals(3, queue.pendingCount());
+
+        queue.flush();
+        assertEquals(0, queue.pendingCount());
+        assertEquals(3, store.writes());
+        assertEquals(1, store.commits());
+        assertEquals(CropRecord.REMOVED, store.records.get("world").get(a));
+        assertEquals(wheat(1), store.records.get("world").get(b));
+        assertEquals(wheat(5), store.records.get("nether").get(a));
+
+        // Nothing pending, nothing committed
+        queue.flush();
+        assertEquals(1, store.commits());
+    }
+
+    @Test
+    public void reachingTheThresholdFlushesInTheBackground() throws Exception {
+        MapStore store = new MapStore();
+        WriteBehindQueue queue = new WriteBehindQueue(store, LOGGER, new GrowthMetrics(), 60_000L, 3);
+        queue.start();
+        try {
+            queue.put("world", BlockKey.pack(0, 64, 0), wheat(1));
+            queue.put("world", BlockKey.pack(1, 64, 0), wheat(1));
+            assertEquals(0, store.commits());
+
+            queue.put("world", BlockKey.pack(2, 64, 0), wheat(1));
+            assertTrue(store.committed.await(10, TimeUnit.SECONDS));
+            assertEquals(3, store.writes());
+        } finally {
+            queue.close();
+        }
+    }
+
+    @Test
+    public void closeFlushesWhatIsLeft() {
+        MapStore store = new MapStore();
+        WriteBehindQueue queue = new WriteBehindQueue(store, LOGGER, new GrowthMetrics(), 60_000L, 1_000);
+        queue.start();
+        queue.put("world", BlockKey.pack(0, 64, 0), wheat(3));
+
+        queue.close();
+        assertEquals(0, queue.pendingCount());
+        assertEquals(1, store.commits());
+        assertEquals(wheat(3), store.records.get("world").get(BlockKey.pack(0, 64, 0)));
+    }
+
+    // Nothing flushes in the background once closed, so a late change is written by the thread making it
+    @Test
+    public void changesAfterCloseAreWrittenStraightAway() {
+        MapStore store = new MapStore();
+        WriteBehindQueue queue = new WriteBehindQueue(store, LOGGER, new GrowthMetrics(), 60_000L, 1_000);
+        queue.start();
+        queue.close();
+
+        queue.put("world", BlockKey.pack(0, 64, 0), wheat(1));
+        assertEquals(0, queue.pendingCount());
+        assertEquals(1, store.commits());
+
+        Map<String, LongHashMap<CropRecord>> batch = new HashMap<>();
+        batch.computeIfAbsent("world", name -> new LongHashMap<>()).put(BlockKey.pack(1, 64, 0), wheat(2));
+        queue.putAll(batch);
+        assertEquals(0, queue.pendingCount());
+        assertEquals(2, store.commits());
+        assertEquals(wheat(2), store.records.get("world").get(BlockKey.pack(1, 64, 0)));
+    }
+
+    private static CropRecord wheat(int height) {
+        return new CropRecord(Material.WHEAT, PLANTED, height, 0L);
+    }
+
+    // Only the writer thread or a closing caller writes; the counts are read from the test thread
+    private static final class MapStore implements CropStore {
+
+        final Map<String, LongHashMap<CropRecord>> records = new HashMap<>();
+        final CountDownLatch committed = new CountDownLatch(1);
+        private int writes;
+        private int commits;
+
+        @Override
+        public void load(Sink sink) {
+        }
+
+        @Override
+        public synchronized void write(String worldName, long pos, CropRecord record) {
+            records.computeIfAbsent(worldName, name -> new LongHashMap<>()).put(pos, record);
+            writes++;
+        }
+
+        @Override
+        public synchronized long commit() {
+            commits++;
+            committed.countDown();
+            return 0;
+        }
+
+        synchronized int writes() {
+            return writes;
+        }
+
+        synchronized int commits() {
+            return commits;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.Bit;
+
+import org.bukkit.Material;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+
+public class YamlCropStoreTest {
+
+    // A crops.yml as older versions wrote it: height and lastFruitGrowth only when they are set
+    private static final String LEGACY = String.join("\n",
+            "crops:",
+            "  world:10:64:-3:",
+            "    type: WHEAT",
+            "    planted: 1700000000000",
+            "  world:-40:70:12:",
+            "    type: SUGAR_CANE",
+            "    planted: 1699990000000",
+            "    height: 3",
+            "  world_nether:100:64:100:",
+            "    type: MELON_STEM",
+            "    planted: 1699000000000",
+            "    lastFruitGrowth: 1700000500000",
+            "  world:1:64:1:",
+            "    type: NOT_A_CROP",
+            "    planted: 1700000000000",
+            "  world:broken:",
+            "    type: WHEAT",
+            "    planted: 1700000000000",
+            "");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File legacyFile() throws IOException {
+        File file = folder.newFile("crops.yml");
+        Files.write(file.toPath(), LEGACY.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static Map<String, CropRecord> expected() {
+        return Map.of(
+                "world:10:64:-3", new CropRecord(Material.WHEAT, 1_700_000_000_000L, 1, 0L),
+                "world:-40:70:12", new CropRecord(Material.SUGAR_CANE, 1_699_990_000_000L, 3, 0L),
+                "world_nether:100:64:100", new CropRecord(Material.MELON_STEM, 1_699_000_000_000L, 1, 1_700_000_500_000L));
+    }
+
+    @Test
+    public void loadsLegacyFileAndSkipsBadEntries() throws IOException {
+        assertEquals(expected(), RegionCropStoreTest.loadAll(new YamlCropStore(legacyFile())));
+    }
+
+    // The same steps the plugin takes on startup when it finds a crops.yml
+    @Test
+    public void migratesIntoTheRegionStore() throws IOException {
+        RegionCropStore regions = new RegionCropStore(folder.getRoot().toPath().resolve("crops"), Logger.getLogger("YamlCropStoreTest"));
+        new YamlCropStore(legacyFile()).load(regions::write);
+        regions.commit();
+
+        assertEquals(expected(), RegionCropStoreTest.loadAll(
+                new RegionCropStore(folder.getRoot().toPath().resolve("crops"), Logger.getLogger("YamlCropStoreTest"))));
+    }
+
+    @Test
+    public void writesRoundTrip() throws IOException {
+        File file = new File(folder.getRoot(), "crops.yml");
+        YamlCropStore store = new YamlCropStore(file);
+        long kept = BlockKey.pack(-7, 80, 7);
+        long removed = BlockKey.pack(0, 64, 0);
+        CropRecord record = new CropRecord(Material.PUMPKIN_STEM, 1_700_000_000_000L, 1, 1_700_000_100_000L);
+        store.write("world", kept, record);
+        store.write("world", removed, new CropRecord(Material.CARROTS, 1_700_000_000_000L, 1, 0L));
+        store.write("world", removed, CropRecord.REMOVED);
+        store.commit();
+
+        assertEquals(Map.of("world:-7:80:7", record), RegionCropStoreTest.loadAll(new YamlCropStore(file)));
+    }
+}